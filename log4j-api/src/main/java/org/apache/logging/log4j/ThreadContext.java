@@ -216,7 +216,8 @@ public final class ThreadContext  {
      * @return an immutable copy of the ThreadContext stack.
      */
     public static ContextStack getImmutableStack() {
-        return contextStack;
+        final ContextStack stack = contextStack.getImmutableStackOrNull();
+        return stack == null ? EMPTY_STACK : stack;
     }
 
     /**
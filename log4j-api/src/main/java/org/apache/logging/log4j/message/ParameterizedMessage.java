@@ -16,6 +16,8 @@
  */
 package org.apache.logging.log4j.message;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,11 +30,16 @@ import java.util.Set;
  * Handles messages that consist of a format string containing '{}' to represent each replaceable token, and
  * the parameters.
  * <p/>
+ * Arguments are not converted to Strings when the message is created. They are kept as they were passed and only
+ * rendered when the message is formatted, either into a String by {@link #getFormattedMessage()} or directly into a
+ * caller supplied buffer by {@link #formatTo(StringBuilder)}. Code that hands the message to another thread should
+ * call {@link #getFormattedMessage()} first so that later changes to the arguments are not reflected in the output.
+ * <p/>
  * This class was originally written for Lillith (http://mac.freshmeat.net/projects/lilith-viewer) by
  * Joern Huxhorn where it is licensed under the LGPL. It has been relicensed here with his permission
  * providing that this attribution remain.
  */
-public class ParameterizedMessage implements Message {
+public class ParameterizedMessage implements Message, StringBuilderFormattable {
 
     /**
      * Prefix for recursion.
@@ -68,9 +75,29 @@ public class ParameterizedMessage implements Message {
     private static final char DELIM_STOP = '}';
     private static final char ESCAPE_CHAR = '\\';
 
+    // how the static formatting loop renders arguments that are not supplied by a message instance
+    private static final int APPEND_PLAIN = 0;
+    private static final int APPEND_DEEP = 1;
+    private static final int APPEND_DEEP_ALL_IN_ONE = 2;
+
+    private static final char TYPE_OBJECT = 0;
+    private static final char TYPE_LONG = 'J';
+    private static final char TYPE_DOUBLE = 'D';
+    private static final char TYPE_BOOLEAN = 'Z';
+    private static final char TYPE_CHAR = 'C';
+    private static final char TYPE_FLOAT = 'F';
+
     private final String messagePattern;
-    private final String[] stringArgs;
+    private String[] stringArgs;
+    private transient boolean lazyArgs;
     private transient Object[] argArray;
+    // fixed-arity arguments, used when argArray is null
+    private transient Object arg0;
+    private transient Object arg1;
+    private transient long primitive0;
+    private transient char type0;
+    private transient int argCount;
+    private transient boolean allArgsInOnePlaceholder;
     private transient String formattedMessage;
     private transient Throwable throwable;
 
@@ -97,7 +124,7 @@ public class ParameterizedMessage implements Message {
     public ParameterizedMessage(final String messagePattern, final Object[] objectArgs, final Throwable throwable) {
         this.messagePattern = messagePattern;
         this.throwable = throwable;
-        this.stringArgs = parseArguments(objectArgs);
+        initArguments(objectArgs);
     }
 
     /**
@@ -114,7 +141,7 @@ public class ParameterizedMessage implements Message {
      */
     public ParameterizedMessage(final String messagePattern, final Object[] arguments) {
         this.messagePattern = messagePattern;
-        this.stringArgs = parseArguments(arguments);
+        initArguments(arguments);
     }
 
     /**
@@ -123,7 +150,9 @@ public class ParameterizedMessage implements Message {
      * @param arg The parameter.
      */
     public ParameterizedMessage(final String messagePattern, final Object arg) {
-        this(messagePattern, new Object[]{arg});
+        this.messagePattern = messagePattern;
+        this.arg0 = arg;
+        initFixedArguments(1, arg);
     }
 
     /**
@@ -133,12 +162,76 @@ public class ParameterizedMessage implements Message {
      * @param arg2 The second parameter.
      */
     public ParameterizedMessage(final String messagePattern, final Object arg1, final Object arg2) {
-        this(messagePattern, new Object[]{arg1, arg2});
+        this.messagePattern = messagePattern;
+        this.arg0 = arg1;
+        this.arg1 = arg2;
+        initFixedArguments(2, arg2);
+    }
+
+    /**
+     * Constructor with a pattern and a single {@code long} parameter. The parameter is not boxed. Other integral
+     * types are widened to {@code long}.
+     * @param messagePattern The message pattern.
+     * @param arg The parameter.
+     */
+    public ParameterizedMessage(final String messagePattern, final long arg) {
+        this.messagePattern = messagePattern;
+        this.type0 = TYPE_LONG;
+        this.primitive0 = arg;
+        initFixedArguments(1, null);
+    }
+
+    /**
+     * Constructor with a pattern and a single {@code double} parameter. The parameter is not boxed.
+     * @param messagePattern The message pattern.
+     * @param arg The parameter.
+     */
+    public ParameterizedMessage(final String messagePattern, final double arg) {
+        this.messagePattern = messagePattern;
+        this.type0 = TYPE_DOUBLE;
+        this.primitive0 = Double.doubleToRawLongBits(arg);
+        initFixedArguments(1, null);
     }
 
-    private String[] parseArguments(final Object[] arguments) {
+    /**
+     * Constructor with a pattern and a single {@code boolean} parameter. The parameter is not boxed.
+     * @param messagePattern The message pattern.
+     * @param arg The parameter.
+     */
+    public ParameterizedMessage(final String messagePattern, final boolean arg) {
+        this.messagePattern = messagePattern;
+        this.type0 = TYPE_BOOLEAN;
+        this.primitive0 = arg ? 1 : 0;
+        initFixedArguments(1, null);
+    }
+
+    /**
+     * Constructor with a pattern and a single {@code char} parameter. The parameter is not boxed.
+     * @param messagePattern The message pattern.
+     * @param arg The parameter.
+     */
+    public ParameterizedMessage(final String messagePattern, final char arg) {
+        this.messagePattern = messagePattern;
+        this.type0 = TYPE_CHAR;
+        this.primitive0 = arg;
+        initFixedArguments(1, null);
+    }
+
+    /**
+     * Constructor with a pattern and a single {@code float} parameter. The parameter is not boxed.
+     * @param messagePattern The message pattern.
+     * @param arg The parameter.
+     */
+    public ParameterizedMessage(final String messagePattern, final float arg) {
+        this.messagePattern = messagePattern;
+        this.type0 = TYPE_FLOAT;
+        this.primitive0 = Float.floatToRawIntBits(arg);
+        initFixedArguments(1, null);
+    }
+
+    private void initArguments(final Object[] arguments) {
         if (arguments == null) {
-            return null;
+            return;
         }
         final int argsCount = countArgumentPlaceholders(messagePattern);
         int resultArgCount = arguments.length;
@@ -146,23 +239,132 @@ public class ParameterizedMessage implements Message {
             throwable = (Throwable) arguments[arguments.length - 1];
             resultArgCount--;
         }
-        argArray = new Object[resultArgCount];
-        for (int i = 0; i < resultArgCount; ++i) {
-            argArray[i] = arguments[i];
+        lazyArgs = true;
+        argArray = arguments;
+        argCount = resultArgCount;
+        // special case: a single placeholder receives all the arguments
+        allArgsInOnePlaceholder = argsCount == 1 && throwable == null && arguments.length > 1;
+    }
+
+    private void initFixedArguments(final int count, final Object lastArg) {
+        final int argsCount = countArgumentPlaceholders(messagePattern);
+        int resultArgCount = count;
+        if (argsCount < count && lastArg instanceof Throwable) {
+            throwable = (Throwable) lastArg;
+            resultArgCount--;
+        }
+        lazyArgs = true;
+        argCount = resultArgCount;
+        allArgsInOnePlaceholder = argsCount == 1 && throwable == null && count > 1;
+    }
+
+    /**
+     * Returns the argument at the specified index, boxing it if it was passed as a primitive.
+     */
+    private Object getArgument(final int index) {
+        if (argArray != null) {
+            return argArray[index];
+        }
+        // only a single argument is ever passed as a primitive
+        final char type = index == 0 ? type0 : TYPE_OBJECT;
+        final long primitive = primitive0;
+        switch (type) {
+        case TYPE_LONG:
+            return Long.valueOf(primitive);
+        case TYPE_DOUBLE:
+            return Double.valueOf(Double.longBitsToDouble(primitive));
+        case TYPE_BOOLEAN:
+            return Boolean.valueOf(primitive != 0);
+        case TYPE_CHAR:
+            return Character.valueOf((char) primitive);
+        case TYPE_FLOAT:
+            return Float.valueOf(Float.intBitsToFloat((int) primitive));
+        default:
+            return index == 0 ? arg0 : arg1;
+        }
+    }
+
+    /**
+     * Appends the argument for the placeholder at the specified index to the buffer without boxing primitives.
+     */
+    private void appendArgument(final int index, final StringBuilder buffer) {
+        if (allArgsInOnePlaceholder) {
+            if (argArray != null) {
+                recursiveDeepToString(argArray, buffer, null);
+            } else {
+                buffer.append('[');
+                appendSingleArgument(0, buffer);
+                buffer.append(", ");
+                appendSingleArgument(1, buffer);
+                buffer.append(']');
+            }
+        } else {
+            appendSingleArgument(index, buffer);
+        }
+    }
+
+    private void appendSingleArgument(final int index, final StringBuilder buffer) {
+        if (argArray != null) {
+            appendDeep(argArray[index], buffer);
+            return;
+        }
+        // only a single argument is ever passed as a primitive
+        final char type = index == 0 ? type0 : TYPE_OBJECT;
+        final long primitive = primitive0;
+        switch (type) {
+        case TYPE_LONG:
+            buffer.append(primitive);
+            break;
+        case TYPE_DOUBLE:
+            buffer.append(Double.longBitsToDouble(primitive));
+            break;
+        case TYPE_BOOLEAN:
+            buffer.append(primitive != 0);
+            break;
+        case TYPE_CHAR:
+            buffer.append((char) primitive);
+            break;
+        case TYPE_FLOAT:
+            buffer.append(Float.intBitsToFloat((int) primitive));
+            break;
+        default:
+            appendDeep(index == 0 ? arg0 : arg1, buffer);
+            break;
         }
+    }
 
-        String[] strArgs;
-        if (argsCount == 1 && throwable == null && arguments.length > 1) {
-            // special case
-            strArgs = new String[1];
-            strArgs[0] = deepToString(arguments);
+    private static void appendDeep(final Object arg, final StringBuilder buffer) {
+        if (arg instanceof String) {
+            buffer.append((String) arg);
         } else {
-            strArgs = new String[resultArgCount];
-            for (int i = 0; i < strArgs.length; i++) {
-                strArgs[i] = deepToString(arguments[i]);
+            recursiveDeepToString(arg, buffer, null);
+        }
+    }
+
+    /**
+     * Converts the arguments to Strings the first time they are needed.
+     */
+    private String[] getStringArgs() {
+        if (stringArgs == null && lazyArgs) {
+            String[] strArgs;
+            if (allArgsInOnePlaceholder) {
+                strArgs = new String[1];
+                if (argArray != null) {
+                    strArgs[0] = deepToString(argArray);
+                } else {
+                    final StringBuilder sb = new StringBuilder();
+                    appendArgument(0, sb);
+                    strArgs[0] = sb.toString();
+                }
+            } else {
+                strArgs = new String[argCount];
+                for (int i = 0; i < strArgs.length; i++) {
+                    strArgs[i] = deepToString(getArgument(i));
+                }
             }
+            stringArgs = strArgs;
         }
-        return strArgs;
+        return stringArgs;
     }
 
     /**
@@ -172,11 +374,36 @@ public class ParameterizedMessage implements Message {
     @Override
     public String getFormattedMessage() {
         if (formattedMessage == null) {
-            formattedMessage = formatMessage(messagePattern, stringArgs);
+            if (stringArgs == null && lazyArgs && messagePattern != null
+                    && getClass() == ParameterizedMessage.class) {
+                final StringBuilder buffer = new StringBuilder(messagePattern.length() + 16 * argCount);
+                formatTo(buffer);
+                formattedMessage = buffer.toString();
+            } else {
+                formattedMessage = formatMessage(messagePattern, getStringArgs());
+            }
         }
         return formattedMessage;
     }
 
+    /**
+     * Appends the formatted message to the specified buffer without creating intermediate Strings for the message
+     * or its arguments.
+     * @param buffer The StringBuilder to append the formatted message to.
+     */
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        if (formattedMessage != null) {
+            buffer.append(formattedMessage);
+        } else if (stringArgs != null || !lazyArgs || messagePattern == null
+                || getClass() != ParameterizedMessage.class) {
+            // subclasses may override formatMessage
+            buffer.append(getFormattedMessage());
+        } else {
+            formatTo(messagePattern, this, null, allArgsInOnePlaceholder ? 1 : argCount, APPEND_PLAIN, buffer);
+        }
+    }
+
     /**
      * Returns the message pattern.
      * @return the message pattern.
@@ -192,9 +419,16 @@ public class ParameterizedMessage implements Message {
      */
     @Override
     public Object[] getParameters() {
-        if (argArray != null) {
+        if (argArray != null && argCount == argArray.length) {
             return argArray;
         }
+        if (lazyArgs) {
+            final Object[] params = new Object[argCount];
+            for (int i = 0; i < argCount; i++) {
+                params[i] = getArgument(i);
+            }
+            return params;
+        }
         return stringArgs;
     }
 
@@ -230,7 +464,7 @@ public class ParameterizedMessage implements Message {
         if (messagePattern != null ? !messagePattern.equals(that.messagePattern) : that.messagePattern != null) {
             return false;
         }
-        if (!Arrays.equals(stringArgs, that.stringArgs)) {
+        if (!Arrays.equals(getStringArgs(), that.getStringArgs())) {
             return false;
         }
         //if (throwable != null ? !throwable.equals(that.throwable) : that.throwable != null) return false;
@@ -241,7 +475,8 @@ public class ParameterizedMessage implements Message {
     @Override
     public int hashCode() {
         int result = messagePattern != null ? messagePattern.hashCode() : 0;
-        result = HASHVAL * result + (stringArgs != null ? Arrays.hashCode(stringArgs) : 0);
+        final String[] strArgs = getStringArgs();
+        result = HASHVAL * result + (strArgs != null ? Arrays.hashCode(strArgs) : 0);
         return result;
     }
 
@@ -258,15 +493,67 @@ public class ParameterizedMessage implements Message {
         }
 
         final StringBuilder result = new StringBuilder();
+        formatTo(messagePattern, null, arguments, arguments.length, APPEND_PLAIN, result);
+        return result.toString();
+    }
+
+    /**
+     * Appends the message pattern with its placeholders replaced by the arguments, rendered the same way as the
+     * arguments of a ParameterizedMessage.
+     *
+     * @param messagePattern the message pattern containing placeholders.
+     * @param arguments      the arguments, possibly including a trailing Throwable.
+     * @param buffer         the StringBuilder to append the formatted message to.
+     */
+    static void formatTo(final String messagePattern, final Object[] arguments, final StringBuilder buffer) {
+        if (messagePattern == null || arguments == null) {
+            buffer.append(messagePattern);
+            return;
+        }
+        final int placeholders = countArgumentPlaceholders(messagePattern);
+        if (placeholders == 1 && arguments.length > 1 && !(arguments[arguments.length - 1] instanceof Throwable)) {
+            formatTo(messagePattern, null, arguments, 1, APPEND_DEEP_ALL_IN_ONE, buffer);
+        } else {
+            formatTo(messagePattern, null, arguments, getArgumentCount(placeholders, arguments), APPEND_DEEP, buffer);
+        }
+    }
+
+    /**
+     * Returns the number of arguments that are parameters, excluding a trailing Throwable that has no placeholder.
+     */
+    static int getArgumentCount(final int placeholders, final Object[] arguments) {
+        if (placeholders < arguments.length && arguments[arguments.length - 1] instanceof Throwable) {
+            return arguments.length - 1;
+        }
+        return arguments.length;
+    }
+
+    /**
+     * Replaces placeholders in the given messagePattern with arguments and appends the result to the buffer.
+     *
+     * @param messagePattern the message pattern containing placeholders.
+     * @param message        the message supplying the arguments, or null to use the arguments array.
+     * @param arguments      the arguments to be used to replace placeholders if message is null.
+     * @param argCount       the number of arguments to use.
+     * @param appendStyle    how to render the arguments if message is null.
+     * @param result         the StringBuilder to append the formatted message to.
+     */
+    private static void formatTo(final String messagePattern, final ParameterizedMessage message,
+                                 final Object[] arguments, final int argCount, final int appendStyle,
+                                 final StringBuilder result) {
+        if (argCount == 0) {
+            result.append(messagePattern);
+            return;
+        }
+        final int len = messagePattern.length();
         int escapeCounter = 0;
         int currentArgument = 0;
-        for (int i = 0; i < messagePattern.length(); i++) {
+        for (int i = 0; i < len; i++) {
             final char curChar = messagePattern.charAt(i);
             if (curChar == ESCAPE_CHAR) {
                 escapeCounter++;
             } else {
-                if (curChar == DELIM_START && i < messagePattern.length() - 1
-                        && messagePattern.charAt(i + 1) == DELIM_STOP) {
+                if (curChar == DELIM_START && i < len - 1 && messagePattern.charAt(i + 1) == DELIM_STOP) {
                     // write escaped escape chars
                     final int escapedEscapes = escapeCounter / 2;
                     for (int j = 0; j < escapedEscapes; j++) {
@@ -280,8 +567,16 @@ public class ParameterizedMessage implements Message {
                         result.append(DELIM_STOP);
                     } else {
                         // unescaped
-                        if (currentArgument < arguments.length) {
-                            result.append(arguments[currentArgument]);
+                        if (currentArgument < argCount) {
+                            if (message != null) {
+                                message.appendArgument(currentArgument, result);
+                            } else if (appendStyle == APPEND_DEEP) {
+                                appendDeep(arguments[currentArgument], result);
+                            } else if (appendStyle == APPEND_DEEP_ALL_IN_ONE) {
+                                recursiveDeepToString(arguments, result, null);
+                            } else {
+                                result.append(arguments[currentArgument]);
+                            }
                         } else {
                             result.append(DELIM_START).append(DELIM_STOP);
                         }
@@ -302,7 +597,6 @@ public class ParameterizedMessage implements Message {
                 result.append(curChar);
             }
         }
-        return result.toString();
     }
 
     /**
@@ -365,8 +659,7 @@ public class ParameterizedMessage implements Message {
             return (String) o;
         }
         final StringBuilder str = new StringBuilder();
-        final Set<String> dejaVu = new HashSet<String>(); // that's actually a neat name ;)
-        recursiveDeepToString(o, str, dejaVu);
+        recursiveDeepToString(o, str, null);
         return str.toString();
     }
 
@@ -389,7 +682,7 @@ public class ParameterizedMessage implements Message {
      *
      * @param o      the Object to convert into a String
      * @param str    the StringBuilder that o will be appended to
-     * @param dejaVu a list of container identities that were already used.
+     * @param dejaVu a list of container identities that were already used, or null if no container has been seen.
      */
     private static void recursiveDeepToString(final Object o, final StringBuilder str, final Set<String> dejaVu) {
         if (o == null) {
@@ -422,10 +715,11 @@ public class ParameterizedMessage implements Message {
             } else {
                 // special handling of container Object[]
                 final String id = identityToString(o);
-                if (dejaVu.contains(id)) {
+                if (dejaVu != null && dejaVu.contains(id)) {
                     str.append(RECURSION_PREFIX).append(id).append(RECURSION_SUFFIX);
                 } else {
-                    dejaVu.add(id);
+                    final Set<String> seen = dejaVu == null ? new HashSet<String>() : dejaVu;
+                    seen.add(id);
                     final Object[] oArray = (Object[]) o;
                     str.append("[");
                     boolean first = true;
@@ -435,7 +729,7 @@ public class ParameterizedMessage implements Message {
                         } else {
                             str.append(", ");
                         }
-                        recursiveDeepToString(current, str, new HashSet<String>(dejaVu));
+                        recursiveDeepToString(current, str, new HashSet<String>(seen));
                     }
                     str.append("]");
                 }
@@ -444,10 +738,11 @@ public class ParameterizedMessage implements Message {
         } else if (o instanceof Map) {
             // special handling of container Map
             final String id = identityToString(o);
-            if (dejaVu.contains(id)) {
+            if (dejaVu != null && dejaVu.contains(id)) {
                 str.append(RECURSION_PREFIX).append(id).append(RECURSION_SUFFIX);
             } else {
-                dejaVu.add(id);
+                final Set<String> seen = dejaVu == null ? new HashSet<String>() : dejaVu;
+                seen.add(id);
                 final Map<?, ?> oMap = (Map<?, ?>) o;
                 str.append("{");
                 boolean isFirst = true;
@@ -460,19 +755,20 @@ public class ParameterizedMessage implements Message {
                     }
                     final Object key = current.getKey();
                     final Object value = current.getValue();
-                    recursiveDeepToString(key, str, new HashSet<String>(dejaVu));
+                    recursiveDeepToString(key, str, new HashSet<String>(seen));
                     str.append("=");
-                    recursiveDeepToString(value, str, new HashSet<String>(dejaVu));
+                    recursiveDeepToString(value, str, new HashSet<String>(seen));
                 }
                 str.append("}");
             }
         } else if (o instanceof Collection) {
             // special handling of container Collection
             final String id = identityToString(o);
-            if (dejaVu.contains(id)) {
+            if (dejaVu != null && dejaVu.contains(id)) {
                 str.append(RECURSION_PREFIX).append(id).append(RECURSION_SUFFIX);
             } else {
-                dejaVu.add(id);
+                final Set<String> seen = dejaVu == null ? new HashSet<String>() : dejaVu;
+                seen.add(id);
                 final Collection<?> oCol = (Collection<?>) o;
                 str.append("[");
                 boolean isFirst = true;
@@ -482,7 +778,7 @@ public class ParameterizedMessage implements Message {
                     } else {
                         str.append(", ");
                     }
-                    recursiveDeepToString(anOCol, str, new HashSet<String>(dejaVu));
+                    recursiveDeepToString(anOCol, str, new HashSet<String>(seen));
                 }
                 str.append("]");
             }
@@ -539,6 +835,11 @@ public class ParameterizedMessage implements Message {
     @Override
     public String toString() {
         return "ParameterizedMessage[messagePattern=" + messagePattern + ", stringArgs=" +
-            Arrays.toString(stringArgs) + ", throwable=" + throwable + "]";
+            Arrays.toString(getStringArgs()) + ", throwable=" + throwable + "]";
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        getStringArgs();
+        out.defaultWriteObject();
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+/**
+ * A Message whose contents may be overwritten after it was logged, so that the same instance can be used for many
+ * log calls on one thread.
+ * <p>
+ * Code that keeps a reference to such a message beyond the log call, or passes it to another thread, must use
+ * {@link #memento()} instead.
+ * </p>
+ *
+ * @see ReusableMessageFactory
+ */
+public interface ReusableMessage extends Message {
+
+    /**
+     * Returns an immutable copy of the current contents of this message.
+     * @return a Message that is not affected by later reuse of this instance.
+     */
+    Message memento();
+}
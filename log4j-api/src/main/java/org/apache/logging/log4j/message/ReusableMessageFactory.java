@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+/**
+ * Creates {@link ReusableMessage} instances that are kept in thread locals and overwritten on every log call, so
+ * that logging does not allocate a new Message object.
+ * <p>
+ * A reused message is only valid until {@link #release(Message)} is called for it, which the logging implementation
+ * does once the log call has completed. Implementations that pass the message to another thread must hand over
+ * {@link ReusableMessage#memento()} instead. If a message of the same type is still in use on the current thread,
+ * for example when an object being logged logs from its {@code toString()} method, a regular immutable message is
+ * returned.
+ * </p>
+ */
+public final class ReusableMessageFactory extends AbstractMessageFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Instance of ReusableMessageFactory.
+     */
+    public static final ReusableMessageFactory INSTANCE = new ReusableMessageFactory();
+
+    private static final ThreadLocal<ReusableParameterizedMessage> parameterizedMessages =
+            new ThreadLocal<ReusableParameterizedMessage>() {
+        @Override
+        protected ReusableParameterizedMessage initialValue() {
+            return new ReusableParameterizedMessage();
+        }
+    };
+
+    private static final ThreadLocal<ReusableSimpleMessage> simpleMessages = new ThreadLocal<ReusableSimpleMessage>() {
+        @Override
+        protected ReusableSimpleMessage initialValue() {
+            return new ReusableSimpleMessage();
+        }
+    };
+
+    private static final ThreadLocal<ReusableObjectMessage> objectMessages = new ThreadLocal<ReusableObjectMessage>() {
+        @Override
+        protected ReusableObjectMessage initialValue() {
+            return new ReusableObjectMessage();
+        }
+    };
+
+    /**
+     * Creates a ReusableObjectMessage, or an {@link ObjectMessage} if the current thread's instance is in use.
+     * @param message The Object.
+     * @return The Message.
+     */
+    @Override
+    public Message newMessage(final Object message) {
+        final ReusableObjectMessage result = objectMessages.get();
+        if (result.isReserved()) {
+            return new ObjectMessage(message);
+        }
+        result.setReserved(true);
+        return result.set(message);
+    }
+
+    /**
+     * Creates a ReusableSimpleMessage, or a {@link SimpleMessage} if the current thread's instance is in use.
+     * @param message The String.
+     * @return The Message.
+     */
+    @Override
+    public Message newMessage(final String message) {
+        final ReusableSimpleMessage result = simpleMessages.get();
+        if (result.isReserved()) {
+            return new SimpleMessage(message);
+        }
+        result.setReserved(true);
+        return result.set(message);
+    }
+
+    /**
+     * Creates a ReusableParameterizedMessage, or a {@link ParameterizedMessage} if the current thread's instance is
+     * in use.
+     * @param message The message pattern.
+     * @param params The message parameters.
+     * @return The Message.
+     */
+    @Override
+    public Message newMessage(final String message, final Object... params) {
+        final ReusableParameterizedMessage result = parameterizedMessages.get();
+        if (result.isReserved()) {
+            return new ParameterizedMessage(message, params);
+        }
+        result.setReserved(true);
+        return result.set(message, params);
+    }
+
+    /**
+     * Makes a message created by this factory available for reuse by the current thread and drops its references to
+     * the logged objects. Messages of other types are ignored.
+     * @param message the message that is no longer needed.
+     */
+    public static void release(final Message message) {
+        if (message instanceof ReusableParameterizedMessage) {
+            ((ReusableParameterizedMessage) message).clear();
+        } else if (message instanceof ReusableSimpleMessage) {
+            ((ReusableSimpleMessage) message).clear();
+        } else if (message instanceof ReusableObjectMessage) {
+            ((ReusableObjectMessage) message).clear();
+        }
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+}
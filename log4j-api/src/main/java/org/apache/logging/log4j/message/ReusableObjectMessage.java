@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.io.ObjectStreamException;
+
+/**
+ * Mutable counterpart of {@link ObjectMessage}, handed out by {@link ReusableMessageFactory}.
+ * <p>
+ * This class is not thread-safe and its contents change on every log call; it is serialized as an ObjectMessage.
+ * </p>
+ */
+public final class ReusableObjectMessage implements ReusableMessage, StringBuilderFormattable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient Object obj;
+    private transient boolean reserved;
+
+    ReusableObjectMessage() {
+    }
+
+    ReusableObjectMessage set(final Object obj) {
+        this.obj = obj;
+        return this;
+    }
+
+    boolean isReserved() {
+        return reserved;
+    }
+
+    void setReserved(final boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    void clear() {
+        obj = null;
+        reserved = false;
+    }
+
+    @Override
+    public Message memento() {
+        return new ObjectMessage(obj);
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        return String.valueOf(obj);
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        buffer.append(obj);
+    }
+
+    @Override
+    public String getFormat() {
+        return getFormattedMessage();
+    }
+
+    /**
+     * Returns the object as if it were a parameter.
+     * @return The object.
+     */
+    @Override
+    public Object[] getParameters() {
+        return new Object[] {obj};
+    }
+
+    /**
+     * Returns the object if it is a Throwable, otherwise null.
+     * @return the Throwable or null.
+     */
+    @Override
+    public Throwable getThrowable() {
+        return obj instanceof Throwable ? (Throwable) obj : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableObjectMessage[obj=" + obj + ']';
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return memento();
+    }
+}
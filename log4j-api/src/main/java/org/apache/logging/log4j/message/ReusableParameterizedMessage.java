@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import java.io.ObjectStreamException;
+
+/**
+ * Mutable counterpart of {@link ParameterizedMessage}, handed out by {@link ReusableMessageFactory}.
+ * <p>
+ * This class is not thread-safe and its contents change on every log call; it is serialized as a
+ * ParameterizedMessage.
+ * </p>
+ */
+public final class ReusableParameterizedMessage implements ReusableMessage, StringBuilderFormattable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient String messagePattern;
+    private transient Object[] params;
+    private transient Throwable throwable;
+    private transient boolean reserved;
+
+    ReusableParameterizedMessage() {
+    }
+
+    ReusableParameterizedMessage set(final String messagePattern, final Object[] params) {
+        this.messagePattern = messagePattern;
+        this.params = params;
+        this.throwable = null;
+        if (messagePattern != null && params != null && params.length > 0) {
+            final int placeholders = ParameterizedMessage.countArgumentPlaceholders(messagePattern);
+            if (ParameterizedMessage.getArgumentCount(placeholders, params) < params.length) {
+                throwable = (Throwable) params[params.length - 1];
+            }
+        }
+        return this;
+    }
+
+    boolean isReserved() {
+        return reserved;
+    }
+
+    void setReserved(final boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    void clear() {
+        messagePattern = null;
+        params = null;
+        throwable = null;
+        reserved = false;
+    }
+
+    @Override
+    public Message memento() {
+        return new ParameterizedMessage(messagePattern, params);
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        final StringBuilder buffer = new StringBuilder(messagePattern == null ? 16 : messagePattern.length() + 32);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        ParameterizedMessage.formatTo(messagePattern, params, buffer);
+    }
+
+    @Override
+    public String getFormat() {
+        return messagePattern;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return params;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableParameterizedMessage[messagePattern=" + messagePattern + ", argCount="
+                + (params == null ? 0 : params.length) + ", throwableProvided=" + (throwable != null) + ']';
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return memento();
+    }
+}
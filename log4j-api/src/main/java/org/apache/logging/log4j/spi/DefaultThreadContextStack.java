@@ -24,16 +24,15 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
- * A copy-on-write thread-safe variant of
- * {@code org.apache.logging.log4j.spi.ThreadContextStack} in which all mutative
- * operations (add, pop, and so on) are implemented by making a fresh copy of
- * the underlying list.
+ * A thread-safe variant of {@code org.apache.logging.log4j.spi.ThreadContextStack} that keeps each thread's stack
+ * in an {@link ImmutableThreadContextStack}. Pushing and popping an element never copies the elements below it, and
+ * {@link #getImmutableStackOrNull()} returns the current stack without copying.
  */
 public class DefaultThreadContextStack implements ThreadContextStack {
 
     private static final long serialVersionUID = 5050501L;
 
-    private static ThreadLocal<List<String>> stack = new ThreadLocal<List<String>>();
+    private static ThreadLocal<ImmutableThreadContextStack> stack = new ThreadLocal<ImmutableThreadContextStack>();
 
     private final boolean useStack;
 
@@ -46,25 +45,18 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack) {
             return "";
         }
-        final List<String> list = stack.get();
-        if (list == null || list.size() == 0) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             throw new NoSuchElementException("The ThreadContext stack is empty");
         }
-        final List<String> copy = new ArrayList<String>(list);
-        final int last = copy.size() - 1;
-        final String result = copy.remove(last);
-        stack.set(Collections.unmodifiableList(copy));
-        return result;
+        set(top.getParent());
+        return top.peek();
     }
 
     @Override
     public String peek() {
-        final List<String> list = stack.get();
-        if (list == null || list.size() == 0) {
-            return null;
-        }
-        final int last = list.size() - 1;
-        return list.get(last);
+        final ImmutableThreadContextStack top = stack.get();
+        return top == null ? null : top.peek();
     }
 
     @Override
@@ -77,17 +69,17 @@ public class DefaultThreadContextStack implements ThreadContextStack {
 
     @Override
     public int getDepth() {
-        final List<String> list = stack.get();
-        return list == null ? 0 : list.size();
+        final ImmutableThreadContextStack top = stack.get();
+        return top == null ? 0 : top.getDepth();
     }
 
     @Override
     public List<String> asList() {
-        final List<String> list = stack.get();
-        if (list == null) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return Collections.emptyList();
         }
-        return list;
+        return top.asList();
     }
 
     @Override
@@ -96,25 +88,29 @@ public class DefaultThreadContextStack implements ThreadContextStack {
             throw new IllegalArgumentException(
                     "Maximum stack depth cannot be negative");
         }
-        final List<String> list = stack.get();
-        if (list == null) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return;
         }
-        final List<String> copy = new ArrayList<String>();
-        final int count = Math.min(depth, list.size());
-        for (int i = 0; i < count; i++) {
-            copy.add(list.get(i));
-        }
-        stack.set(copy);
+        set(top.trimTo(depth));
     }
 
     @Override
     public ThreadContextStack copy() {
-        List<String> result = null;
+        ImmutableThreadContextStack result = null;
         if (!useStack || (result = stack.get()) == null) {
             return new MutableThreadContextStack(new ArrayList<String>());
         }
-        return new MutableThreadContextStack(result);
+        return new MutableThreadContextStack(result.asList());
+    }
+
+    /**
+     * Returns the current thread's stack, which is immutable, or {@code null} if the stack is empty.
+     * @return an immutable stack or {@code null}.
+     */
+    @Override
+    public ThreadContextStack getImmutableStackOrNull() {
+        return stack.get();
     }
 
     @Override
@@ -124,51 +120,44 @@ public class DefaultThreadContextStack implements ThreadContextStack {
 
     @Override
     public int size() {
-        final List<String> result = stack.get();
-        return result == null ? 0 : result.size();
+        return getDepth();
     }
 
     @Override
     public boolean isEmpty() {
-        final List<String> result = stack.get();
-        return result == null || result.isEmpty();
+        return stack.get() == null;
     }
 
     @Override
     public boolean contains(final Object o) {
-        final List<String> result = stack.get();
-        return result != null && result.contains(o);
+        final ImmutableThreadContextStack top = stack.get();
+        return top != null && top.contains(o);
     }
 
     @Override
     public Iterator<String> iterator() {
-        final List<String> immutable = stack.get();
-        if (immutable == null) {
-            final List<String> empty = Collections.emptyList();
-            return empty.iterator();
-        }
-        return immutable.iterator();
+        return asList().iterator();
     }
 
     @Override
     public Object[] toArray() {
-        final List<String> result = stack.get();
-        if (result == null) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return new String[0];
         }
-        return result.toArray(new Object[result.size()]);
+        return top.toArray();
     }
 
     @Override
     public <T> T[] toArray(final T[] ts) {
-        final List<String> result = stack.get();
-        if (result == null) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             if (ts.length > 0) { // as per the contract of j.u.List#toArray(T[])
                 ts[0] = null;
             }
             return ts;
         }
-        return result.toArray(ts);
+        return top.toArray(ts);
     }
 
     @Override
@@ -176,11 +165,7 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack) {
             return false;
         }
-        final List<String> list = stack.get();
-        final List<String> copy = list == null ? new ArrayList<String>()
-                : new ArrayList<String>(list);
-        copy.add(s);
-        stack.set(Collections.unmodifiableList(copy));
+        stack.set(ImmutableThreadContextStack.push(stack.get(), s));
         return true;
     }
 
@@ -189,13 +174,13 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack) {
             return false;
         }
-        final List<String> list = stack.get();
-        if (list == null || list.size() == 0) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return false;
         }
-        final List<String> copy = new ArrayList<String>(list);
+        final List<String> copy = new ArrayList<String>(top.asList());
         final boolean result = copy.remove(o);
-        stack.set(Collections.unmodifiableList(copy));
+        setElements(copy);
         return result;
     }
 
@@ -205,8 +190,8 @@ public class DefaultThreadContextStack implements ThreadContextStack {
             return true; // looks counter-intuitive, but see
                          // j.u.AbstractCollection
         }
-        final List<String> list = stack.get();
-        return list != null && list.containsAll(objects);
+        final ImmutableThreadContextStack top = stack.get();
+        return top != null && top.containsAll(objects);
     }
 
     @Override
@@ -214,11 +199,11 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack || strings.isEmpty()) {
             return false;
         }
-        final List<String> list = stack.get();
-        final List<String> copy = list == null ? new ArrayList<String>()
-                : new ArrayList<String>(list);
-        copy.addAll(strings);
-        stack.set(Collections.unmodifiableList(copy));
+        ImmutableThreadContextStack top = stack.get();
+        for (final String s : strings) {
+            top = ImmutableThreadContextStack.push(top, s);
+        }
+        stack.set(top);
         return true;
     }
 
@@ -227,13 +212,13 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack || objects.isEmpty()) {
             return false;
         }
-        final List<String> list = stack.get();
-        if (list == null || list.isEmpty()) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return false;
         }
-        final List<String> copy = new ArrayList<String>(list);
+        final List<String> copy = new ArrayList<String>(top.asList());
         final boolean result = copy.removeAll(objects);
-        stack.set(Collections.unmodifiableList(copy));
+        setElements(copy);
         return result;
     }
 
@@ -242,19 +227,35 @@ public class DefaultThreadContextStack implements ThreadContextStack {
         if (!useStack || objects.isEmpty()) {
             return false;
         }
-        final List<String> list = stack.get();
-        if (list == null || list.isEmpty()) {
+        final ImmutableThreadContextStack top = stack.get();
+        if (top == null) {
             return false;
         }
-        final List<String> copy = new ArrayList<String>(list);
+        final List<String> copy = new ArrayList<String>(top.asList());
         final boolean result = copy.retainAll(objects);
-        stack.set(Collections.unmodifiableList(copy));
+        setElements(copy);
         return result;
     }
 
+    private void set(final ImmutableThreadContextStack top) {
+        if (top == null) {
+            stack.remove();
+        } else {
+            stack.set(top);
+        }
+    }
+
+    private void setElements(final List<String> elements) {
+        ImmutableThreadContextStack top = null;
+        for (final String element : elements) {
+            top = ImmutableThreadContextStack.push(top, element);
+        }
+        set(top);
+    }
+
     @Override
     public String toString() {
-        final List<String> list = stack.get();
-        return list == null ? "[]" : list.toString();
+        final ImmutableThreadContextStack top = stack.get();
+        return top == null ? "[]" : top.toString();
     }
 }
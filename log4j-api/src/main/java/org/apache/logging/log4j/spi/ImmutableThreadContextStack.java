@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An immutable ThreadContext stack stored as a linked list of frames, where each frame refers to the frame below
+ * it. Pushing an element creates one frame that shares all frames below it, so a snapshot of a stack is just a
+ * reference to its top frame and is never copied.
+ * <p>
+ * All mutative operations throw {@code UnsupportedOperationException}; use {@link #copy()} to obtain a mutable stack.
+ * </p>
+ */
+public final class ImmutableThreadContextStack extends AbstractCollection<String> implements ThreadContextStack {
+
+    private static final long serialVersionUID = 5050502L;
+
+    private final String value;
+    private final ImmutableThreadContextStack parent;
+    private final int depth;
+
+    /** The elements from the bottom to the top of the stack, created when first needed. */
+    private transient volatile List<String> list;
+
+    private ImmutableThreadContextStack(final String value, final ImmutableThreadContextStack parent) {
+        this.value = value;
+        this.parent = parent;
+        this.depth = parent == null ? 1 : parent.depth + 1;
+    }
+
+    /**
+     * Returns a stack with the specified element on top of the specified stack.
+     * @param stack the stack below the new element, or {@code null} for an empty stack.
+     * @param element the element to push.
+     * @return the new stack.
+     */
+    public static ImmutableThreadContextStack push(final ImmutableThreadContextStack stack, final String element) {
+        return new ImmutableThreadContextStack(element, stack);
+    }
+
+    /**
+     * Returns the stack below the top element of this stack.
+     * @return the stack without its top element, or {@code null} if this stack contains one element.
+     */
+    public ImmutableThreadContextStack getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the bottom elements of this stack, without copying.
+     * @param maxDepth the maximum number of elements to keep.
+     * @return a stack with at most {@code maxDepth} elements, or {@code null} if {@code maxDepth} is zero.
+     */
+    public ImmutableThreadContextStack trimTo(final int maxDepth) {
+        ImmutableThreadContextStack result = this;
+        while (result != null && result.depth > maxDepth) {
+            result = result.parent;
+        }
+        return result;
+    }
+
+    @Override
+    public String peek() {
+        return value;
+    }
+
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public int size() {
+        return depth;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public List<String> asList() {
+        List<String> result = list;
+        if (result == null) {
+            final String[] elements = new String[depth];
+            for (ImmutableThreadContextStack frame = this; frame != null; frame = frame.parent) {
+                elements[frame.depth - 1] = frame.value;
+            }
+            result = Collections.unmodifiableList(Arrays.asList(elements));
+            list = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return asList().iterator();
+    }
+
+    @Override
+    public ThreadContextStack copy() {
+        return new MutableThreadContextStack(asList());
+    }
+
+    @Override
+    public ThreadContextStack getImmutableStackOrNull() {
+        return this;
+    }
+
+    @Override
+    public String pop() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void push(final String message) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void trim(final int depth) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean add(final String s) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends String> strings) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> objects) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> objects) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Serializes the stack as the flat list of its elements, as before stacks shared their frames, instead of as
+     * a chain of frames that the default serialization would write recursively.
+     * @return a mutable stack with the same elements.
+     */
+    private Object writeReplace() {
+        return new MutableThreadContextStack(asList());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImmutableThreadContextStack)) {
+            return false;
+        }
+        final ImmutableThreadContextStack that = (ImmutableThreadContextStack) o;
+        return depth == that.depth && asList().equals(that.asList());
+    }
+
+    @Override
+    public int hashCode() {
+        return asList().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+}
@@ -97,6 +97,15 @@ public class MutableThreadContextStack implements ThreadContextStack {
         return new MutableThreadContextStack(this);
     }
 
+    @Override
+    public ThreadContextStack getImmutableStackOrNull() {
+        ImmutableThreadContextStack result = null;
+        for (final String element : list) {
+            result = ImmutableThreadContextStack.push(result, element);
+        }
+        return result;
+    }
+
     @Override
     public void clear() {
         list.clear();
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * ThreadContext Map that keeps each thread's entries in sorted arrays and updates them in place.
+ * <p>
+ * {@link #getImmutableMapOrNull()} does not copy: it marks the current Map as frozen and returns it. The first
+ * update after that copies the Map once, so a snapshot is never modified afterwards. Compared with
+ * {@link DefaultThreadContextMap}, which copies the whole Map on every {@code put} and {@code remove}, a thread
+ * that puts several keys before logging makes at most one copy.
+ * </p>
+ * <p>
+ * Select this implementation by setting system property {@code log4j2.threadContextMap} to the name of this class.
+ * </p>
+ */
+public class SortedArrayThreadContextMap implements ThreadContextMap {
+
+    private static final String DISABLE_MAP = "disableThreadContextMap";
+    private static final String DISABLE_ALL = "disableThreadContext";
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final boolean useMap;
+    private final ThreadLocal<SortedArrayMap> localMap;
+
+    /**
+     * Constructor used when this class is selected by system property; the Map is disabled by the same properties
+     * that disable the default ThreadContext Map.
+     */
+    public SortedArrayThreadContextMap() {
+        this(!(PropertiesUtil.getProperties().getBooleanProperty(DISABLE_MAP)
+                || PropertiesUtil.getProperties().getBooleanProperty(DISABLE_ALL)));
+    }
+
+    public SortedArrayThreadContextMap(final boolean useMap) {
+        this.useMap = useMap;
+        this.localMap = createThreadLocalMap(useMap);
+    }
+
+    // LOG4J2-479: by default, use a plain ThreadLocal, only use InheritableThreadLocal if configured.
+    private static ThreadLocal<SortedArrayMap> createThreadLocalMap(final boolean isMapEnabled) {
+        final PropertiesUtil managerProps = PropertiesUtil.getProperties();
+        final boolean inheritable = managerProps.getBooleanProperty(DefaultThreadContextMap.INHERITABLE_MAP);
+        if (inheritable) {
+            return new InheritableThreadLocal<SortedArrayMap>() {
+                @Override
+                protected SortedArrayMap childValue(final SortedArrayMap parentValue) {
+                    // called on the parent thread: share a frozen Map that either thread copies before updating
+                    return parentValue != null && isMapEnabled ? parentValue.freeze() : null;
+                }
+            };
+        }
+        // if not inheritable, return plain ThreadLocal with null as initial value
+        return new ThreadLocal<SortedArrayMap>();
+    }
+
+    /**
+     * Returns the current thread's Map, copying it first if it was handed out as a snapshot.
+     */
+    private SortedArrayMap getWritableMap() {
+        final SortedArrayMap map = localMap.get();
+        if (map == null) {
+            final SortedArrayMap result = new SortedArrayMap(INITIAL_CAPACITY);
+            localMap.set(result);
+            return result;
+        }
+        if (map.frozen) {
+            final SortedArrayMap result = map.copy();
+            localMap.set(result);
+            return result;
+        }
+        return map;
+    }
+
+    @Override
+    public void put(final String key, final String value) {
+        if (!useMap) {
+            return;
+        }
+        getWritableMap().put(key, value);
+    }
+
+    @Override
+    public String get(final String key) {
+        final SortedArrayMap map = localMap.get();
+        return map == null ? null : map.get(key);
+    }
+
+    @Override
+    public void remove(final String key) {
+        final SortedArrayMap map = localMap.get();
+        if (map != null && map.containsKey(key)) {
+            getWritableMap().remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        localMap.remove();
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        final SortedArrayMap map = localMap.get();
+        return map != null && map.containsKey(key);
+    }
+
+    @Override
+    public Map<String, String> getCopy() {
+        final SortedArrayMap map = localMap.get();
+        return map == null ? new HashMap<String, String>() : new HashMap<String, String>(map);
+    }
+
+    /**
+     * Returns the current thread's Map, which is no longer modified once returned, or {@code null} if the Map is
+     * empty. This method does not copy the Map.
+     * @return an immutable context Map or {@code null}.
+     */
+    @Override
+    public Map<String, String> getImmutableMapOrNull() {
+        final SortedArrayMap map = localMap.get();
+        return map == null || map.isEmpty() ? null : map.freeze();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        final SortedArrayMap map = localMap.get();
+        return map == null || map.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final SortedArrayMap map = localMap.get();
+        return map == null ? "{}" : map.toString();
+    }
+
+    /**
+     * Map with String keys kept in sorted order in an array, with the values in a parallel array. Lookups use a
+     * binary search. Once frozen, the Map rejects all updates and may be shared with other threads.
+     */
+    static final class SortedArrayMap extends AbstractMap<String, String> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String[] keys;
+        private String[] values;
+        private int size;
+        private boolean frozen;
+
+        SortedArrayMap(final int capacity) {
+            keys = new String[capacity];
+            values = new String[capacity];
+        }
+
+        SortedArrayMap copy() {
+            final SortedArrayMap result = new SortedArrayMap(Math.max(INITIAL_CAPACITY, size + 1));
+            System.arraycopy(keys, 0, result.keys, 0, size);
+            System.arraycopy(values, 0, result.values, 0, size);
+            result.size = size;
+            return result;
+        }
+
+        // only called by the owning thread, before the Map is published to other threads
+        SortedArrayMap freeze() {
+            frozen = true;
+            return this;
+        }
+
+        private int indexOf(final Object key) {
+            return key instanceof String ? Arrays.binarySearch(keys, 0, size, key) : -1;
+        }
+
+        private void checkWritable() {
+            if (frozen) {
+                throw new UnsupportedOperationException("ThreadContext Map snapshot is immutable");
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public String get(final Object key) {
+            final int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public String put(final String key, final String value) {
+            checkWritable();
+            if (key == null) {
+                throw new NullPointerException("key");
+            }
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                final String old = values[index];
+                values[index] = value;
+                return old;
+            }
+            index = -(index + 1);
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            return null;
+        }
+
+        @Override
+        public String remove(final Object key) {
+            checkWritable();
+            final int index = indexOf(key);
+            if (index < 0) {
+                return null;
+            }
+            final String old = values[index];
+            final int moved = size - index - 1;
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            checkWritable();
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new Iterator<Map.Entry<String, String>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < size;
+                        }
+
+                        @Override
+                        public Map.Entry<String, String> next() {
+                            if (index >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<String, String> entry =
+                                    new SimpleImmutableEntry<String, String>(keys[index], values[index]);
+                            index++;
+                            return entry;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
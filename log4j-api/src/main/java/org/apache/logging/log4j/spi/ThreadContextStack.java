@@ -24,4 +24,10 @@ import org.apache.logging.log4j.ThreadContext;
  *
  */
 public interface ThreadContextStack extends ThreadContext.ContextStack, Collection<String> {
+
+    /**
+     * Returns an immutable snapshot of the stack or {@code null} if the stack is empty.
+     * @return an immutable stack or {@code null}.
+     */
+    ThreadContextStack getImmutableStackOrNull();
 }
@@ -89,6 +89,59 @@ public class LoggerTest {
         assertTrue("Incorrect substitution", results.get(0).startsWith(" DEBUG Hello, World"));
     }
 
+    @Test
+    public void debugWithPrimitiveParms() {
+        logger.debug("long={}", 123456789L);
+        logger.debug("int={}", 42);
+        logger.debug("double={}", 1.5);
+        logger.debug("boolean={}", true);
+        logger.debug("char={}", 'x');
+        logger.debug("latency={} size={}", 123456789L, 4096);
+        logger.debug("x={} y={}", 0.25, 2);
+        assertEquals(7, results.size());
+        assertEquals(" DEBUG long=123456789", results.get(0));
+        assertEquals(" DEBUG int=42", results.get(1));
+        assertEquals(" DEBUG double=1.5", results.get(2));
+        assertEquals(" DEBUG boolean=true", results.get(3));
+        assertEquals(" DEBUG char=x", results.get(4));
+        assertEquals(" DEBUG latency=123456789 size=4096", results.get(5));
+        assertEquals(" DEBUG x=0.25 y=2", results.get(6));
+    }
+
+    @Test
+    public void debugWithParmsPrintedAsPassed() {
+        logger.debug("{} {}", 'a', 'b');
+        logger.debug("{} {}", 5L, 1.5);
+        logger.debug("{}", 0.1f);
+        logger.debug("{}", Integer.valueOf(3));
+        assertEquals(4, results.size());
+        assertEquals(" DEBUG a b", results.get(0));
+        assertEquals(" DEBUG 5 1.5", results.get(1));
+        assertEquals(" DEBUG 0.1", results.get(2));
+        assertEquals(" DEBUG 3", results.get(3));
+    }
+
+    @Test
+    public void debugWithNullBoxedParm() {
+        final Integer count = null;
+        final Character c = null;
+        logger.debug("count={}", count);
+        logger.debug("char={}", c);
+        assertEquals(2, results.size());
+        assertEquals(" DEBUG count=null", results.get(0));
+        assertEquals(" DEBUG char=null", results.get(1));
+    }
+
+    @Test
+    public void logWithPrimitiveParmsAndMarker() {
+        final Marker marker = MarkerManager.getMarker("PRIMITIVE");
+        logger.log(Level.INFO, marker, "count={}", 7L);
+        logger.warn(marker, "{} of {}", 3L, 4L);
+        assertEquals(2, results.size());
+        assertEquals("PRIMITIVE INFO count=7", results.get(0));
+        assertEquals("PRIMITIVE WARN 3 of 4", results.get(1));
+    }
+
     @Test
     public void debugWithParmsAndThrowable() {
         logger.debug("Hello, {}", "World", new RuntimeException("Test Exception"));
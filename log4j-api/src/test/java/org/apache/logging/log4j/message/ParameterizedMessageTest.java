@@ -16,9 +16,16 @@
  */
 package org.apache.logging.log4j.message;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -36,4 +43,84 @@ public class ParameterizedMessageTest {
         result = msg.getFormattedMessage();
         assertEquals(testMsg, result);
     }
+
+    @Test
+    public void testFormatToMatchesFormattedMessage() {
+        final Object[] args = {"a", 1, null, new int[] {1, 2}};
+        final ParameterizedMessage msg = new ParameterizedMessage("{} {} {} {} {} \\{}", args);
+        final StringBuilder sb = new StringBuilder("prefix ");
+        msg.formatTo(sb);
+        assertEquals("prefix a 1 null [1, 2] {} {}", sb.toString());
+        assertEquals("a 1 null [1, 2] {} {}", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testSinglePlaceholderReceivesAllArguments() {
+        final ParameterizedMessage msg = new ParameterizedMessage("values: {}", new Object[] {"a", "b"});
+        final StringBuilder sb = new StringBuilder();
+        msg.formatTo(sb);
+        assertEquals("values: [a, b]", sb.toString());
+        assertEquals("values: [a, b]", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testFixedArityArguments() {
+        assertEquals("values: [a, 2]", new ParameterizedMessage("values: {}", "a", 2L).getFormattedMessage());
+        assertEquals("a and b", new ParameterizedMessage("{} and {}", "a", "b").getFormattedMessage());
+        final ParameterizedMessage primitives = new ParameterizedMessage("{} {}", 1.5, 2.5);
+        assertArrayEquals(new Object[] {1.5, 2.5}, primitives.getParameters());
+        assertEquals(new ParameterizedMessage("{} {}", new Object[] {1.5, 2.5}), primitives);
+        final Throwable t = new IllegalStateException();
+        final ParameterizedMessage withThrowable = new ParameterizedMessage("{}", "a", t);
+        assertSame(t, withThrowable.getThrowable());
+        assertEquals("a", withThrowable.getFormattedMessage());
+    }
+
+    @Test
+    public void testTrailingThrowableIsNotAParameter() {
+        final Throwable t = new IllegalStateException();
+        final ParameterizedMessage msg = new ParameterizedMessage("{}", new Object[] {"a", t});
+        assertSame(t, msg.getThrowable());
+        assertArrayEquals(new Object[] {"a"}, msg.getParameters());
+        assertEquals("a", msg.getFormattedMessage());
+    }
+
+    @Test
+    public void testArgumentsAreFormattedLazily() {
+        final List<String> list = new ArrayList<String>();
+        final ParameterizedMessage msg = new ParameterizedMessage("list={}", list);
+        list.add("a");
+        final StringBuilder sb = new StringBuilder();
+        msg.formatTo(sb);
+        assertEquals("list=[a]", sb.toString());
+    }
+
+    @Test
+    public void testFormattedMessageFreezesArguments() {
+        final List<String> list = new ArrayList<String>();
+        final ParameterizedMessage msg = new ParameterizedMessage("list={}", list);
+        assertEquals("list=[]", msg.getFormattedMessage());
+        list.add("a");
+        final StringBuilder sb = new StringBuilder();
+        msg.formatTo(sb);
+        assertEquals("list=[]", sb.toString());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final ParameterizedMessage msg = new ParameterizedMessage("{} and {}", "a", new Object() {
+            @Override
+            public String toString() {
+                return "b";
+            }
+        });
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(baos);
+        out.writeObject(msg);
+        out.close();
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        final ParameterizedMessage copy = (ParameterizedMessage) in.readObject();
+        assertEquals("a and b", copy.getFormattedMessage());
+        assertEquals(msg, copy);
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.message;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ReusableMessageFactoryTest {
+
+    private final ReusableMessageFactory factory = ReusableMessageFactory.INSTANCE;
+
+    @Test
+    public void testReusesMessageAfterRelease() {
+        final Message msg1 = factory.newMessage("one {}", "a");
+        assertEquals("one a", msg1.getFormattedMessage());
+        ReusableMessageFactory.release(msg1);
+        final Message msg2 = factory.newMessage("two {} {}", "b", 3);
+        assertEquals("two b 3", msg2.getFormattedMessage());
+        ReusableMessageFactory.release(msg2);
+        assertTrue(msg1 instanceof ReusableParameterizedMessage);
+        assertSame(msg1, msg2);
+    }
+
+    @Test
+    public void testNestedCallCreatesNewMessage() {
+        final Message outer = factory.newMessage("outer {}", "a");
+        try {
+            final Message inner = factory.newMessage("inner {}", "b");
+            assertTrue(inner instanceof ParameterizedMessage);
+            assertEquals("outer a", outer.getFormattedMessage());
+            assertEquals("inner b", inner.getFormattedMessage());
+        } finally {
+            ReusableMessageFactory.release(outer);
+        }
+    }
+
+    @Test
+    public void testMementoIsIndependent() {
+        final Message msg = factory.newMessage("value {}", "a");
+        final Message memento = ((ReusableMessage) msg).memento();
+        ReusableMessageFactory.release(msg);
+        ReusableMessageFactory.release(factory.newMessage("value {}", "b"));
+        assertEquals("value a", memento.getFormattedMessage());
+    }
+
+    @Test
+    public void testFormatsLikeParameterizedMessage() {
+        final Object[] params = {new int[] {1, 2}, "x", new IllegalStateException("t")};
+        final Message msg = factory.newMessage("{} and {}", params);
+        try {
+            final ParameterizedMessage expected = new ParameterizedMessage("{} and {}", params);
+            assertEquals(expected.getFormattedMessage(), msg.getFormattedMessage());
+            assertSame(params[2], msg.getThrowable());
+            final Message all = new ReusableParameterizedMessage().set("all: {}", new Object[] {"a", "b"});
+            assertEquals(new ParameterizedMessage("all: {}", "a", "b").getFormattedMessage(),
+                    all.getFormattedMessage());
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+    }
+
+    @Test
+    public void testSimpleAndObjectMessages() {
+        final Message simple = factory.newMessage("text");
+        final Message object = factory.newMessage((Object) Integer.valueOf(42));
+        assertTrue(simple instanceof ReusableSimpleMessage);
+        assertTrue(object instanceof ReusableObjectMessage);
+        assertEquals("text", simple.getFormattedMessage());
+        assertEquals("42", object.getFormattedMessage());
+        ReusableMessageFactory.release(simple);
+        ReusableMessageFactory.release(object);
+        assertSame(simple, factory.newMessage("again"));
+        ReusableMessageFactory.release(simple);
+    }
+
+    @Test
+    public void testSerializedAsImmutableMessage() throws Exception {
+        final Message msg = factory.newMessage("value {}", "a");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            final ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(msg);
+            out.close();
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final Message result = (Message) in.readObject();
+        assertTrue(result instanceof ParameterizedMessage);
+        assertEquals("value a", result.getFormattedMessage());
+    }
+}
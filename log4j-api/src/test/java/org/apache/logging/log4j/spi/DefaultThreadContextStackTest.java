@@ -331,4 +331,26 @@ public class DefaultThreadContextStackTest {
         stack.retainAll(Arrays.asList("msg1", "msg3"));
         assertEquals("[msg1, msg3]", stack.toString());
     }
+
+    @Test
+    public void testImmutableStackIsSharedUntilChanged() {
+        final DefaultThreadContextStack stack = new DefaultThreadContextStack(true);
+        stack.clear();
+        assertNull(stack.getImmutableStackOrNull());
+
+        stack.push("msg1");
+        stack.push("msg2");
+        final ThreadContextStack snapshot = stack.getImmutableStackOrNull();
+        assertSame(snapshot, stack.getImmutableStackOrNull());
+
+        stack.pop();
+        stack.push("msg3");
+        assertEquals("[msg1, msg2]", snapshot.toString());
+        assertEquals("[msg1, msg3]", stack.toString());
+
+        stack.trim(1);
+        assertEquals("[msg1]", stack.toString());
+        assertEquals(2, snapshot.getDepth());
+        stack.clear();
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@code ImmutableThreadContextStack} class.
+ */
+public class ImmutableThreadContextStackTest {
+
+    @Test
+    public void testPushSharesFramesBelow() {
+        final ImmutableThreadContextStack bottom = ImmutableThreadContextStack.push(null, "msg1");
+        final ImmutableThreadContextStack left = ImmutableThreadContextStack.push(bottom, "msg2");
+        final ImmutableThreadContextStack right = ImmutableThreadContextStack.push(bottom, "msg3");
+
+        assertSame(bottom, left.getParent());
+        assertSame(bottom, right.getParent());
+        assertEquals(Arrays.asList("msg1", "msg2"), left.asList());
+        assertEquals(Arrays.asList("msg1", "msg3"), right.asList());
+        assertEquals(1, bottom.getDepth());
+        assertEquals("msg3", right.peek());
+    }
+
+    @Test
+    public void testTrimTo() {
+        ImmutableThreadContextStack stack = null;
+        for (int i = 1; i <= 5; i++) {
+            stack = ImmutableThreadContextStack.push(stack, "msg" + i);
+        }
+        assertEquals("[msg1, msg2]", stack.trimTo(2).toString());
+        assertSame(stack, stack.trimTo(10));
+        assertNull(stack.trimTo(0));
+    }
+
+    @Test
+    public void testCopyIsMutable() {
+        final ImmutableThreadContextStack stack = ImmutableThreadContextStack.push(null, "msg1");
+        final ThreadContextStack copy = stack.copy();
+        copy.push("msg2");
+        assertEquals(2, copy.getDepth());
+        assertEquals(1, stack.getDepth());
+    }
+
+    @Test
+    public void testEqualsComparesElements() {
+        final ImmutableThreadContextStack stack1 = ImmutableThreadContextStack.push(
+                ImmutableThreadContextStack.push(null, "msg1"), "msg2");
+        final ImmutableThreadContextStack stack2 = ImmutableThreadContextStack.push(
+                ImmutableThreadContextStack.push(null, "msg1"), "msg2");
+        assertEquals(stack1, stack2);
+        assertEquals(stack1.hashCode(), stack2.hashCode());
+        assertFalse(stack1.equals(stack1.getParent()));
+    }
+
+    @Test
+    public void testSerializesAsFlatMutableStack() throws Exception {
+        ImmutableThreadContextStack stack = null;
+        for (int i = 0; i < 10000; i++) {
+            stack = ImmutableThreadContextStack.push(stack, "msg" + i);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(stack);
+        out.close();
+
+        final Object result = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertTrue(result instanceof MutableThreadContextStack);
+        assertEquals(stack.asList(), ((MutableThreadContextStack) result).asList());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPushIsUnsupported() {
+        ImmutableThreadContextStack.push(null, "msg1").push("msg2");
+    }
+}
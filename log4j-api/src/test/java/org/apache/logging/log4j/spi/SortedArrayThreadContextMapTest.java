@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.spi;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@code SortedArrayThreadContextMap} class.
+ */
+public class SortedArrayThreadContextMapTest {
+
+    @Test
+    public void testDoesNothingIfConstructedWithUseMapIsFalse() {
+        final SortedArrayThreadContextMap map = new SortedArrayThreadContextMap(false);
+        map.put("key", "value");
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey("key"));
+        assertNull(map.get("key"));
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        final SortedArrayThreadContextMap map = new SortedArrayThreadContextMap(true);
+        assertTrue(map.isEmpty());
+        for (int i = 20; i > 0; i--) {
+            map.put("key" + i, "value" + i);
+        }
+        map.put("key5", "changed");
+        assertFalse(map.isEmpty());
+        assertEquals("value1", map.get("key1"));
+        assertEquals("changed", map.get("key5"));
+        assertEquals("value20", map.get("key20"));
+
+        map.remove("key5");
+        assertFalse(map.containsKey("key5"));
+        assertEquals("value6", map.get("key6"));
+        assertEquals(19, map.getCopy().size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getImmutableMapOrNull());
+    }
+
+    @Test
+    public void testSnapshotIsNotModifiedByLaterUpdates() {
+        final SortedArrayThreadContextMap map = new SortedArrayThreadContextMap(true);
+        map.put("a", "1");
+        map.put("b", "2");
+        final Map<String, String> snapshot = map.getImmutableMapOrNull();
+        assertSame(snapshot, map.getImmutableMapOrNull());
+
+        map.put("a", "changed");
+        map.put("c", "3");
+        map.remove("b");
+
+        assertEquals(2, snapshot.size());
+        assertEquals("1", snapshot.get("a"));
+        assertEquals("2", snapshot.get("b"));
+        assertFalse(snapshot.containsKey("c"));
+        assertEquals("{a=1, b=2}", snapshot.toString());
+        assertEquals("changed", map.get("a"));
+        assertEquals("{a=changed, c=3}", map.toString());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        final SortedArrayThreadContextMap map = new SortedArrayThreadContextMap(true);
+        map.put("key", "value");
+        map.getImmutableMapOrNull().put("other", "value");
+    }
+
+    @Test
+    public void testCopyIsMutable() {
+        final SortedArrayThreadContextMap map = new SortedArrayThreadContextMap(true);
+        map.put("key", "value");
+        final Map<String, String> copy = map.getCopy();
+        copy.put("key", "changed");
+        assertEquals("value", map.get("key"));
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.filter.CompositeFilter;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.AbstractLogger;
 
@@ -109,7 +110,11 @@ public class Logger extends AbstractLogger {
             data = new SimpleMessage("");
         }
         config.config.getConfigurationMonitor().checkConfiguration();
-        config.loggerConfig.log(getName(), marker, fqcn, level, data, t);
+        try {
+            config.loggerConfig.log(getName(), marker, fqcn, level, data, t);
+        } finally {
+            ReusableMessageFactory.release(data);
+        }
     }
 
     @Override
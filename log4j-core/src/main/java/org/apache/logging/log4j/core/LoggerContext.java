@@ -271,18 +271,20 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      * @param name The name of the Logger to return.
      * @param messageFactory The message factory is used only when creating a
      *            logger, subsequent use does not change the logger but will log
-     *            a warning if mismatched.
+     *            a warning if mismatched. If null, the message factory of the
+     *            current configuration is used.
      * @return The Logger.
      */
     @Override
     public Logger getLogger(final String name, final MessageFactory messageFactory) {
+        final MessageFactory factory = messageFactory != null ? messageFactory : config.getMessageFactory();
         Logger logger = loggers.get(name);
         if (logger != null) {
-            AbstractLogger.checkMessageFactory(logger, messageFactory);
+            AbstractLogger.checkMessageFactory(logger, factory);
             return logger;
         }
 
-        logger = newInstance(this, name, messageFactory);
+        logger = newInstance(this, name, factory);
         final Logger prev = loggers.putIfAbsent(name, logger);
         return prev == null ? logger : prev;
     }
@@ -115,12 +115,9 @@ public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager
     public void append(final LogEvent event) {
         readLock.lock();
         try {
-            final byte[] bytes = getLayout().toByteArray(event);
-            if (bytes.length > 0) {
-                manager.write(bytes);
-                if (this.immediateFlush || event.isEndOfBatch()) {
-                    manager.flush();
-                }
+            manager.write(getLayout(), event);
+            if (this.immediateFlush || event.isEndOfBatch() || manager.isFlushRequired(event)) {
+                manager.flush();
             }
         } catch (final AppenderLoggingException ex) {
             error("Unable to write to stream " + manager.getName() + " for appender " + getName());
@@ -16,13 +16,18 @@
  */
 package org.apache.logging.log4j.core.appender;
 
-import java.io.Serializable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
@@ -38,6 +43,8 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Booleans;
+import org.apache.logging.log4j.core.helpers.BoundedMpscQueue;
+import org.apache.logging.log4j.core.helpers.OffHeapRecordQueue;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 
 /**
@@ -45,15 +52,25 @@ import org.apache.logging.log4j.core.impl.Log4jLogEvent;
  * AsyncAppender with one or more Appenders and an Appender to append to if the
  * queue is full. The AsyncAppender does not allow a filter to be specified on
  * the Appender references.
+ * <p>
+ * Application threads add events to a lock-free queue. The background thread
+ * takes all queued events at once and marks the last event of each batch as the
+ * end of the batch, so that buffered appenders flush once per batch.
+ * <p>
+ * If {@code maxBufferBytes} is set, events are serialized into an off-heap ring of that many bytes instead, so
+ * that the memory used by queued events does not depend on their size. Events that do not fit are written to
+ * {@code spillFile}, if one is configured, and read back in order once the appenders have caught up.
  */
 @Plugin(name = "Async", category = "Core", elementType = "appender", printObject = true)
 public final class AsyncAppender extends AbstractAppender {
 
     private static final int DEFAULT_QUEUE_SIZE = 128;
-    private static final String SHUTDOWN = "Shutdown";
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
-    private final BlockingQueue<Serializable> queue;
+    private final EventQueue queue;
     private final int queueSize;
+    private final int maxBufferBytes;
+    private final String spillFile;
     private final boolean blocking;
     private final Configuration config;
     private final AppenderRef[] appenderRefs;
@@ -68,10 +85,17 @@ public final class AsyncAppender extends AbstractAppender {
     private AsyncAppender(final String name, final Filter filter, final AppenderRef[] appenderRefs,
                            final String errorRef, final int queueSize, final boolean blocking,
                            final boolean ignoreExceptions, final Configuration config,
-                           final boolean includeLocation) {
+                           final boolean includeLocation, final int maxBufferBytes, final String spillFile) {
         super(name, filter, null, ignoreExceptions);
-        this.queue = new ArrayBlockingQueue<Serializable>(queueSize);
+        if (maxBufferBytes > 0) {
+            final File file = spillFile == null ? null : new File(spillFile);
+            this.queue = new SerializedEventQueue(new OffHeapRecordQueue(maxBufferBytes, file), includeLocation);
+        } else {
+            this.queue = new ObjectEventQueue(new BoundedMpscQueue<Log4jLogEvent>(queueSize));
+        }
         this.queueSize = queueSize;
+        this.maxBufferBytes = maxBufferBytes;
+        this.spillFile = spillFile;
         this.blocking = blocking;
         this.config = config;
         this.appenderRefs = appenderRefs;
@@ -99,7 +123,7 @@ public final class AsyncAppender extends AbstractAppender {
             }
         }
         if (appenders.size() > 0) {
-            thread = new AsyncThread(appenders, queue);
+            thread = new AsyncThread(appenders);
             thread.setName("AsyncAppender-" + getName());
         } else if (errorRef == null) {
             throw new ConfigurationException("No appenders are available for AsyncAppender " + getName());
@@ -118,6 +142,7 @@ public final class AsyncAppender extends AbstractAppender {
         } catch (final InterruptedException ex) {
             LOGGER.warn("Interrupted while stopping AsyncAppender {}", getName());
         }
+        queue.close();
     }
 
     /**
@@ -130,29 +155,32 @@ public final class AsyncAppender extends AbstractAppender {
         if (!isStarted()) {
             throw new IllegalStateException("AsyncAppender " + getName() + " is not active");
         }
-        if (!(evt instanceof Log4jLogEvent)) {
-            return; // only know how to Serialize Log4jLogEvents
+        // the event is formatted in another thread and evt may be reused after this call returns
+        final Log4jLogEvent event = Log4jLogEvent.createMemento(evt, includeLocation);
+        if (event == null) {
+            return; // only know how to copy Log4jLogEvents
         }
-        Log4jLogEvent event = (Log4jLogEvent) evt;
         boolean appendSuccessful = false;
         if (blocking) {
-            if (isAppenderThread.get() == Boolean.TRUE && queue.remainingCapacity() == 0) {
+            if (isAppenderThread.get() == Boolean.TRUE) {
                 // LOG4J2-485: avoid deadlock that would result from trying
                 // to add to a full queue from appender thread
-                event.setEndOfBatch(false); // queue is definitely not empty!
-                appendSuccessful = thread.callAppenders(event);
+                appendSuccessful = queue.offer(event);
+                if (!appendSuccessful) {
+                    event.setEndOfBatch(false); // queue is definitely not empty!
+                    appendSuccessful = thread.callAppenders(event);
+                }
             } else {
                 try {
                     // wait for free slots in the queue
-                    queue.put(Log4jLogEvent.serialize(event, includeLocation));
-                    appendSuccessful = true;
+                    appendSuccessful = queue.put(event);
                 } catch (final InterruptedException e) {
                     LOGGER.warn("Interrupted while waiting for a free slot in the AsyncAppender LogEvent-queue {}",
                             getName());
                 }
             }
         } else {
-            appendSuccessful = queue.offer(Log4jLogEvent.serialize(event, includeLocation));
+            appendSuccessful = queue.offer(event);
             if (!appendSuccessful) {
                 error("Appender " + getName() + " is unable to write primary appenders. queue is full");
             }
@@ -167,13 +195,18 @@ public final class AsyncAppender extends AbstractAppender {
      * @param appenderRefs The Appenders to reference.
      * @param errorRef An optional Appender to write to if the queue is full or other errors occur.
      * @param blocking True if the Appender should wait when the queue is full. The default is true.
-     * @param size The size of the event queue. The default is 128.
+     * @param size The size of the event queue. The default is 128. If maxBufferBytes is set this is the maximum
+     *             number of events handed to the appenders in one batch.
      * @param name The name of the Appender.
      * @param includeLocation whether to include location information. The default is false.
      * @param filter The Filter or null.
      * @param config The Configuration.
      * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
      *               they are propagated to the caller.
+     * @param maxBufferBytes If set, events are serialized into an off-heap buffer of this many bytes instead of
+     *                       being queued as objects.
+     * @param spillFile The file that serialized events are written to when the off-heap buffer is full. Only used
+     *                  with maxBufferBytes.
      * @return The AsyncAppender.
      */
     @PluginFactory
@@ -185,7 +218,9 @@ public final class AsyncAppender extends AbstractAppender {
             @PluginAttribute("includeLocation") final String includeLocation,
             @PluginElement("Filter") final Filter filter, 
             @PluginConfiguration final Configuration config,
-            @PluginAttribute("ignoreExceptions") final String ignore) {
+            @PluginAttribute("ignoreExceptions") final String ignore,
+            @PluginAttribute("maxBufferBytes") final String maxBufferBytes,
+            @PluginAttribute("spillFile") final String spillFile) {
         if (name == null) {
             LOGGER.error("No name provided for AsyncAppender");
             return null;
@@ -198,9 +233,13 @@ public final class AsyncAppender extends AbstractAppender {
         final int queueSize = AbstractAppender.parseInt(size, DEFAULT_QUEUE_SIZE);
         final boolean isIncludeLocation = Boolean.parseBoolean(includeLocation);
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
+        final int bufferBytes = AbstractAppender.parseInt(maxBufferBytes, 0);
+        if (spillFile != null && bufferBytes <= 0) {
+            LOGGER.warn("AsyncAppender {} ignores spillFile because maxBufferBytes is not set", name);
+        }
 
-        return new AsyncAppender(name, filter, appenderRefs, errorRef,
-                queueSize, isBlocking, ignoreExceptions, config, isIncludeLocation);
+        return new AsyncAppender(name, filter, appenderRefs, errorRef, queueSize, isBlocking, ignoreExceptions,
+                config, isIncludeLocation, bufferBytes, spillFile);
     }
 
     /**
@@ -210,11 +249,9 @@ public final class AsyncAppender extends AbstractAppender {
 
         private volatile boolean shutdown = false;
         private final List<AppenderControl> appenders;
-        private final BlockingQueue<Serializable> queue;
 
-        public AsyncThread(final List<AppenderControl> appenders, final BlockingQueue<Serializable> queue) {
+        public AsyncThread(final List<AppenderControl> appenders) {
             this.appenders = appenders;
-            this.queue = queue;
             setDaemon(true);
             setName("AsyncAppenderThread" + threadSequence.getAndIncrement());
         }
@@ -222,21 +259,26 @@ public final class AsyncAppender extends AbstractAppender {
         @Override
         public void run() {
             isAppenderThread.set(Boolean.TRUE); // LOG4J2-485
+            final List<Log4jLogEvent> batch = new ArrayList<Log4jLogEvent>(queueSize);
             while (!shutdown) {
-                Serializable s;
-                try {
-                    s = queue.take();
-                    if (s != null && s instanceof String && SHUTDOWN.equals(s.toString())) {
-                        shutdown = true;
-                        continue;
-                    }
-                } catch (final InterruptedException ex) {
-                    // No good reason for this.
+                if (queue.drainTo(batch, queueSize) == 0) {
+                    queue.awaitNotEmpty(MAX_WAIT_NANOS);
                     continue;
                 }
-                final Log4jLogEvent event = Log4jLogEvent.deserialize(s);
-                event.setEndOfBatch(queue.isEmpty());
-                boolean success = callAppenders(event);
+                processBatch(batch);
+            }
+            // Process any remaining items in the queue.
+            while (queue.drainTo(batch, queueSize) > 0) {
+                processBatch(batch);
+            }
+        }
+
+        private void processBatch(final List<Log4jLogEvent> batch) {
+            final int last = batch.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                final Log4jLogEvent event = batch.get(i);
+                event.setEndOfBatch(i == last);
+                final boolean success = callAppenders(event);
                 if (!success && errorAppender != null) {
                     try {
                         errorAppender.callAppender(event);
@@ -245,19 +287,7 @@ public final class AsyncAppender extends AbstractAppender {
                     }
                 }
             }
-            // Process any remaining items in the queue.
-            while (!queue.isEmpty()) {
-                try {
-                    final Serializable s = queue.take();
-                    if (s instanceof Log4jLogEvent) {
-                        final Log4jLogEvent event = Log4jLogEvent.deserialize(s);
-                        event.setEndOfBatch(queue.isEmpty());
-                        callAppenders(event);
-                    }
-                } catch (final InterruptedException ex) {
-                    // May have been interrupted to shut down.
-                }
-            }
+            batch.clear();
         }
 
         /**
@@ -284,8 +314,161 @@ public final class AsyncAppender extends AbstractAppender {
 
         public void shutdown() {
             shutdown = true;
-            if (queue.isEmpty()) {
-                queue.offer(SHUTDOWN);
+            LockSupport.unpark(this);
+        }
+    }
+
+    /**
+     * The queue between the application threads and the AsyncThread.
+     */
+    private interface EventQueue {
+
+        boolean offer(Log4jLogEvent event);
+
+        boolean put(Log4jLogEvent event) throws InterruptedException;
+
+        int drainTo(List<Log4jLogEvent> batch, int maxEvents);
+
+        void awaitNotEmpty(long nanos);
+
+        int capacity();
+
+        int remainingCapacity();
+
+        void close();
+    }
+
+    /**
+     * Queues the events themselves, bounded by the number of events.
+     */
+    private static class ObjectEventQueue implements EventQueue {
+
+        private final BoundedMpscQueue<Log4jLogEvent> events;
+
+        public ObjectEventQueue(final BoundedMpscQueue<Log4jLogEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public boolean offer(final Log4jLogEvent event) {
+            return events.offer(event);
+        }
+
+        @Override
+        public boolean put(final Log4jLogEvent event) throws InterruptedException {
+            events.put(event);
+            return true;
+        }
+
+        @Override
+        public int drainTo(final List<Log4jLogEvent> batch, final int maxEvents) {
+            return events.drainTo(batch, maxEvents);
+        }
+
+        @Override
+        public void awaitNotEmpty(final long nanos) {
+            events.awaitNotEmpty(nanos);
+        }
+
+        @Override
+        public int capacity() {
+            return events.capacity();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return events.remainingCapacity();
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    /**
+     * Queues serialized events in an off-heap buffer, bounded by the number of bytes.
+     */
+    private static class SerializedEventQueue implements EventQueue {
+
+        private final OffHeapRecordQueue records;
+        private final boolean includeLocation;
+        private final List<byte[]> drained = new ArrayList<byte[]>();
+
+        public SerializedEventQueue(final OffHeapRecordQueue records, final boolean includeLocation) {
+            this.records = records;
+            this.includeLocation = includeLocation;
+        }
+
+        @Override
+        public boolean offer(final Log4jLogEvent event) {
+            final byte[] record = toBytes(event);
+            return record != null && records.offer(record);
+        }
+
+        @Override
+        public boolean put(final Log4jLogEvent event) throws InterruptedException {
+            final byte[] record = toBytes(event);
+            return record != null && records.put(record);
+        }
+
+        @Override
+        public int drainTo(final List<Log4jLogEvent> batch, final int maxEvents) {
+            final int count = records.drainTo(drained, maxEvents);
+            for (final byte[] record : drained) {
+                final Log4jLogEvent event = toEvent(record);
+                if (event != null) {
+                    batch.add(event);
+                }
+            }
+            drained.clear();
+            return count;
+        }
+
+        @Override
+        public void awaitNotEmpty(final long nanos) {
+            records.awaitNotEmpty(nanos);
+        }
+
+        @Override
+        public int capacity() {
+            return records.capacity();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return records.remainingCapacity();
+        }
+
+        @Override
+        public void close() {
+            records.close();
+        }
+
+        private byte[] toBytes(final Log4jLogEvent event) {
+            try {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final ObjectOutputStream out = new ObjectOutputStream(bytes);
+                out.writeObject(Log4jLogEvent.serialize(event, includeLocation));
+                out.close();
+                return bytes.toByteArray();
+            } catch (final IOException ex) {
+                LOGGER.error("Unable to serialize event for AsyncAppender: {}", ex.getMessage());
+                return null;
+            }
+        }
+
+        private static Log4jLogEvent toEvent(final byte[] record) {
+            try {
+                final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record));
+                try {
+                    return (Log4jLogEvent) in.readObject(); // the proxy resolves to a Log4jLogEvent
+                } finally {
+                    in.close();
+                }
+            } catch (final Exception ex) {
+                LOGGER.error("Unable to deserialize event for AsyncAppender: {}", ex.getMessage());
+                return null;
             }
         }
     }
@@ -329,11 +512,36 @@ public final class AsyncAppender extends AbstractAppender {
     public String getErrorRef() {
         return errorRef;
     }
+
+    /**
+     * Returns the size of the off-heap buffer in bytes, or 0 if events are queued as objects.
+     * @return the size of the off-heap buffer in bytes or 0
+     */
+    public int getMaxBufferBytes() {
+        return maxBufferBytes;
+    }
+
+    /**
+     * Returns the name of the file that events are spilled to when the off-heap buffer is full, or {@code null}.
+     * @return the name of the spill file or {@code null}
+     */
+    public String getSpillFile() {
+        return spillFile;
+    }
     
+    /**
+     * Returns the capacity of the queue: a number of events, or a number of bytes if {@code maxBufferBytes} is set.
+     * @return the capacity of the queue
+     */
     public int getQueueCapacity() {
-        return queueSize;
+        return queue.capacity();
     }
     
+    /**
+     * Returns the free capacity of the queue: a number of events, or a number of bytes if {@code maxBufferBytes}
+     * is set.
+     * @return the remaining capacity of the queue
+     */
     public int getQueueRemainingCapacity() {
         return queue.remainingCapacity();
     }
@@ -75,6 +75,35 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         return this.fileName;
     }
 
+    /**
+     * Create a File Appender that flushes as the appender asks for it, without group flushing.
+     * @param fileName The name and path of the file.
+     * @param append "True" if the file should be appended to, "false" if it should be overwritten.
+     * The default is "true".
+     * @param locking "True" if the file should be locked. The default is "false".
+     * @param name The name of the Appender.
+     * @param immediateFlush "true" if the contents should be flushed on every write, "false" otherwise. The default
+     * is "true".
+     * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
+     *               they are propagated to the caller.
+     * @param bufferedIO "true" if I/O should be buffered, "false" otherwise. The default is "true".
+     * @param bufferSizeStr buffer size for buffered IO (default is 8192).
+     * @param layout The layout to use to format the event. If no layout is provided the default PatternLayout
+     * will be used.
+     * @param filter The filter, if any, to use.
+     * @param advertise "true" if the appender configuration should be advertised, "false" otherwise.
+     * @param advertiseURI The advertised URI which can be used to retrieve the file contents.
+     * @param config The Configuration
+     * @return The FileAppender.
+     */
+    public static FileAppender createAppender(final String fileName, final String append, final String locking,
+            final String name, final String immediateFlush, final String ignore, final String bufferedIO,
+            final String bufferSizeStr, final Layout<? extends Serializable> layout, final Filter filter,
+            final String advertise, final String advertiseURI, final Configuration config) {
+        return createAppender(fileName, append, locking, name, immediateFlush, ignore, bufferedIO, bufferSizeStr,
+                null, layout, filter, advertise, advertiseURI, config);
+    }
+
     /**
      * Create a File Appender.
      * @param fileName The name and path of the file.
@@ -88,6 +117,9 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
      *               they are propagated to the caller.
      * @param bufferedIO "true" if I/O should be buffered, "false" otherwise. The default is "true".
      * @param bufferSizeStr buffer size for buffered IO (default is 8192).
+     * @param flushIntervalMillis If greater than 0, buffered events are flushed in groups: when the buffer is full,
+     * at least every this many milliseconds, and whenever an ERROR or more severe event is written. The
+     * default for immediateFlush then becomes "false".
      * @param layout The layout to use to format the event. If no layout is provided the default PatternLayout
      * will be used.
      * @param filter The filter, if any, to use.
@@ -106,6 +138,7 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             @PluginAttribute("ignoreExceptions") final String ignore,
             @PluginAttribute("bufferedIO") final String bufferedIO,
             @PluginAttribute("bufferSize") final String bufferSizeStr,
+            @PluginAttribute("flushIntervalMillis") final String flushIntervalMillis,
             @PluginElement("Layout") Layout<? extends Serializable> layout,
             @PluginElement("Filters") final Filter filter,
             @PluginAttribute("advertise") final String advertise,
@@ -126,7 +159,12 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         if (!isBuffered && bufferSize > 0) {
             LOGGER.warn("The bufferSize is set to {} but bufferedIO is not true: {}", bufferSize, bufferedIO);
         }
-        final boolean isFlush = Booleans.parseBoolean(immediateFlush, true);
+        final int flushInterval = Integers.parseInt(flushIntervalMillis, 0);
+        if (!isBuffered && flushInterval > 0) {
+            LOGGER.warn("The flushIntervalMillis is set to {} but bufferedIO is not true: {}", flushInterval,
+                    bufferedIO);
+        }
+        final boolean isFlush = Booleans.parseBoolean(immediateFlush, flushInterval <= 0);
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
 
         if (name == null) {
@@ -143,7 +181,7 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         }
 
         final FileManager manager = FileManager.getFileManager(fileName, isAppend, isLocking, isBuffered, advertiseURI,
-            layout, bufferSize);
+            layout, bufferSize, flushInterval);
         if (manager == null) {
             return null;
         }
@@ -44,7 +44,13 @@ public class FileManager extends OutputStreamManager {
 
     protected FileManager(final String fileName, final OutputStream os, final boolean append, final boolean locking,
                           final String advertiseURI, final Layout<? extends Serializable> layout) {
-        super(os, fileName, layout);
+        this(fileName, os, append, locking, advertiseURI, layout, 0);
+    }
+
+    protected FileManager(final String fileName, final OutputStream os, final boolean append, final boolean locking,
+                          final String advertiseURI, final Layout<? extends Serializable> layout,
+                          final long flushIntervalMillis) {
+        super(os, fileName, layout, flushIntervalMillis);
         this.isAppend = append;
         this.isLocking = locking;
         this.advertiseURI = advertiseURI;
@@ -64,12 +70,31 @@ public class FileManager extends OutputStreamManager {
     public static FileManager getFileManager(final String fileName, final boolean append, boolean locking,
             final boolean bufferedIO, final String advertiseURI, final Layout<? extends Serializable> layout,
             final int bufferSize) {
+        return getFileManager(fileName, append, locking, bufferedIO, advertiseURI, layout, bufferSize, 0);
+    }
+
+    /**
+     * Returns the FileManager.
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param locking true if the file should be locked while writing, false otherwise.
+     * @param bufferedIO true if the contents should be buffered as they are written.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout
+     * @param bufferSize buffer size for buffered IO
+     * @param flushIntervalMillis the maximum time buffered contents may wait for a flush, or 0 to disable group
+     * flushing.
+     * @return A FileManager for the File.
+     */
+    public static FileManager getFileManager(final String fileName, final boolean append, boolean locking,
+            final boolean bufferedIO, final String advertiseURI, final Layout<? extends Serializable> layout,
+            final int bufferSize, final long flushIntervalMillis) {
 
         if (locking && bufferedIO) {
             locking = false;
         }
         return (FileManager) getManager(fileName, new FactoryData(append, locking, bufferedIO, bufferSize,
-                advertiseURI, layout), FACTORY);
+                flushIntervalMillis, advertiseURI, layout), FACTORY);
     }
 
     @Override
@@ -144,6 +169,7 @@ public class FileManager extends OutputStreamManager {
         private final boolean locking;
         private final boolean bufferedIO;
         private final int bufferSize;
+        private final long flushIntervalMillis;
         private final String advertiseURI;
         private final Layout<? extends Serializable> layout;
 
@@ -153,14 +179,17 @@ public class FileManager extends OutputStreamManager {
          * @param locking Locking status.
          * @param bufferedIO Buffering flag.
          * @param bufferSize Buffer size.
+         * @param flushIntervalMillis Group flush interval.
          * @param advertiseURI the URI to use when advertising the file
          */
         public FactoryData(final boolean append, final boolean locking, final boolean bufferedIO, final int bufferSize,
-                final String advertiseURI, final Layout<? extends Serializable> layout) {
+                final long flushIntervalMillis, final String advertiseURI,
+                final Layout<? extends Serializable> layout) {
             this.append = append;
             this.locking = locking;
             this.bufferedIO = bufferedIO;
             this.bufferSize = bufferSize;
+            this.flushIntervalMillis = flushIntervalMillis;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
         }
@@ -191,7 +220,10 @@ public class FileManager extends OutputStreamManager {
                 if (data.bufferedIO) {
                     os = new BufferedOutputStream(os, data.bufferSize);
                 }
-                return new FileManager(name, os, data.append, data.locking, data.advertiseURI, data.layout);
+                final FileManager manager = new FileManager(name, os, data.append, data.locking, data.advertiseURI,
+                        data.layout, data.flushIntervalMillis);
+                manager.startGroupFlush();
+                return manager;
             } catch (final FileNotFoundException ex) {
                 LOGGER.error("FileManager (" + name + ") " + ex);
             }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.async.DaemonThreadFactory;
+
+/**
+ * Single daemon thread, shared by all managers that use group flushing, that flushes each manager at its configured
+ * interval so that buffered events never stay in memory for longer than that.
+ */
+final class GroupFlusher {
+
+    private GroupFlusher() {
+    }
+
+    /**
+     * Starts flushing the specified manager every {@code intervalMillis} milliseconds.
+     * @param manager The manager to flush.
+     * @param intervalMillis The maximum time that written bytes may stay in the manager's buffer.
+     * @return The future to cancel when the manager is released.
+     */
+    static ScheduledFuture<?> schedule(final OutputStreamManager manager, final long intervalMillis) {
+        return Holder.EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                manager.flushIfUnflushed();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the thread only once the first manager asks for group flushing.
+     */
+    private static class Holder {
+        private static final ScheduledExecutorService EXECUTOR = new ScheduledThreadPoolExecutor(1,
+                new DaemonThreadFactory("GroupFlusher-"));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.helpers.Booleans;
+import org.apache.logging.log4j.core.helpers.Integers;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.Advertiser;
+
+/**
+ * Memory Mapped File Appender.
+ */
+@Plugin(name = "MemoryMappedFile", category = "Core", elementType = "appender", printObject = true)
+public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender<MemoryMappedFileManager> {
+
+    private final String fileName;
+    private Object advertisement;
+    private final Advertiser advertiser;
+
+    private MemoryMappedFileAppender(final String name, final Layout<? extends Serializable> layout,
+            final Filter filter, final MemoryMappedFileManager manager, final String filename,
+            final boolean ignoreExceptions, final boolean immediateFlush, final Advertiser advertiser) {
+        super(name, layout, filter, ignoreExceptions, immediateFlush, manager);
+        if (advertiser != null) {
+            final Map<String, String> configuration = new HashMap<String, String>(
+                    layout.getContentFormat());
+            configuration.putAll(manager.getContentFormat());
+            configuration.put("contentType", layout.getContentType());
+            configuration.put("name", name);
+            advertisement = advertiser.advertise(configuration);
+        }
+        this.fileName = filename;
+        this.advertiser = advertiser;
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (advertiser != null) {
+            advertiser.unadvertise(advertisement);
+        }
+    }
+
+    /**
+     * Returns the file name this appender is associated with.
+     *
+     * @return The File name.
+     */
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    // difference from standard File Appender:
+    // locking is not supported, and immediateFlush forces the data to disk
+    /**
+     * Create a Memory Mapped File Appender.
+     *
+     * @param fileName The name and path of the file.
+     * @param append "True" if the file should be appended to, "false" if it
+     *            should be overwritten. The default is "true".
+     * @param name The name of the Appender.
+     * @param immediateFlush "true" if the contents should be forced to disk
+     *            after every write, "false" otherwise. The default is "false".
+     * @param regionLengthStr The number of bytes of the file that are mapped at a time, defaults to
+     *            {@value MemoryMappedFileManager#DEFAULT_REGION_LENGTH}.
+     * @param forceIntervalStr The longest time in milliseconds that written data may stay in the page cache before
+     *            it is forced to disk. The default is 0, which leaves this to the operating system.
+     * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
+     *               they are propagated to the caller.
+     * @param layout The layout to use to format the event. If no layout is
+     *            provided the default PatternLayout will be used.
+     * @param filter The filter, if any, to use.
+     * @param advertise "true" if the appender configuration should be
+     *            advertised, "false" otherwise.
+     * @param advertiseURI The advertised URI which can be used to retrieve the
+     *            file contents.
+     * @param config The Configuration.
+     * @return The MemoryMappedFileAppender.
+     */
+    @PluginFactory
+    public static MemoryMappedFileAppender createAppender(
+            @PluginAttribute("fileName") final String fileName,
+            @PluginAttribute("append") final String append,
+            @PluginAttribute("name") final String name,
+            @PluginAttribute("immediateFlush") final String immediateFlush,
+            @PluginAttribute("regionLength") final String regionLengthStr,
+            @PluginAttribute("forceIntervalMillis") final String forceIntervalStr,
+            @PluginAttribute("ignoreExceptions") final String ignore,
+            @PluginElement("Layout") Layout<? extends Serializable> layout,
+            @PluginElement("Filters") final Filter filter,
+            @PluginAttribute("advertise") final String advertise,
+            @PluginAttribute("advertiseURI") final String advertiseURI,
+            @PluginConfiguration final Configuration config) {
+
+        final boolean isAppend = Booleans.parseBoolean(append, true);
+        final boolean isForce = Booleans.parseBoolean(immediateFlush, false);
+        final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
+        final boolean isAdvertise = Boolean.parseBoolean(advertise);
+        final int regionLength = Integers.parseInt(regionLengthStr, MemoryMappedFileManager.DEFAULT_REGION_LENGTH);
+        final int forceInterval = Integers.parseInt(forceIntervalStr, 0);
+
+        if (name == null) {
+            LOGGER.error("No name provided for MemoryMappedFileAppender");
+            return null;
+        }
+
+        if (fileName == null) {
+            LOGGER.error("No filename provided for MemoryMappedFileAppender with name "
+                    + name);
+            return null;
+        }
+        if (regionLength <= 0) {
+            LOGGER.error("Invalid regionLength " + regionLength + " for MemoryMappedFileAppender with name " + name);
+            return null;
+        }
+        if (layout == null) {
+            layout = PatternLayout.createLayout(null, null, null, null, null, null);
+        }
+        final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(
+                fileName, isAppend, isForce, regionLength, forceInterval, advertiseURI, layout
+        );
+        if (manager == null) {
+            return null;
+        }
+
+        return new MemoryMappedFileAppender(
+                name, layout, filter, manager, fileName, ignoreExceptions, isForce,
+                isAdvertise ? config.getAdvertiser() : null
+        );
+    }
+}
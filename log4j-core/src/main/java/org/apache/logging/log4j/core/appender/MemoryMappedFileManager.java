@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+
+/**
+ * Extends OutputStreamManager but instead of using a buffered output stream,
+ * this class maps a region of the file into memory and lets layouts encode
+ * events directly into the mapping. When the region is full, the next region
+ * is mapped. Writing an event therefore copies bytes into the page cache
+ * without a system call. On close, the file is truncated to the length of the
+ * data written, and later writes fail with an {@link AppenderLoggingException}.
+ * <p>
+ * The next region is mapped when the current one is full rather than ahead of
+ * time: mapping reads nothing from the file, and the pages of a region are
+ * faulted in as they are first written whenever the region was mapped, so
+ * mapping early would only move one system call per region (32 MB by default).
+ * </p>
+ */
+public class MemoryMappedFileManager extends OutputStreamManager implements ByteBufferDestination {
+    static final int DEFAULT_REGION_LENGTH = 32 * 1024 * 1024;
+
+    private static final MemoryMappedFileManagerFactory FACTORY = new MemoryMappedFileManagerFactory();
+
+    private final boolean isForce;
+    private final long forceIntervalNanos;
+    private final int regionLength;
+    private final String advertiseURI;
+    private final RandomAccessFile randomAccessFile;
+    private MappedByteBuffer mappedBuffer;
+    private long mappingOffset;
+    private long lastForceNanos;
+
+    protected MemoryMappedFileManager(final RandomAccessFile file, final String fileName, final OutputStream os,
+            final boolean force, final long position, final int regionLength, final long forceIntervalMillis,
+            final String advertiseURI, final Layout<? extends Serializable> layout) throws IOException {
+        super(os, fileName, layout);
+        this.isForce = force;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis);
+        this.randomAccessFile = file;
+        this.regionLength = regionLength;
+        this.advertiseURI = advertiseURI;
+        this.mappingOffset = position;
+        this.mappedBuffer = mmap(file.getChannel(), position, regionLength);
+        this.lastForceNanos = System.nanoTime();
+        final byte[] header = layout == null ? null : layout.getHeader();
+        if (header != null) {
+            write(header); // the super constructor wrote it to the dummy stream
+        }
+    }
+
+    /**
+     * Returns the MemoryMappedFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should
+     *            be overwritten.
+     * @param isForce true if the contents should be forced to disk on every
+     *            write
+     * @param regionLength The number of bytes of the file that are mapped at a time.
+     * @param forceIntervalMillis The longest time in milliseconds that written data may stay unforced, or zero
+     *            to leave writing the page cache to disk to the operating system.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @return A MemoryMappedFileManager for the File.
+     */
+    public static MemoryMappedFileManager getFileManager(final String fileName, final boolean append,
+            final boolean isForce, final int regionLength, final long forceIntervalMillis,
+            final String advertiseURI, final Layout<? extends Serializable> layout) {
+        return (MemoryMappedFileManager) getManager(fileName, new FactoryData(append, isForce, regionLength,
+                forceIntervalMillis, advertiseURI, layout), FACTORY);
+    }
+
+    public boolean isImmediateFlush() {
+        return isForce;
+    }
+
+    public int getRegionLength() {
+        return regionLength;
+    }
+
+    public long getForceIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(forceIntervalNanos);
+    }
+
+    @Override
+    protected synchronized void write(final byte[] bytes, int offset, int length) {
+        checkOpen();
+        while (length > 0) {
+            if (!mappedBuffer.hasRemaining()) {
+                remap();
+            }
+            final int chunk = Math.min(length, mappedBuffer.remaining());
+            mappedBuffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+        forceIfDue();
+    }
+
+    @Override
+    protected synchronized void write(final Layout<?> layout, final LogEvent event) {
+        checkOpen();
+        AbstractLayout.encode(layout, event, this);
+        forceIfDue();
+    }
+
+    /**
+     * Returns the mapped region of the file, so layouts can encode events directly into it.
+     * @return the buffer to write to.
+     * @throws AppenderLoggingException if the manager is closed.
+     */
+    @Override
+    public synchronized ByteBuffer getByteBuffer() {
+        checkOpen();
+        return mappedBuffer;
+    }
+
+    /**
+     * Maps the next region of the file. The specified buffer is unmapped and must not be used any more.
+     * @param buf the buffer returned by {@link #getByteBuffer()}.
+     * @return the newly mapped region.
+     * @throws AppenderLoggingException if the manager is closed.
+     */
+    @Override
+    public synchronized ByteBuffer drain(final ByteBuffer buf) {
+        checkOpen();
+        remap();
+        return mappedBuffer;
+    }
+
+    /**
+     * Forces the written data to disk if {@code immediateFlush} is set or the force interval has elapsed. The data
+     * is already in the page cache, so there is nothing else to flush.
+     * @throws AppenderLoggingException if the manager is closed.
+     */
+    @Override
+    public synchronized void flush() {
+        checkOpen();
+        if (isForce) {
+            force();
+        } else {
+            forceIfDue();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (mappedBuffer == null) {
+            return; // already closed
+        }
+        final long length = mappingOffset + mappedBuffer.position();
+        force();
+        unsafeUnmap(mappedBuffer);
+        mappedBuffer = null; // the unmapped address range must never be touched again
+        try {
+            randomAccessFile.setLength(length); // remove the unused part of the last region
+        } catch (final IOException ex) {
+            LOGGER.error("Unable to truncate MemoryMappedFile " + getName() + " to " + length + " bytes. " + ex);
+        }
+        try {
+            randomAccessFile.close();
+        } catch (final IOException ex) {
+            LOGGER.error("Unable to close MemoryMappedFile " + getName() + ". " + ex);
+        }
+    }
+
+    /**
+     * Fails instead of touching the unmapped region, which would crash the JVM, when an event arrives after close,
+     * for example from an asynchronous logger whose shutdown overran its timeout.
+     */
+    private void checkOpen() {
+        if (mappedBuffer == null) {
+            throw new AppenderLoggingException("MemoryMappedFile " + getName() + " is closed");
+        }
+    }
+
+    private void forceIfDue() {
+        if (forceIntervalNanos > 0 && System.nanoTime() - lastForceNanos >= forceIntervalNanos) {
+            force();
+        }
+    }
+
+    private void force() {
+        mappedBuffer.force();
+        lastForceNanos = System.nanoTime();
+    }
+
+    private void remap() {
+        final long offset = mappingOffset + mappedBuffer.position();
+        if (isForce) {
+            mappedBuffer.force();
+        }
+        unsafeUnmap(mappedBuffer);
+        try {
+            mappedBuffer = mmap(randomAccessFile.getChannel(), offset, regionLength);
+        } catch (final IOException ex) {
+            final String msg = "Error mapping MemoryMappedFile " + getName() + " at offset " + offset;
+            throw new AppenderLoggingException(msg, ex);
+        }
+        mappingOffset = offset;
+    }
+
+    private static MappedByteBuffer mmap(final FileChannel channel, final long offset, final int length)
+            throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, offset, length);
+    }
+
+    /**
+     * Releases the mapping now instead of when the buffer is garbage collected, so that remapping does not
+     * accumulate address space and the file can be truncated. Falls back to garbage collection if the JVM does not
+     * expose the buffer's cleaner.
+     */
+    private static void unsafeUnmap(final MappedByteBuffer mbb) {
+        try {
+            final Method getCleanerMethod = mbb.getClass().getMethod("cleaner");
+            getCleanerMethod.setAccessible(true);
+            final Object cleaner = getCleanerMethod.invoke(mbb);
+            if (cleaner != null) {
+                final Method cleanMethod = cleaner.getClass().getMethod("clean");
+                cleanMethod.setAccessible(true);
+                cleanMethod.invoke(cleaner);
+            }
+        } catch (final Exception ex) {
+            LOGGER.debug("Unable to unmap MappedByteBuffer, it is released when garbage collected: " + ex);
+        }
+    }
+
+    /**
+     * Returns the name of the File being managed.
+     *
+     * @return The name of the File being managed.
+     */
+    public String getFileName() {
+        return getName();
+    }
+
+    /**
+     * FileManager's content format is specified by:
+     * <p/>
+     * Key: "fileURI" Value: provided "advertiseURI" param.
+     *
+     * @return Map of content format keys supporting FileManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<String, String>(
+                super.getContentFormat());
+        result.put("fileURI", advertiseURI);
+        return result;
+    }
+
+    /**
+     * Factory Data.
+     */
+    private static class FactoryData {
+        private final boolean append;
+        private final boolean force;
+        private final int regionLength;
+        private final long forceIntervalMillis;
+        private final String advertiseURI;
+        private final Layout<? extends Serializable> layout;
+
+        public FactoryData(final boolean append, final boolean force, final int regionLength,
+                final long forceIntervalMillis, final String advertiseURI,
+                final Layout<? extends Serializable> layout) {
+            this.append = append;
+            this.force = force;
+            this.regionLength = regionLength;
+            this.forceIntervalMillis = forceIntervalMillis;
+            this.advertiseURI = advertiseURI;
+            this.layout = layout;
+        }
+    }
+
+    /**
+     * Factory to create a MemoryMappedFileManager.
+     */
+    private static class MemoryMappedFileManagerFactory implements
+            ManagerFactory<MemoryMappedFileManager, FactoryData> {
+
+        /**
+         * Create a MemoryMappedFileManager.
+         *
+         * @param name The name of the File.
+         * @param data The FactoryData
+         * @return The MemoryMappedFileManager for the File.
+         */
+        @Override
+        public MemoryMappedFileManager createManager(final String name, final FactoryData data) {
+            final File file = new File(name);
+            final File parent = file.getParentFile();
+            if (null != parent && !parent.exists()) {
+                parent.mkdirs();
+            }
+            if (!data.append) {
+                file.delete();
+            }
+
+            final OutputStream os = new RandomAccessFileManager.DummyOutputStream();
+            RandomAccessFile raf = null;
+            try {
+                raf = new RandomAccessFile(name, "rw");
+                final long position = data.append ? raf.length() : 0;
+                if (!data.append) {
+                    raf.setLength(0);
+                }
+                return new MemoryMappedFileManager(raf, name, os, data.force, position, data.regionLength,
+                        data.forceIntervalMillis, data.advertiseURI, data.layout);
+            } catch (final Exception ex) {
+                LOGGER.error("MemoryMappedFileManager (" + name + ") " + ex);
+                if (raf != null) {
+                    try {
+                        raf.close();
+                    } catch (final IOException ignored) {
+                        // already reported
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -18,8 +18,17 @@ package org.apache.logging.log4j.core.appender;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 
 /**
  * Manage an OutputStream so that it can be shared by multiple Appenders and will
@@ -27,12 +36,47 @@ import org.apache.logging.log4j.core.Layout;
  */
 public class OutputStreamManager extends AbstractManager {
 
+    /** Number of times a thread waiting for its record yields before it parks. */
+    private static final int SPIN_TRIES = 64;
+
+    /** Upper bound on one park of a waiting thread; it is normally unparked as soon as its record is written. */
+    private static final long PARK_NANOS = 100 * 1000;
+
+    private static final ThreadLocal<EncodingBuffer> ENCODING_BUFFER = new ThreadLocal<EncodingBuffer>() {
+        @Override
+        protected EncodingBuffer initialValue() {
+            return new EncodingBuffer();
+        }
+    };
+
     private volatile OutputStream os;
 
     private final byte[] footer;
     private final byte[] header;
+    private final long flushIntervalMillis;
+    private volatile ScheduledFuture<?> groupFlush;
+    private volatile boolean unflushed;
+
+    /** Records handed over by threads that found another thread writing; a stack linked through the records. */
+    private final AtomicReference<EncodingBuffer> pending = new AtomicReference<EncodingBuffer>();
+    private final AtomicBoolean combining = new AtomicBoolean();
 
     protected OutputStreamManager(final OutputStream os, final String streamName, final Layout<?> layout) {
+        this(os, streamName, layout, 0);
+    }
+
+    /**
+     * Creates a manager that, if {@code flushIntervalMillis} is positive, flushes in groups: written bytes stay in
+     * the stream's buffer until it fills up, until the shared background flusher runs {@code flushIntervalMillis}
+     * after the last flush, or until an event at {@link Level#ERROR} or more severe is written. The background
+     * flushes only begin once {@link #startGroupFlush()} is called.
+     * @param os The OutputStream.
+     * @param streamName The name of the stream.
+     * @param layout The layout whose header and footer are written.
+     * @param flushIntervalMillis The maximum time between flushes, or 0 to flush only when the appender asks for it.
+     */
+    protected OutputStreamManager(final OutputStream os, final String streamName, final Layout<?> layout,
+                                  final long flushIntervalMillis) {
         super(streamName);
         this.os = os;
         if (layout != null) {
@@ -49,6 +93,17 @@ public class OutputStreamManager extends AbstractManager {
             this.footer = null;
             this.header = null;
         }
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Starts the background flushes of a manager created with a positive flush interval. Factories call this once
+     * the manager is fully constructed, so that the flusher thread never sees a partly constructed manager.
+     */
+    protected synchronized void startGroupFlush() {
+        if (flushIntervalMillis > 0 && groupFlush == null) {
+            groupFlush = GroupFlusher.schedule(this, flushIntervalMillis);
+        }
     }
 
     /**
@@ -73,6 +128,10 @@ public class OutputStreamManager extends AbstractManager {
         if (footer != null) {
             write(footer);
         }
+        final ScheduledFuture<?> future = groupFlush;
+        if (future != null) {
+            future.cancel(false);
+        }
         close();
     }
 
@@ -84,6 +143,24 @@ public class OutputStreamManager extends AbstractManager {
         return getCount() > 0;
     }
 
+    /**
+     * Returns whether this manager flushes in groups rather than whenever the appender asks for it.
+     * @return true if a flush interval was configured.
+     */
+    public boolean isGroupFlush() {
+        return flushIntervalMillis > 0;
+    }
+
+    /**
+     * Returns whether the event must be flushed as soon as it is written. With group flushing, events at
+     * {@link Level#ERROR} or more severe are flushed right away so they are not lost if the application dies.
+     * @param event The LogEvent that was just written.
+     * @return true if the appender should flush after this event.
+     */
+    protected boolean isFlushRequired(final LogEvent event) {
+        return flushIntervalMillis > 0 && event.getLevel().isAtLeastAsSpecificAs(Level.ERROR);
+    }
+
     protected OutputStream getOutputStream() {
         return os;
     }
@@ -101,6 +178,112 @@ public class OutputStreamManager extends AbstractManager {
         }
     }
 
+    /**
+     * Encodes the event with the specified layout and writes the result as a single record. The event is encoded
+     * into a buffer owned by the calling thread, so no lock is held while the layout formats it and no byte array
+     * is created per event. Managers that implement {@link ByteBufferDestination} may override this to let the
+     * layout encode straight into their own buffer.
+     * <p>
+     * Complete records are written by flat combining: the thread that finds no other thread writing becomes the
+     * combiner and writes its own record followed by every record other threads handed over in the meantime. Those
+     * threads wait without contending for the manager's lock, and return once the combiner has written their record,
+     * so each record is written whole and a thread's records keep their order.
+     * </p>
+     * @param layout The Layout that formats the event.
+     * @param event The LogEvent.
+     * @throws AppenderLoggingException if an error occurs.
+     */
+    protected void write(final Layout<?> layout, final LogEvent event) {
+        EncodingBuffer record = ENCODING_BUFFER.get();
+        if (record.inUse) {
+            // formatting the event being encoded logged another one
+            record = new EncodingBuffer();
+        }
+        record.inUse = true;
+        try {
+            AbstractLayout.encode(layout, event, record);
+            if (record.getByteBuffer().position() > 0) {
+                writeCombined(record);
+            }
+        } finally {
+            record.reset();
+            record.inUse = false;
+        }
+    }
+
+    private void writeCombined(final EncodingBuffer record) {
+        if (Thread.holdsLock(this)) {
+            // the combiner would wait for this thread's lock while this thread waits for the combiner
+            record.writeTo(this);
+        } else if (combining.compareAndSet(false, true)) {
+            combine(record);
+        } else {
+            record.written = false;
+            EncodingBuffer head;
+            do {
+                head = pending.get();
+                record.next = head;
+            } while (!pending.compareAndSet(head, record));
+            awaitWritten(record);
+        }
+        final RuntimeException error = record.error;
+        if (error != null) {
+            record.error = null;
+            throw error;
+        }
+    }
+
+    private void awaitWritten(final EncodingBuffer record) {
+        int spins = 0;
+        while (!record.written) {
+            if (combining.compareAndSet(false, true)) {
+                combine(null);
+            } else if (++spins <= SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    private void combine(final EncodingBuffer own) {
+        // each record is still written through write(byte[], int, int), which takes whatever lock the manager needs;
+        // holding the manager's lock for the whole pass would block managers that wait outside it, like TCP reconnects
+        try {
+            if (own != null) {
+                own.writeTo(this);
+            }
+            writePending(pending.getAndSet(null));
+        } finally {
+            combining.set(false);
+        }
+        // a record pushed after the stack was taken would otherwise wait for its thread's next park timeout
+        final EncodingBuffer waiting = pending.get();
+        if (waiting != null) {
+            LockSupport.unpark(waiting.owner);
+        }
+    }
+
+    private void writePending(EncodingBuffer stack) {
+        EncodingBuffer record = null;
+        while (stack != null) { // reverse the stack so records are written in the order they were handed over
+            final EncodingBuffer next = stack.next;
+            stack.next = record;
+            record = stack;
+            stack = next;
+        }
+        while (record != null) {
+            // the owner reuses the record as soon as it sees it written
+            final EncodingBuffer next = record.next;
+            final Thread owner = record.owner;
+            record.next = null;
+            record.writeTo(this);
+            record.written = true;
+            LockSupport.unpark(owner);
+            record = next;
+        }
+    }
+
     /**
      * Some output streams synchronize writes while others do not. Synchronizing here insures that
      * log events won't be intertwined.
@@ -113,6 +296,7 @@ public class OutputStreamManager extends AbstractManager {
         //System.out.println("write " + count);
         try {
             os.write(bytes, offset, length);
+            unflushed = true;
         } catch (final IOException ex) {
             final String msg = "Error writing to stream " + getName();
             throw new AppenderLoggingException(msg, ex);
@@ -146,10 +330,76 @@ public class OutputStreamManager extends AbstractManager {
      */
     public synchronized void flush() {
         try {
+            unflushed = false;
             os.flush();
         } catch (final IOException ex) {
             final String msg = "Error flushing stream " + getName();
             throw new AppenderLoggingException(msg, ex);
         }
     }
+
+    /**
+     * Called by the group flusher. Skips the flush when nothing was written since the last one, so an idle
+     * manager does not take its lock.
+     */
+    void flushIfUnflushed() {
+        if (!unflushed) {
+            return;
+        }
+        try {
+            flush();
+        } catch (final AppenderLoggingException ex) {
+            LOGGER.error("Unable to flush stream " + getName() + " in the background", ex);
+        }
+    }
+
+    /**
+     * Per-thread buffer that grows instead of draining, so that an event always reaches the stream in one write.
+     * It doubles as the thread's record in the combining stack of the manager it is being written to.
+     */
+    private static class EncodingBuffer implements ByteBufferDestination {
+        private static final int INITIAL_SIZE = 1024;
+        private static final int MAX_RETAINED_SIZE = 8 * 1024;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_SIZE);
+
+        private final Thread owner = Thread.currentThread();
+        private EncodingBuffer next;
+        private volatile boolean written;
+        private RuntimeException error;
+        private boolean inUse;
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            final ByteBuffer larger = ByteBuffer.allocate(buf.capacity() * 2);
+            buf.flip();
+            larger.put(buf);
+            buffer = larger;
+            return larger;
+        }
+
+        /**
+         * Writes the record to the manager, keeping any failure for the owning thread to throw.
+         */
+        void writeTo(final OutputStreamManager manager) {
+            try {
+                manager.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            } catch (final RuntimeException ex) {
+                error = ex;
+            }
+        }
+
+        void reset() {
+            if (buffer.capacity() > MAX_RETAINED_SIZE) {
+                buffer = ByteBuffer.allocate(INITIAL_SIZE);
+            } else {
+                buffer.clear();
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,8 +30,12 @@ import org.apache.logging.log4j.core.Layout;
 
 /**
  * Extends OutputStreamManager but instead of using a buffered output stream,
- * this class uses a {@code ByteBuffer} and a {@code RandomAccessFile} to do the
- * I/O.
+ * this class uses a direct {@code ByteBuffer} and the {@code FileChannel} of a
+ * {@code RandomAccessFile} to do the I/O. The channel writes the buffer to the
+ * file without copying it into a temporary native buffer first. Events are
+ * encoded by the calling thread and handed to the buffer through the combining
+ * write path of OutputStreamManager, so the lock is only held to copy complete
+ * records.
  */
 public class RandomAccessFileManager extends OutputStreamManager {
     static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
@@ -40,6 +45,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
     private final boolean isImmediateFlush;
     private final String advertiseURI;
     private final RandomAccessFile randomAccessFile;
+    private final FileChannel fileChannel;
     private final ByteBuffer buffer;
     private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<Boolean>();
 
@@ -50,11 +56,10 @@ public class RandomAccessFileManager extends OutputStreamManager {
         super(os, fileName, layout);
         this.isImmediateFlush = immediateFlush;
         this.randomAccessFile = file;
+        this.fileChannel = file.getChannel();
         this.advertiseURI = advertiseURI;
         this.isEndOfBatch.set(Boolean.FALSE);
-
-        // TODO make buffer size configurable?
-        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
     }
 
     /**
@@ -87,8 +92,6 @@ public class RandomAccessFileManager extends OutputStreamManager {
 
     @Override
     protected synchronized void write(final byte[] bytes, int offset, int length) {
-        super.write(bytes, offset, length); // writes to dummy output stream
-
         int chunk = 0;
         do {
             if (length > buffer.remaining()) {
@@ -105,11 +108,21 @@ public class RandomAccessFileManager extends OutputStreamManager {
         }
     }
 
+    /**
+     * Returns the buffer that is written to the file on {@link #flush()}.
+     * @return the buffer.
+     */
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
     @Override
     public synchronized void flush() {
         buffer.flip();
         try {
-            randomAccessFile.write(buffer.array(), 0, buffer.limit());
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
         } catch (final IOException ex) {
             final String msg = "Error writing to RandomAccessFile " + getName();
             throw new AppenderLoggingException(msg, ex);
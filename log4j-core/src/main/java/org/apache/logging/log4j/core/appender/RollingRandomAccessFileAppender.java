@@ -36,6 +36,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Booleans;
+import org.apache.logging.log4j.core.helpers.Integers;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.net.Advertiser;
 
@@ -114,6 +115,41 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         return filePattern;
     }
 
+    /**
+     * Create a RollingRandomAccessFileAppender with a buffer of
+     * {@value RollingRandomAccessFileManager#DEFAULT_BUFFER_SIZE} bytes.
+     *
+     * @param fileName The name of the file that is actively written to.
+     *            (required).
+     * @param filePattern The pattern of the file name to use on rollover.
+     *            (required).
+     * @param append If true, events are appended to the file. If false, the
+     *            file is overwritten when opened. Defaults to "true"
+     * @param name The name of the Appender (required).
+     * @param immediateFlush When true, events are immediately flushed. Defaults
+     *            to "true".
+     * @param policy The triggering policy. (required).
+     * @param strategy The rollover strategy. Defaults to
+     *            DefaultRolloverStrategy.
+     * @param layout The layout to use (defaults to the default PatternLayout).
+     * @param filter The Filter or null.
+     * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
+     *               they are propagated to the caller.
+     * @param advertise "true" if the appender configuration should be
+     *            advertised, "false" otherwise.
+     * @param advertiseURI The advertised URI which can be used to retrieve the
+     *            file contents.
+     * @param config The Configuration.
+     * @return A RollingRandomAccessFileAppender.
+     */
+    public static RollingRandomAccessFileAppender createAppender(final String fileName, final String filePattern,
+            final String append, final String name, final String immediateFlush, final TriggeringPolicy policy,
+            final RolloverStrategy strategy, final Layout<? extends Serializable> layout, final Filter filter,
+            final String ignore, final String advertise, final String advertiseURI, final Configuration config) {
+        return createAppender(fileName, filePattern, append, name, immediateFlush, null, policy, strategy, layout,
+                filter, ignore, advertise, advertiseURI, config);
+    }
+
     /**
      * Create a RollingRandomAccessFileAppender.
      *
@@ -126,6 +162,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
      * @param name The name of the Appender (required).
      * @param immediateFlush When true, events are immediately flushed. Defaults
      *            to "true".
+     * @param bufferSizeStr The buffer size, defaults to {@value RollingRandomAccessFileManager#DEFAULT_BUFFER_SIZE}.
      * @param policy The triggering policy. (required).
      * @param strategy The rollover strategy. Defaults to
      *            DefaultRolloverStrategy.
@@ -147,6 +184,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             @PluginAttribute("append") final String append,
             @PluginAttribute("name") final String name,
             @PluginAttribute("immediateFlush") final String immediateFlush,
+            @PluginAttribute("bufferSize") final String bufferSizeStr,
             @PluginElement("Policy") final TriggeringPolicy policy,
             @PluginElement("Strategy") RolloverStrategy strategy,
             @PluginElement("Layout") Layout<? extends Serializable> layout,
@@ -160,6 +198,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
         final boolean isFlush = Booleans.parseBoolean(immediateFlush, true);
         final boolean isAdvertise = Boolean.parseBoolean(advertise);
+        final int bufferSize = Integers.parseInt(bufferSizeStr, RollingRandomAccessFileManager.DEFAULT_BUFFER_SIZE);
 
         if (name == null) {
             LOGGER.error("No name provided for FileAppender");
@@ -194,7 +233,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
 
 
         final RollingRandomAccessFileManager manager = RollingRandomAccessFileManager.getRollingRandomAccessFileManager(fileName, filePattern,
-            isAppend, isFlush, policy, strategy, advertiseURI, layout);
+            isAppend, isFlush, bufferSize, policy, strategy, advertiseURI, layout);
         if (manager == null) {
             return null;
         }
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractManager;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 
 /**
  * Manager that allows database appenders to have their configuration reloaded without losing events.
@@ -150,7 +151,9 @@ public abstract class AbstractDatabaseManager extends AbstractManager {
      */
     public final synchronized void write(final LogEvent event) {
         if (this.bufferSize > 0) {
-            this.buffer.add(event);
+            // the buffer outlives the append call, so reusable events must be copied
+            final LogEvent copy = Log4jLogEvent.snapshot(event);
+            this.buffer.add(copy == null ? event : copy);
             if (this.buffer.size() >= this.bufferSize || event.isEndOfBatch()) {
                 this.flush();
             }
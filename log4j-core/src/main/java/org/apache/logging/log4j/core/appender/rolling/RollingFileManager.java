@@ -157,7 +157,7 @@ public class RollingFileManager extends FileManager {
         }
 
         boolean success = false;
-        Thread thread = null;
+        boolean asyncActionStarted = false;
 
         try {
             final RolloverDescription descriptor = strategy.rollover(this);
@@ -174,14 +174,15 @@ public class RollingFileManager extends FileManager {
 
                 if (success && descriptor.getAsynchronous() != null) {
                     LOGGER.debug("RollingFileManager executing async {}", descriptor.getAsynchronous());
-                    thread = new Thread(new AsyncAction(descriptor.getAsynchronous(), this));
-                    thread.start();
+                    // the action releases the semaphore, even if the executor runs it on this thread
+                    asyncActionStarted = true;
+                    RolloverExecutor.getInstance().execute(new AsyncAction(descriptor.getAsynchronous(), this));
                 }
                 return true;
             }
             return false;
         } finally {
-            if (thread == null) {
+            if (!asyncActionStarted) {
                 semaphore.release();
             }
         }
@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
@@ -29,11 +30,11 @@ import org.apache.logging.log4j.core.appender.ManagerFactory;
 
 /**
  * Extends RollingFileManager but instead of using a buffered output stream,
- * this class uses a {@code ByteBuffer} and a {@code RandomAccessFile} to do the
- * I/O.
+ * this class uses a direct {@code ByteBuffer} and the {@code FileChannel} of a
+ * {@code RandomAccessFile} to do the I/O.
  */
 public class RollingRandomAccessFileManager extends RollingFileManager {
-    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
 
     private static final RollingRandomAccessFileManagerFactory FACTORY = new RollingRandomAccessFileManagerFactory();
 
@@ -47,20 +48,34 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final boolean immediateFlush, final long size, final long time,
             final TriggeringPolicy policy, final RolloverStrategy strategy,
             final String advertiseURI, final Layout<? extends Serializable> layout) {
+        this(raf, fileName, pattern, os, append, immediateFlush, DEFAULT_BUFFER_SIZE, size, time, policy, strategy,
+                advertiseURI, layout);
+    }
+
+    public RollingRandomAccessFileManager(final RandomAccessFile raf, final String fileName,
+            final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final long size, final long time,
+            final TriggeringPolicy policy, final RolloverStrategy strategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout) {
         super(fileName, pattern, os, append, size, time, policy, strategy, advertiseURI, layout);
         this.isImmediateFlush = immediateFlush;
         this.randomAccessFile = raf;
         isEndOfBatch.set(Boolean.FALSE);
-
-        // TODO make buffer size configurable?
-        buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
     }
 
     public static RollingRandomAccessFileManager getRollingRandomAccessFileManager(final String fileName, final String filePattern,
             final boolean isAppend, final boolean immediateFlush, final TriggeringPolicy policy,
             final RolloverStrategy strategy, final String advertiseURI, final Layout<? extends Serializable> layout) {
+        return getRollingRandomAccessFileManager(fileName, filePattern, isAppend, immediateFlush, DEFAULT_BUFFER_SIZE,
+                policy, strategy, advertiseURI, layout);
+    }
+
+    public static RollingRandomAccessFileManager getRollingRandomAccessFileManager(final String fileName, final String filePattern,
+            final boolean isAppend, final boolean immediateFlush, final int bufferSize, final TriggeringPolicy policy,
+            final RolloverStrategy strategy, final String advertiseURI, final Layout<? extends Serializable> layout) {
         return (RollingRandomAccessFileManager) getManager(fileName, new FactoryData(filePattern, isAppend, immediateFlush,
-            policy, strategy, advertiseURI, layout), FACTORY);
+            bufferSize, policy, strategy, advertiseURI, layout), FACTORY);
     }
 
     public Boolean isEndOfBatch() {
@@ -103,7 +118,10 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
     public synchronized void flush() {
         buffer.flip();
         try {
-            randomAccessFile.write(buffer.array(), 0, buffer.limit());
+            final FileChannel channel = randomAccessFile.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
         } catch (final IOException ex) {
             final String msg = "Error writing to RandomAccessFile " + getName();
             throw new AppenderLoggingException(msg, ex);
@@ -160,7 +178,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
                     raf.setLength(0);
                 }
                 return new RollingRandomAccessFileManager(raf, name, data.pattern, new DummyOutputStream(), data.append,
-                        data.immediateFlush, size, time, data.policy, data.strategy, data.advertiseURI, data.layout);
+                        data.immediateFlush, data.bufferSize, size, time, data.policy, data.strategy, data.advertiseURI, data.layout);
             } catch (final IOException ex) {
                 LOGGER.error("Cannot access RandomAccessFile {}) " + ex);
                 if (raf != null) {
@@ -193,6 +211,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         private final String pattern;
         private final boolean append;
         private final boolean immediateFlush;
+        private final int bufferSize;
         private final TriggeringPolicy policy;
         private final RolloverStrategy strategy;
         private final String advertiseURI;
@@ -208,9 +227,24 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         public FactoryData(final String pattern, final boolean append, final boolean immediateFlush,
                            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
                            final Layout<? extends Serializable> layout) {
+            this(pattern, append, immediateFlush, DEFAULT_BUFFER_SIZE, policy, strategy, advertiseURI, layout);
+        }
+
+        /**
+         * Create the data for the factory.
+         *
+         * @param pattern The pattern.
+         * @param append The append flag.
+         * @param immediateFlush
+         * @param bufferSize The size of the buffer.
+         */
+        public FactoryData(final String pattern, final boolean append, final boolean immediateFlush,
+                           final int bufferSize, final TriggeringPolicy policy, final RolloverStrategy strategy,
+                           final String advertiseURI, final Layout<? extends Serializable> layout) {
             this.pattern = pattern;
             this.append = append;
             this.immediateFlush = immediateFlush;
+            this.bufferSize = bufferSize;
             this.policy = policy;
             this.strategy = strategy;
             this.advertiseURI = advertiseURI;
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Runs the asynchronous part of rollovers, such as compressing the rolled file, on a small pool of low-priority
+ * threads shared by all RollingFileManagers, so that many appenders rolling at the same time do not start a thread
+ * each. When all threads are busy and more actions are waiting than the queue allows, the action runs on the
+ * thread that triggered the rollover instead, which slows that thread down rather than letting work pile up.
+ * <p>
+ * Idle threads end after a short keep-alive. They are not daemon threads, so the JVM does not exit before a
+ * running compression is finished.
+ * </p>
+ */
+public final class RolloverExecutor {
+
+    /** Default maximum number of actions that run at the same time. */
+    public static final int DEFAULT_THREADS = 2;
+
+    /** Default maximum number of actions waiting for a thread. */
+    public static final int DEFAULT_QUEUE_SIZE = 64;
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+
+    private static final RolloverExecutor INSTANCE = new RolloverExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+    private final ThreadPoolExecutor executor;
+    private volatile int queueSize;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicInteger largestQueueSize = new AtomicInteger();
+
+    RolloverExecutor(final int threads, final int queueSize) {
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS, queue,
+                new RolloverThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Returns the executor shared by all RollingFileManagers.
+     * @return the shared RolloverExecutor.
+     */
+    public static RolloverExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Applies the settings of a {@code <RolloverExecutor>} configuration element. They stay in effect until another
+     * configuration specifies different ones; actions that are already queued are not affected.
+     * @param config The settings.
+     */
+    public void configure(final RolloverExecutorConfig config) {
+        configure(config.getThreads(), config.getQueueSize());
+    }
+
+    /**
+     * Changes the number of threads and the queue size.
+     * @param threads The maximum number of actions that run at the same time.
+     * @param queueSize The maximum number of actions waiting for a thread.
+     */
+    public synchronized void configure(final int threads, final int queueSize) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+        this.queueSize = queueSize;
+        LOGGER.debug("RolloverExecutor uses {} threads and a queue of {} actions", threads, queueSize);
+    }
+
+    /**
+     * Runs the action on a rollover thread, or on the calling thread if the queue is full.
+     * @param action The action to run.
+     */
+    public void execute(final Runnable action) {
+        submitted.incrementAndGet();
+        final Runnable counted = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    action.run();
+                } finally {
+                    completed.incrementAndGet();
+                }
+            }
+        };
+        // the checks race with other submitters, so the queue may briefly hold a few more actions
+        final int waiting = queue.size();
+        if (waiting >= queueSize && executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+            callerRuns.incrementAndGet();
+            LOGGER.warn("RolloverExecutor queue is full ({} actions waiting), running {} on the calling thread",
+                    waiting, action);
+            counted.run();
+            return;
+        }
+        executor.execute(counted);
+        updateLargestQueueSize(queue.size());
+    }
+
+    private void updateLargestQueueSize(final int size) {
+        int largest;
+        do {
+            largest = largestQueueSize.get();
+        } while (size > largest && !largestQueueSize.compareAndSet(largest, size));
+    }
+
+    /**
+     * Returns the maximum number of actions that run at the same time.
+     * @return the number of threads.
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the maximum number of actions waiting for a thread.
+     * @return the queue size.
+     */
+    public int getMaxQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns the number of actions waiting for a thread.
+     * @return the current queue length.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the largest number of actions that were waiting for a thread at the same time.
+     * @return the largest queue length seen.
+     */
+    public int getLargestQueueSize() {
+        return largestQueueSize.get();
+    }
+
+    /**
+     * Returns the number of actions that are running on a rollover thread.
+     * @return the number of running actions.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of actions passed to {@link #execute(Runnable)}.
+     * @return the number of actions submitted.
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * Returns the number of actions that finished, whether they succeeded or not.
+     * @return the number of actions completed.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of actions that ran on the calling thread because the queue was full.
+     * @return the number of actions the caller had to run.
+     */
+    public long getCallerRunsCount() {
+        return callerRuns.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RolloverExecutor[threads=" + getThreads() + ", maxQueueSize=" + queueSize + ", queueSize="
+                + getQueueSize() + ", largestQueueSize=" + getLargestQueueSize() + ", active=" + getActiveCount()
+                + ", submitted=" + getSubmittedCount() + ", completed=" + getCompletedCount() + ", callerRuns="
+                + getCallerRunsCount() + "]";
+    }
+
+    /**
+     * Creates minimum-priority threads so that compression yields to application threads.
+     */
+    private static class RolloverThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "RolloverExecutor-" + threadNumber.getAndIncrement());
+            thread.setDaemon(false);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
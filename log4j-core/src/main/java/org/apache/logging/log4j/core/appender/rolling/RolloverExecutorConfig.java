@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.helpers.Integers;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Settings of the {@link RolloverExecutor}, configured with a {@code <RolloverExecutor>} element in the
+ * configuration file. The executor is shared by all configurations, so the settings of the configuration started
+ * last apply.
+ */
+@Plugin(name = "RolloverExecutor", category = "Core", printObject = true)
+public final class RolloverExecutorConfig {
+
+    private final int threads;
+    private final int queueSize;
+
+    private RolloverExecutorConfig(final int threads, final int queueSize) {
+        this.threads = threads;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Returns the maximum number of actions that run at the same time.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the maximum number of actions waiting for a thread before they run on the thread that rolled over.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String toString() {
+        return "RolloverExecutor[threads=" + threads + ", queueSize=" + queueSize + "]";
+    }
+
+    /**
+     * Creates the settings of the RolloverExecutor.
+     *
+     * @param threads maximum number of rollover actions that run at the same time, default 2
+     * @param queueSize maximum number of actions waiting for a thread, default 64
+     * @return the settings
+     */
+    @PluginFactory
+    public static RolloverExecutorConfig createRolloverExecutorConfig(
+            @PluginAttribute("threads") final String threads,
+            @PluginAttribute("queueSize") final String queueSize) {
+        int threadCount = Integers.parseInt(threads, RolloverExecutor.DEFAULT_THREADS);
+        if (threadCount < 1) {
+            StatusLogger.getLogger().error("RolloverExecutor threads must be at least 1, using {}",
+                    RolloverExecutor.DEFAULT_THREADS);
+            threadCount = RolloverExecutor.DEFAULT_THREADS;
+        }
+        final int queueLength = Math.max(0, Integers.parseInt(queueSize, RolloverExecutor.DEFAULT_QUEUE_SIZE));
+        return new RolloverExecutorConfig(threadCount, queueLength);
+    }
+}
@@ -16,19 +16,31 @@
  */
 package org.apache.logging.log4j.core.appender.rolling.action;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPOutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 /**
- * Compresses a file using GZ compression.
+ * Compresses a file using GZ compression. The file is deflated with a pooled {@code Deflater} instead of a
+ * {@code GZIPOutputStream}, which would create and free a new native deflater for every file.
  */
 public final class GZCompressAction extends AbstractAction {
 
-    private static final int BUF_SIZE = 8102;
+    private static final int BUF_SIZE = 64 * 1024;
+
+    /** Most Deflaters kept for reuse; more are only needed if that many files are compressed at once. */
+    private static final int MAX_POOLED_DEFLATERS = 4;
+
+    /** Same header as GZIPOutputStream writes: magic number, deflate method, no flags, no time, unknown OS. */
+    private static final byte[] GZIP_HEADER = {(byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final Queue<Deflater> DEFLATERS = new ConcurrentLinkedQueue<Deflater>();
 
     /**
      * Source file.
@@ -91,20 +103,23 @@ public final class GZCompressAction extends AbstractAction {
     public static boolean execute(final File source, final File destination, final boolean deleteSource)
         throws IOException {
         if (source.exists()) {
-            final FileInputStream fis = new FileInputStream(source);
-            final FileOutputStream fos = new FileOutputStream(destination);
-            final GZIPOutputStream gzos = new GZIPOutputStream(fos);
-            final BufferedOutputStream os = new BufferedOutputStream(gzos);
-            final byte[] inbuf = new byte[BUF_SIZE];
-            int n;
-
-            while ((n = fis.read(inbuf)) != -1) {
-                os.write(inbuf, 0, n);
+            final Deflater deflater = borrowDeflater();
+            try {
+                final FileInputStream fis = new FileInputStream(source);
+                try {
+                    final FileOutputStream fos = new FileOutputStream(destination);
+                    try {
+                        compress(fis, fos, deflater);
+                    } finally {
+                        fos.close();
+                    }
+                } finally {
+                    fis.close();
+                }
+            } finally {
+                returnDeflater(deflater);
             }
 
-            os.close();
-            fis.close();
-
             if (deleteSource && !source.delete()) {
                 LOGGER.warn("Unable to delete " + source.toString() + '.');
             }
@@ -116,6 +131,49 @@ public final class GZCompressAction extends AbstractAction {
     }
 
 
+    private static void compress(final FileInputStream fis, final FileOutputStream fos, final Deflater deflater)
+        throws IOException {
+        fos.write(GZIP_HEADER);
+        final DeflaterOutputStream dos = new DeflaterOutputStream(fos, deflater, BUF_SIZE);
+        final CRC32 crc = new CRC32();
+        final byte[] inbuf = new byte[BUF_SIZE];
+        long length = 0;
+        int n;
+
+        while ((n = fis.read(inbuf)) != -1) {
+            dos.write(inbuf, 0, n);
+            crc.update(inbuf, 0, n);
+            length += n;
+        }
+        dos.finish(); // not close(), which would close the file before the trailer is written
+
+        final byte[] trailer = new byte[8];
+        writeIntLE(trailer, 0, (int) crc.getValue());
+        writeIntLE(trailer, 4, (int) length); // the uncompressed size modulo 2^32
+        fos.write(trailer);
+    }
+
+    private static void writeIntLE(final byte[] buf, final int offset, final int value) {
+        buf[offset] = (byte) value;
+        buf[offset + 1] = (byte) (value >> 8);
+        buf[offset + 2] = (byte) (value >> 16);
+        buf[offset + 3] = (byte) (value >> 24);
+    }
+
+    private static Deflater borrowDeflater() {
+        final Deflater deflater = DEFLATERS.poll();
+        return deflater != null ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    private static void returnDeflater(final Deflater deflater) {
+        deflater.reset();
+        if (DEFLATERS.size() < MAX_POOLED_DEFLATERS) {
+            DEFLATERS.offer(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
     /**
      * Capture exception.
      *
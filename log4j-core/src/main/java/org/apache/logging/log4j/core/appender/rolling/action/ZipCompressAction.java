@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender.rolling.action;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -29,7 +30,7 @@ import java.util.zip.ZipOutputStream;
  */
 public final class ZipCompressAction extends AbstractAction {
 
-    private static final int BUF_SIZE = 8102;
+    private static final int BUF_SIZE = 64 * 1024;
 
     /**
      * Source file.
@@ -101,23 +102,29 @@ public final class ZipCompressAction extends AbstractAction {
         throws IOException {
         if (source.exists()) {
             final FileInputStream fis = new FileInputStream(source);
-            final FileOutputStream fos = new FileOutputStream(destination);
-            final ZipOutputStream zos = new ZipOutputStream(fos);
-            zos.setLevel(level);
-
-            final ZipEntry zipEntry = new ZipEntry(source.getName());
-            zos.putNextEntry(zipEntry);
-
-            final byte[] inbuf = new byte[BUF_SIZE];
-            int n;
-
-            while ((n = fis.read(inbuf)) != -1) {
-                zos.write(inbuf, 0, n);
+            try {
+                // ZipOutputStream deflates into a 512 byte buffer, so buffer its output to avoid tiny writes
+                final ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(destination), BUF_SIZE));
+                try {
+                    zos.setLevel(level);
+
+                    final ZipEntry zipEntry = new ZipEntry(source.getName());
+                    zos.putNextEntry(zipEntry);
+
+                    final byte[] inbuf = new byte[BUF_SIZE];
+                    int n;
+
+                    while ((n = fis.read(inbuf)) != -1) {
+                        zos.write(inbuf, 0, n);
+                    }
+                } finally {
+                    zos.close();
+                }
+            } finally {
+                fis.close();
             }
 
-            zos.close();
-            fis.close();
-
             if (deleteSource && !source.delete()) {
                 LOGGER.warn("Unable to delete " + source.toString() + '.');
             }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+
+/**
+ * Wait strategy that spins, then yields, then parks the consumer thread until
+ * events are available. Publishers unpark a parked consumer, so an idle
+ * consumer uses no CPU and still wakes up without taking a lock. The park time
+ * bounds the delay if a wake-up is missed.
+ * <p>
+ * Like the Disruptor's {@code SleepingWaitStrategy}, but with configurable
+ * thresholds and a park time long enough not to burn CPU on idle services.
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy {
+
+    /** Default number of spins before yielding. */
+    public static final int DEFAULT_SPIN_TRIES = 100;
+
+    /** Default number of yields before parking. */
+    public static final int DEFAULT_YIELD_TRIES = 100;
+
+    /** Default longest park time in nanoseconds. */
+    public static final long DEFAULT_PARK_NANOS = 1000 * 1000;
+
+    private final int spinTries;
+    private final int yieldTries;
+    private final long parkNanos;
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Constructs the strategy with the default thresholds.
+     */
+    public AdaptiveWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES, DEFAULT_YIELD_TRIES, DEFAULT_PARK_NANOS);
+    }
+
+    /**
+     * Constructs the strategy.
+     *
+     * @param spinTries number of times to spin before yielding
+     * @param yieldTries number of times to yield before parking
+     * @param parkNanos longest time to park before checking for events again, must be positive
+     */
+    public AdaptiveWaitStrategy(final int spinTries, final int yieldTries, final long parkNanos) {
+        if (spinTries < 0 || yieldTries < 0 || parkNanos <= 0) {
+            throw new IllegalArgumentException("Invalid thresholds: spinTries=" + spinTries + ", yieldTries="
+                    + yieldTries + ", parkNanos=" + parkNanos);
+        }
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence,
+            final SequenceBarrier barrier) throws AlertException, InterruptedException {
+        long availableSequence;
+        int counter = 0;
+        while ((availableSequence = dependentSequence.get()) < sequence) {
+            barrier.checkAlert();
+            if (counter < spinTries) {
+                counter++;
+            } else if (counter < spinTries + yieldTries) {
+                counter++;
+                Thread.yield();
+            } else {
+                waitingConsumer = Thread.currentThread();
+                if (dependentSequence.get() < sequence) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+                waitingConsumer = null;
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        return availableSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        final Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    public int getSpinTries() {
+        return spinTries;
+    }
+
+    public int getYieldTries() {
+        return yieldTries;
+    }
+
+    public long getParkNanos() {
+        return parkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveWaitStrategy[spinTries=" + spinTries + ", yieldTries=" + yieldTries + ", parkNanos="
+                + parkNanos + "]";
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.Collection;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+
+/**
+ * Flushes appenders from the consumer thread of a ring buffer when the
+ * {@code Timeout} wait strategy wakes it up without events to process, or
+ * when a handler of {@code AsyncLoggerConfig.ParallelAppenders} reaches the
+ * end of a batch.
+ */
+final class AppenderFlusher {
+
+    private AppenderFlusher() {
+    }
+
+    /**
+     * Flushes the output stream of every appender that writes to one.
+     *
+     * @param appenders the appenders
+     */
+    static void flush(final Collection<Appender> appenders) {
+        for (final Appender appender : appenders) {
+            if (appender instanceof AbstractOutputStreamAppender) {
+                ((AbstractOutputStreamAppender<?>) appender).getManager().flush();
+            }
+        }
+    }
+}
@@ -17,8 +17,6 @@
 package org.apache.logging.log4j.core.async;
 
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -29,21 +27,14 @@ import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.helpers.Clock;
 import org.apache.logging.log4j.core.helpers.ClockFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
-import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.status.StatusLogger;
 
-import com.lmax.disruptor.BlockingWaitStrategy;
-import com.lmax.disruptor.EventHandler;
-import com.lmax.disruptor.ExceptionHandler;
-import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.SleepingWaitStrategy;
-import com.lmax.disruptor.WaitStrategy;
-import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
-import com.lmax.disruptor.dsl.ProducerType;
-import com.lmax.disruptor.util.Util;
 
 /**
  * AsyncLogger is a logger designed for high throughput and low latency logging.
@@ -75,10 +66,6 @@ import com.lmax.disruptor.util.Util;
  */
 public class AsyncLogger extends Logger {
     private static final long serialVersionUID = 1L;
-    private static final int HALF_A_SECOND = 500;
-    private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 20;
-    private static final int RINGBUFFER_MIN_SIZE = 128;
-    private static final int RINGBUFFER_DEFAULT_SIZE = 256 * 1024;
     private static final StatusLogger LOGGER = StatusLogger.getLogger();
     private static final ThreadNameStrategy THREAD_NAME_STRATEGY = ThreadNameStrategy.create();
     private static final ThreadLocal<Info> threadlocalInfo = new ThreadLocal<Info>();
@@ -107,47 +94,13 @@ public class AsyncLogger extends Logger {
             }
         }
     }
-    private static volatile Disruptor<RingBufferLogEvent> disruptor;
     private static Clock clock = ClockFactory.getClock();
 
-    private static ExecutorService executor = Executors
-            .newSingleThreadExecutor(new DaemonThreadFactory("AsyncLogger-"));
-
     static {
-        initInfoForExecutorThread();
         LOGGER.debug("AsyncLogger.ThreadNameStrategy={}", THREAD_NAME_STRATEGY);
-        final int ringBufferSize = calculateRingBufferSize();
-
-        final WaitStrategy waitStrategy = createWaitStrategy();
-        disruptor = new Disruptor<RingBufferLogEvent>(RingBufferLogEvent.FACTORY, ringBufferSize, executor,
-                ProducerType.MULTI, waitStrategy);
-        final EventHandler<RingBufferLogEvent>[] handlers = new RingBufferLogEventHandler[] {//
-        new RingBufferLogEventHandler() };
-        disruptor.handleExceptionsWith(getExceptionHandler());
-        disruptor.handleEventsWith(handlers);
-
-        LOGGER.debug("Starting AsyncLogger disruptor with ringbuffer size {}...", disruptor.getRingBuffer()
-                .getBufferSize());
-        disruptor.start();
     }
 
-    private static int calculateRingBufferSize() {
-        int ringBufferSize = RINGBUFFER_DEFAULT_SIZE;
-        final String userPreferredRBSize = System.getProperty("AsyncLogger.RingBufferSize",
-                String.valueOf(ringBufferSize));
-        try {
-            int size = Integer.parseInt(userPreferredRBSize);
-            if (size < RINGBUFFER_MIN_SIZE) {
-                size = RINGBUFFER_MIN_SIZE;
-                LOGGER.warn("Invalid RingBufferSize {}, using minimum size {}.", userPreferredRBSize,
-                        RINGBUFFER_MIN_SIZE);
-            }
-            ringBufferSize = size;
-        } catch (final Exception ex) {
-            LOGGER.warn("Invalid RingBufferSize {}, using default size {}.", userPreferredRBSize, ringBufferSize);
-        }
-        return Util.ceilingNextPowerOfTwo(ringBufferSize);
-    }
+    private final AsyncLoggerDisruptor loggerDisruptor;
 
     /**
      * Initialize an {@code Info} object that is threadlocal to the consumer/appender thread.
@@ -156,63 +109,38 @@ public class AsyncLogger extends Logger {
      * This allows us to detect Logger.log() calls initiated from the appender thread,
      * which may cause deadlock when the RingBuffer is full. (LOG4J2-471)
      */
-    private static void initInfoForExecutorThread() {
-        executor.submit(new Runnable(){
-            @Override
-            public void run() {
-                final boolean isAppenderThread = true;
-                final Info info = new Info(new RingBufferLogEventTranslator(), //
-                        Thread.currentThread().getName(), isAppenderThread);
-                threadlocalInfo.set(info);
-            }
-        });
-    }
-
-    private static WaitStrategy createWaitStrategy() {
-        final String strategy = System.getProperty("AsyncLogger.WaitStrategy");
-        LOGGER.debug("property AsyncLogger.WaitStrategy={}", strategy);
-        if ("Sleep".equals(strategy)) {
-            LOGGER.debug("disruptor event handler uses SleepingWaitStrategy");
-            return new SleepingWaitStrategy();
-        } else if ("Yield".equals(strategy)) {
-            LOGGER.debug("disruptor event handler uses YieldingWaitStrategy");
-            return new YieldingWaitStrategy();
-        } else if ("Block".equals(strategy)) {
-            LOGGER.debug("disruptor event handler uses BlockingWaitStrategy");
-            return new BlockingWaitStrategy();
-        }
-        LOGGER.debug("disruptor event handler uses SleepingWaitStrategy");
-        return new SleepingWaitStrategy();
+    static void initInfoForExecutorThread() {
+        final boolean isAppenderThread = true;
+        final Info info = new Info(new RingBufferLogEventTranslator(), //
+                Thread.currentThread().getName(), isAppenderThread);
+        threadlocalInfo.set(info);
     }
 
-    private static ExceptionHandler getExceptionHandler() {
-        final String cls = System.getProperty("AsyncLogger.ExceptionHandler");
-        if (cls == null) {
-            LOGGER.debug("No AsyncLogger.ExceptionHandler specified");
-            return null;
-        }
-        try {
-            @SuppressWarnings("unchecked")
-            final Class<? extends ExceptionHandler> klass = (Class<? extends ExceptionHandler>) Class.forName(cls);
-            final ExceptionHandler result = klass.newInstance();
-            LOGGER.debug("AsyncLogger.ExceptionHandler=" + result);
-            return result;
-        } catch (final Exception ignored) {
-            LOGGER.debug("AsyncLogger.ExceptionHandler not set: error creating " + cls + ": ", ignored);
-            return null;
-        }
+    /**
+     * Removes the {@code Info} object of the current thread. (LOG4J2-323)
+     */
+    static void removeInfoForCurrentThread() {
+        threadlocalInfo.remove();
     }
 
     /**
      * Constructs an {@code AsyncLogger} with the specified context, name and
      * message factory.
      * 
-     * @param context context of this logger
+     * @param context context of this logger; loggers of a context that is not an
+     *            {@code AsyncLoggerContext} have no ring buffer and log synchronously
      * @param name name of this logger
      * @param messageFactory message factory of this logger
      */
     public AsyncLogger(final LoggerContext context, final String name, final MessageFactory messageFactory) {
+        this(context, name, messageFactory, context instanceof AsyncLoggerContext ? ((AsyncLoggerContext) context)
+                .getAsyncLoggerDisruptor() : new AsyncLoggerDisruptor(context.getName()));
+    }
+
+    AsyncLogger(final LoggerContext context, final String name, final MessageFactory messageFactory,
+            final AsyncLoggerDisruptor loggerDisruptor) {
         super(context, name, messageFactory);
+        this.loggerDisruptor = loggerDisruptor;
     }
 
     /**
@@ -231,12 +159,38 @@ public class AsyncLogger extends Logger {
 
     @Override
     public void log(final Marker marker, final String fqcn, final Level level, final Message data, final Throwable t) {
+        try {
+            logToRingBuffer(marker, fqcn, level, data, t);
+        } finally {
+            ReusableMessageFactory.release(data);
+        }
+    }
+
+    private void logToRingBuffer(final Marker marker, final String fqcn, final Level level, final Message data,
+            final Throwable t) {
         Info info = threadlocalInfo.get();
         if (info == null) {
             info = new Info(new RingBufferLogEventTranslator(), Thread.currentThread().getName(), false);
             threadlocalInfo.set(info);
         }
         
+        final AsyncLoggerDisruptor.Generation generation = loggerDisruptor.enterPublisher();
+        if (generation == null) {
+            // context not started yet, or already stopped: log in this thread
+            config.loggerConfig.log(getName(), marker, fqcn, level, data, t);
+            return;
+        }
+        try {
+            logToRingBuffer(generation, info, marker, fqcn, level, data, t);
+        } finally {
+            generation.exitPublisher(); // the ring buffer may now be drained and replaced
+        }
+    }
+
+    private void logToRingBuffer(final AsyncLoggerDisruptor.Generation generation, final Info info,
+            final Marker marker, final String fqcn, final Level level, final Message data, final Throwable t) {
+        final Disruptor<RingBufferLogEvent> disruptor = generation.getDisruptor();
+
         // LOG4J2-471: prevent deadlock when RingBuffer is full and object
         // being logged calls Logger.log() from its toString() method
         if (info.isAppenderThread && disruptor.getRingBuffer().remainingCapacity() == 0) {
@@ -244,8 +198,23 @@ public class AsyncLogger extends Logger {
             config.loggerConfig.log(getName(), marker, fqcn, level, data, t);
             return;
         }
+        final Message msg;
+        if (RingBufferLogEvent.isPreformatted(data)) {
+            msg = data; // the translator formats the message into the ring buffer slot
+        } else {
+            // the message is formatted in another thread: freeze the lazily formatted parameters of a
+            // ParameterizedMessage now; reusable messages that cannot format themselves into the slot must be copied
+            msg = data instanceof ReusableMessage ? ((ReusableMessage) data).memento() : data;
+            if (msg instanceof ParameterizedMessage) {
+                msg.getFormattedMessage();
+            }
+        }
+        // a message parameter that logs while the thread's translator formats the outer message gets its own
+        // translator, so that it does not overwrite and clear the outer event (LOG4J2-471)
+        final RingBufferLogEventTranslator translator = info.translator.isFormatting()
+                ? new RingBufferLogEventTranslator() : info.translator;
         final boolean includeLocation = config.loggerConfig.isIncludeLocation();
-        info.translator.setValues(this, getName(), marker, fqcn, level, data, t, //
+        translator.setValues(this, getName(), marker, fqcn, level, msg, t, //
 
                 // config properties are taken care of in the EventHandler
                 // thread in the #actualAsyncLog method
@@ -270,7 +239,28 @@ public class AsyncLogger extends Logger {
                 // CachedClock: 10% faster than system clock, smaller gaps
                 clock.currentTimeMillis());
 
-        disruptor.publishEvent(info.translator);
+        if (!disruptor.getRingBuffer().tryPublishEvent(translator)) {
+            handleRingBufferFull(generation, translator, marker, fqcn, level, msg, t);
+        }
+    }
+
+    private void handleRingBufferFull(final AsyncLoggerDisruptor.Generation generation,
+            final RingBufferLogEventTranslator translator,
+            final Marker marker, final String fqcn, final Level level, final Message msg, final Throwable t) {
+        switch (loggerDisruptor.getQueueFullPolicy().getRoute(level)) {
+        case SYNCHRONOUS:
+            config.loggerConfig.log(getName(), marker, fqcn, level, msg, t);
+            break;
+        case DISCARD:
+            loggerDisruptor.discarded();
+            break;
+        default:
+            if (!generation.publishWhenFree(translator)) {
+                // the ring buffer is being halted after the shutdown timeout: log in this thread
+                config.loggerConfig.log(getName(), marker, fqcn, level, msg, t);
+            }
+            break;
+        }
     }
 
     private StackTraceElement location(final String fqcnOfLogger) {
@@ -288,42 +278,4 @@ public class AsyncLogger extends Logger {
         event.mergePropertiesIntoContextMap(properties, config.config.getStrSubstitutor());
         config.logEvent(event);
     }
-
-    public static void stop() {
-        final Disruptor<RingBufferLogEvent> temp = disruptor;
-
-        // Must guarantee that publishing to the RingBuffer has stopped
-        // before we call disruptor.shutdown()
-        disruptor = null; // client code fails with NPE if log after stop = OK
-        if (temp == null) {
-            return; // stop() has already been called
-        }
-        temp.shutdown();
-
-        // wait up to 10 seconds for the ringbuffer to drain
-        final RingBuffer<RingBufferLogEvent> ringBuffer = temp.getRingBuffer();
-        for (int i = 0; i < MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN; i++) {
-            if (ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
-                break;
-            }
-            try {
-                // give ringbuffer some time to drain...
-                Thread.sleep(HALF_A_SECOND);
-            } catch (final InterruptedException e) {
-                // ignored
-            }
-        }
-        executor.shutdown(); // finally, kill the processor thread
-        threadlocalInfo.remove(); // LOG4J2-323
-    }
-
-    /**
-     * Creates and returns a new {@code RingBufferAdmin} that instruments the
-     * ringbuffer of the {@code AsyncLogger}.
-     * 
-     * @param contextName name of the global {@code AsyncLoggerContext}
-     */
-    public static RingBufferAdmin createRingBufferAdmin(String contextName) {
-        return RingBufferAdmin.forAsyncLogger(disruptor.getRingBuffer(), contextName);
-    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -23,6 +24,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
@@ -66,7 +68,10 @@ import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 @Plugin(name = "asyncLogger", category = "Core", printObject = true)
 public class AsyncLoggerConfig extends LoggerConfig {
 
+    private static final AppenderControl[] NO_APPENDERS = new AppenderControl[0];
+
     private AsyncLoggerConfigHelper helper;
+    private volatile AppenderLanes appenderLanes;
 
     /**
      * Default constructor.
@@ -117,6 +122,53 @@ public class AsyncLoggerConfig extends LoggerConfig {
         super.callAppenders(event);
     }
 
+    /**
+     * Called by the ring buffer handlers when appenders are dispatched in
+     * parallel. Lane zero holds the appenders that are not named in
+     * {@code parallelAppenders}; lane <i>n</i> holds the appender named by
+     * element <i>n - 1</i>, if this logger calls it.
+     *
+     * @param parallelAppenders names of the appenders that have their own lane
+     * @param lane the lane
+     * @return the controls of the appenders in the lane, never {@code null}
+     */
+    AppenderControl[] getAppenderControls(final String[] parallelAppenders, final int lane) {
+        final AppenderControl[] controls = getAppenderControls();
+        AppenderLanes lanes = appenderLanes;
+        if (lanes == null || lanes.source != controls || lanes.parallelAppenders != parallelAppenders) {
+            lanes = new AppenderLanes(controls, parallelAppenders);
+            appenderLanes = lanes;
+        }
+        return lanes.lanes[lane];
+    }
+
+    /**
+     * The appenders of this logger split by lane, cached until the appenders
+     * or the lanes change.
+     */
+    private static final class AppenderLanes {
+        private final AppenderControl[] source;
+        private final String[] parallelAppenders;
+        private final AppenderControl[][] lanes;
+
+        AppenderLanes(final AppenderControl[] source, final String[] parallelAppenders) {
+            this.source = source;
+            this.parallelAppenders = parallelAppenders;
+            this.lanes = new AppenderControl[parallelAppenders.length + 1][];
+            Arrays.fill(lanes, NO_APPENDERS);
+            final List<AppenderControl> shared = new ArrayList<AppenderControl>(source.length);
+            for (final AppenderControl control : source) {
+                final int lane = Arrays.asList(parallelAppenders).indexOf(control.getAppender().getName()) + 1;
+                if (lane == 0) {
+                    shared.add(control);
+                } else {
+                    lanes[lane] = new AppenderControl[] {control};
+                }
+            }
+            lanes[0] = shared.toArray(new AppenderControl[shared.size()]);
+        }
+    }
+
     @Override
     public void startFilter() {
         if (helper == null) {
@@ -133,6 +185,27 @@ public class AsyncLoggerConfig extends LoggerConfig {
         super.stopFilter();
     }
 
+    /**
+     * Stops this logger config, giving events still in the ring buffer until the specified deadline to be processed.
+     *
+     * @param deadline the value of {@code System.nanoTime()} after which to stop waiting, usually obtained from
+     *            {@link #getShutdownDeadline()} once for all the AsyncLoggerConfigs of a configuration
+     */
+    public void stopFilter(final long deadline) {
+        AsyncLoggerConfigHelper.release(deadline);
+        super.stopFilter();
+    }
+
+    /**
+     * Returns the time by which a configuration that starts stopping now must have stopped its AsyncLoggerConfigs,
+     * from the {@code AsyncLoggerConfig.ShutdownTimeoutMillis} system property.
+     *
+     * @return a value of {@code System.nanoTime()}
+     */
+    public static long getShutdownDeadline() {
+        return AsyncLoggerConfigHelper.shutdownDeadline();
+    }
+
     /**
      * Creates and returns a new {@code RingBufferAdmin} that instruments the
      * ringbuffer of this {@code AsyncLoggerConfig}.
@@ -16,26 +16,36 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.status.StatusLogger;
 
-import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventTranslatorTwoArg;
 import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceReportingEventHandler;
-import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.TimeoutHandler;
 import com.lmax.disruptor.WaitStrategy;
-import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import com.lmax.disruptor.util.Util;
@@ -58,11 +68,10 @@ import com.lmax.disruptor.util.Util;
  */
 class AsyncLoggerConfigHelper {
 
-    private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 20;
-    private static final int HALF_A_SECOND = 500;
     private static final int RINGBUFFER_MIN_SIZE = 128;
     private static final int RINGBUFFER_DEFAULT_SIZE = 256 * 1024;
     private static final Logger LOGGER = StatusLogger.getLogger();
+    private static final String[] NO_PARALLEL_APPENDERS = new String[0];
 
     private static ThreadFactory threadFactory = new DaemonThreadFactory(
             "AsyncLoggerConfig-");
@@ -94,13 +103,23 @@ class AsyncLoggerConfigHelper {
                 LogEvent logEvent, AsyncLoggerConfig loggerConfig) {
             ringBufferElement.event = logEvent;
             ringBufferElement.loggerConfig = loggerConfig;
+            ringBufferElement.helper = AsyncLoggerConfigHelper.this;
+            ringBufferElement.publishNanoTime = System.nanoTime();
         }
     };
 
     private final AsyncLoggerConfig asyncLoggerConfig;
+    private final AsyncQueueFullPolicy queueFullPolicy;
+    private final AtomicLong discardCount = new AtomicLong();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    // with parallel appenders each handler records the time it spent on an event
+    private final LatencyHistogram processing = new LatencyHistogram();
 
     public AsyncLoggerConfigHelper(final AsyncLoggerConfig asyncLoggerConfig) {
         this.asyncLoggerConfig = asyncLoggerConfig;
+        this.queueFullPolicy = AsyncQueueFullPolicyFactory.create(
+                System.getProperty("AsyncLoggerConfig.QueueFullPolicy"),
+                System.getProperty("AsyncLoggerConfig.DiscardThreshold"));
         claim();
     }
 
@@ -112,34 +131,71 @@ class AsyncLoggerConfigHelper {
         LOGGER.trace("AsyncLoggerConfigHelper creating new disruptor. Ref count is {}.", count);
         final int ringBufferSize = calculateRingBufferSize();
         final WaitStrategy waitStrategy = createWaitStrategy();
-        executor = Executors.newSingleThreadExecutor(threadFactory);
-        initThreadLocalForExecutorThread();
+        final String[] parallelAppenders = parseParallelAppenders(System.getProperty("AsyncLoggerConfig.ParallelAppenders"));
+
+        // each handler has its own thread; the ring buffer slot is released when all handlers have processed it
+        final EventHandler<Log4jEventWrapper>[] handlers = newHandlerArray(parallelAppenders.length + 1);
+        handlers[0] = new Log4jEventWrapperHandler(waitStrategy instanceof TimeoutBlockingWaitStrategy,
+                parallelAppenders);
+        for (int lane = 1; lane < handlers.length; lane++) {
+            handlers[lane] = new ParallelAppenderHandler(parallelAppenders, lane);
+        }
+        final EventHandler<Log4jEventWrapper>[] clearing = newHandlerArray(handlers.length > 1 ? 1 : 0);
+        if (clearing.length > 0) {
+            // no lane may clear a slot that another lane is still reading
+            clearing[0] = new ClearingHandler();
+        }
+        executor = Executors.newFixedThreadPool(handlers.length + clearing.length, threadFactory);
         disruptor = new Disruptor<Log4jEventWrapper>(FACTORY, ringBufferSize,
                 executor, ProducerType.MULTI, waitStrategy);
-        final EventHandler<Log4jEventWrapper>[] handlers = new Log4jEventWrapperHandler[] {//
-        new Log4jEventWrapperHandler() };
         final ExceptionHandler errorHandler = getExceptionHandler();
         disruptor.handleExceptionsWith(errorHandler);
-        disruptor.handleEventsWith(handlers);
+        if (clearing.length > 0) {
+            disruptor.handleEventsWith(handlers).then(clearing);
+        } else {
+            disruptor.handleEventsWith(handlers);
+        }
 
         LOGGER.debug(
-                "Starting AsyncLoggerConfig disruptor with ringbuffer size={}, waitStrategy={}, exceptionHandler={}...",
-                disruptor.getRingBuffer().getBufferSize(), waitStrategy.getClass().getSimpleName(), errorHandler);
+                "Starting AsyncLoggerConfig disruptor with ringbuffer size={}, waitStrategy={}, exceptionHandler={}, "
+                        + "parallelAppenders={}...", disruptor.getRingBuffer().getBufferSize(),
+                waitStrategy.getClass().getSimpleName(), errorHandler, parallelAppenders);
         disruptor.start();
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static EventHandler<Log4jEventWrapper>[] newHandlerArray(final int length) {
+        return new EventHandler[length];
+    }
+
+    /**
+     * Parses the comma-separated names of the appenders that are called by a
+     * ring buffer handler of their own.
+     *
+     * @param names the appender names, may be {@code null}
+     * @return the distinct names in the order given, never {@code null}
+     */
+    static String[] parseParallelAppenders(final String names) {
+        if (names == null) {
+            return NO_PARALLEL_APPENDERS;
+        }
+        final Set<String> result = new LinkedHashSet<String>();
+        for (final String name : names.split(",")) {
+            if (name.trim().length() > 0) {
+                result.add(name.trim());
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
     private static WaitStrategy createWaitStrategy() {
         final String strategy = System
                 .getProperty("AsyncLoggerConfig.WaitStrategy");
         LOGGER.debug("property AsyncLoggerConfig.WaitStrategy={}", strategy);
-        if ("Sleep".equals(strategy)) {
-            return new SleepingWaitStrategy();
-        } else if ("Yield".equals(strategy)) {
-            return new YieldingWaitStrategy();
-        } else if ("Block".equals(strategy)) {
-            return new BlockingWaitStrategy();
-        }
-        return new SleepingWaitStrategy();
+        return WaitStrategyFactory.create(strategy, System.getProperty("AsyncLoggerConfig.SpinTries"),
+                System.getProperty("AsyncLoggerConfig.YieldTries"),
+                System.getProperty("AsyncLoggerConfig.ParkNanos"),
+                System.getProperty("AsyncLoggerConfig.WaitTimeoutMillis"));
     }
 
     private static int calculateRingBufferSize() {
@@ -190,6 +246,8 @@ class AsyncLoggerConfigHelper {
     private static class Log4jEventWrapper {
         private AsyncLoggerConfig loggerConfig;
         private LogEvent event;
+        private AsyncLoggerConfigHelper helper;
+        private long publishNanoTime;
 
         /**
          * Release references held by ring buffer to allow objects to be
@@ -198,17 +256,44 @@ class AsyncLoggerConfigHelper {
         public void clear() {
             loggerConfig = null;
             event = null;
+            helper = null;
         }
     }
 
     /**
-     * EventHandler performs the work in a separate thread.
+     * EventHandler performs the work in a separate thread. It calls all
+     * appenders except those named in {@code AsyncLoggerConfig.ParallelAppenders}.
+     * With the Timeout wait strategy it flushes the appenders of the logger
+     * configs it called when the thread times out. While other handlers read
+     * the same event, it leaves the event's end-of-batch flag alone and
+     * flushes the appenders it called at the end of its own batch instead.
      */
     private static class Log4jEventWrapperHandler implements
-            SequenceReportingEventHandler<Log4jEventWrapper> {
+            SequenceReportingEventHandler<Log4jEventWrapper>, TimeoutHandler, LifecycleAware {
         private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
         private Sequence sequenceCallback;
         private int counter;
+        private final boolean flushOnTimeout;
+        private final Set<AsyncLoggerConfig> configsToFlush = new HashSet<AsyncLoggerConfig>();
+        private AsyncLoggerConfig lastConfig;
+        private final String[] parallelAppenders;
+        private final Set<Appender> appendersToFlush = new HashSet<Appender>();
+
+        public Log4jEventWrapperHandler(final boolean flushOnTimeout, final String[] parallelAppenders) {
+            this.flushOnTimeout = flushOnTimeout;
+            this.parallelAppenders = parallelAppenders;
+        }
+
+        @Override
+        public void onStart() {
+            // LOG4J2-471: lets callAppendersFromAnotherThread detect calls from this thread
+            isAppenderThread.set(Boolean.TRUE);
+        }
+
+        @Override
+        public void onShutdown() {
+            // nothing to do
+        }
 
         @Override
         public void setSequenceCallback(final Sequence sequenceCallback) {
@@ -218,9 +303,29 @@ class AsyncLoggerConfigHelper {
         @Override
         public void onEvent(final Log4jEventWrapper event, final long sequence,
                 final boolean endOfBatch) throws Exception {
-            event.event.setEndOfBatch(endOfBatch);
-            event.loggerConfig.asyncCallAppenders(event.event);
-            event.clear();
+            if (flushOnTimeout && event.loggerConfig != lastConfig) {
+                lastConfig = event.loggerConfig;
+                configsToFlush.add(lastConfig);
+            }
+            final long start = System.nanoTime();
+            event.helper.queueWait.record(start - event.publishNanoTime);
+            if (parallelAppenders.length == 0) {
+                event.event.setEndOfBatch(endOfBatch);
+                event.loggerConfig.asyncCallAppenders(event.event);
+                event.helper.processing.record(System.nanoTime() - start);
+                event.clear();
+            } else {
+                // the lanes read the same event concurrently and the clearing handler releases the slot
+                for (final AppenderControl control : event.loggerConfig.getAppenderControls(parallelAppenders, 0)) {
+                    control.callAppender(event.event);
+                    appendersToFlush.add(control.getAppender());
+                }
+                event.helper.processing.record(System.nanoTime() - start);
+                if (endOfBatch && !appendersToFlush.isEmpty()) {
+                    AppenderFlusher.flush(appendersToFlush);
+                    appendersToFlush.clear();
+                }
+            }
 
             // notify the BatchEventProcessor that the sequence has progressed.
             // Without this callback the sequence would not be progressed
@@ -230,13 +335,91 @@ class AsyncLoggerConfigHelper {
                 counter = 0;
             }
         }
+
+        @Override
+        public void onTimeout(final long sequence) throws Exception {
+            for (final AsyncLoggerConfig config : configsToFlush) {
+                AppenderFlusher.flush(config.getAppenders().values());
+            }
+            configsToFlush.clear();
+            lastConfig = null;
+        }
+    }
+
+    /**
+     * EventHandler that calls one of the appenders named in
+     * {@code AsyncLoggerConfig.ParallelAppenders} on a thread of its own, so
+     * that a slow appender does not hold back the other appenders of the same
+     * logger. No handler sets the end-of-batch flag of the shared event, so
+     * this handler flushes its appender at the end of its own batch. Like the
+     * main handler, it records the time it takes to call its appenders.
+     */
+    private static class ParallelAppenderHandler implements
+            SequenceReportingEventHandler<Log4jEventWrapper>, LifecycleAware {
+        private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
+        private final String[] parallelAppenders;
+        private final int lane;
+        private Sequence sequenceCallback;
+        private int counter;
+        private Appender appenderToFlush;
+
+        public ParallelAppenderHandler(final String[] parallelAppenders, final int lane) {
+            this.parallelAppenders = parallelAppenders;
+            this.lane = lane;
+        }
+
+        @Override
+        public void setSequenceCallback(final Sequence sequenceCallback) {
+            this.sequenceCallback = sequenceCallback;
+        }
+
+        @Override
+        public void onStart() {
+            isAppenderThread.set(Boolean.TRUE);
+        }
+
+        @Override
+        public void onShutdown() {
+            // nothing to do
+        }
+
+        @Override
+        public void onEvent(final Log4jEventWrapper event, final long sequence,
+                final boolean endOfBatch) throws Exception {
+            final long start = System.nanoTime();
+            for (final AppenderControl control : event.loggerConfig.getAppenderControls(parallelAppenders, lane)) {
+                control.callAppender(event.event);
+                appenderToFlush = control.getAppender();
+            }
+            event.helper.processing.record(System.nanoTime() - start);
+            if (endOfBatch && appenderToFlush != null) {
+                AppenderFlusher.flush(Collections.singleton(appenderToFlush));
+                appenderToFlush = null;
+            }
+            if (++counter > NOTIFY_PROGRESS_THRESHOLD) {
+                sequenceCallback.set(sequence);
+                counter = 0;
+            }
+        }
+    }
+
+    /**
+     * EventHandler that runs after the main handler and all parallel appender
+     * handlers have processed a slot, and releases the references it holds.
+     */
+    private static class ClearingHandler implements EventHandler<Log4jEventWrapper> {
+        @Override
+        public void onEvent(final Log4jEventWrapper event, final long sequence,
+                final boolean endOfBatch) throws Exception {
+            event.clear();
+        }
     }
 
     /**
      * Increases the reference count and creates and starts a new Disruptor and
      * associated thread if none currently exists.
      * 
-     * @see #release()
+     * @see #release(long)
      */
     synchronized static void claim() {
         count++;
@@ -244,13 +427,50 @@ class AsyncLoggerConfigHelper {
     }
 
     /**
-     * Decreases the reference count. If the reference count reached zero, the
-     * Disruptor and its associated thread are shut down and their references
-     * set to {@code null}.
+     * Returns the time by which a configuration that starts stopping now must have stopped its
+     * {@code AsyncLoggerConfig}s, from {@code AsyncLoggerConfig.ShutdownTimeoutMillis}.
+     *
+     * @return a value of {@code System.nanoTime()}
+     */
+    static long shutdownDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis());
+    }
+
+    private static long shutdownTimeoutMillis() {
+        return DisruptorShutdown.parseTimeoutMillis(System.getProperty("AsyncLoggerConfig.ShutdownTimeoutMillis"));
+    }
+
+    /**
+     * Decreases the reference count, giving events already published to the ring buffer up to
+     * {@code AsyncLoggerConfig.ShutdownTimeoutMillis} from now to be processed.
+     *
+     * @see #release(long)
      */
     synchronized static void release() {
+        release(shutdownDeadline());
+    }
+
+    /**
+     * Decreases the reference count. Events already published to the ring buffer are given until the specified
+     * deadline to be processed by the configuration that is being stopped. If the reference count reached zero, the
+     * Disruptor and its associated thread are then shut down and their references set to {@code null}. A
+     * configuration that stops several {@code AsyncLoggerConfig}s passes them all the same deadline, so that the
+     * timeout applies to the configuration as a whole.
+     *
+     * @param deadline the value of {@code System.nanoTime()} after which to stop waiting
+     */
+    synchronized static void release(final long deadline) {
         if (--count > 0) {
             LOGGER.trace("AsyncLoggerConfigHelper: not shutting down disruptor: ref count is {}.", count);
+            if (disruptor != null) {
+                // the stopping configuration may still have events in the shared ring buffer
+                final RingBuffer<Log4jEventWrapper> ringBuffer = disruptor.getRingBuffer();
+                final long pending = DisruptorShutdown.awaitConsumed(ringBuffer, ringBuffer.getCursor(), deadline);
+                if (pending > 0) {
+                    LOGGER.warn("AsyncLoggerConfig ring buffer still held {} events after {} ms", pending,
+                            shutdownTimeoutMillis());
+                }
+            }
             return;
         }
         final Disruptor<Log4jEventWrapper> temp = disruptor;
@@ -261,41 +481,13 @@ class AsyncLoggerConfigHelper {
         LOGGER.trace("AsyncLoggerConfigHelper: shutting down disruptor: ref count is {}.", count);
 
         // Must guarantee that publishing to the RingBuffer has stopped
-        // before we call disruptor.shutdown()
+        // before we drain and halt the disruptor
         disruptor = null; // client code fails with NPE if log after stop = OK
-        temp.shutdown();
-
-        // wait up to 10 seconds for the ringbuffer to drain
-        final RingBuffer<Log4jEventWrapper> ringBuffer = temp.getRingBuffer();
-        for (int i = 0; i < MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN; i++) {
-            if (ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
-                break;
-            }
-            try {
-                // give ringbuffer some time to drain...
-                Thread.sleep(HALF_A_SECOND);
-            } catch (final InterruptedException e) {
-                // ignored
-            }
-        }
-        executor.shutdown(); // finally, kill the processor thread
+        DisruptorShutdown.drainAndHalt(temp, executor, deadline, shutdownTimeoutMillis(),
+                "AsyncLoggerConfig ring buffer");
         executor = null; // release reference to allow GC
     }
 
-    /**
-     * Initialize the threadlocal that allows us to detect Logger.log() calls 
-     * initiated from the appender thread, which may cause deadlock when the 
-     * RingBuffer is full. (LOG4J2-471)
-     */
-    private static void initThreadLocalForExecutorThread() {
-        executor.submit(new Runnable(){
-            @Override
-            public void run() {
-                isAppenderThread.set(Boolean.TRUE);
-            }
-        });
-    }
-
     /**
      * If possible, delegates the invocation to {@code callAppenders} to another
      * thread and returns {@code true}. If this is not possible (if it detects
@@ -303,7 +495,9 @@ class AsyncLoggerConfigHelper {
      * current call to Logger.log() originated from the appender thread and the
      * ringbuffer is full) then this method does nothing and returns {@code false}.
      * It is the responsibility of the caller to process the event when this
-     * method returns {@code false}.
+     * method returns {@code false}. This method also returns {@code false} if the
+     * ringbuffer is full and the queue-full policy routes the event to the
+     * calling thread.
      * 
      * @param event the event to delegate to another thread
      * @return {@code true} if delegation was successful, {@code false} if the
@@ -319,7 +513,22 @@ class AsyncLoggerConfigHelper {
             // bypass RingBuffer and invoke Appender directly
             return false;
         }
-        disruptor.getRingBuffer().publishEvent(translator, event, asyncLoggerConfig);
+        // the ring buffer slot is read by another thread after this call returns
+        final LogEvent copy = Log4jLogEvent.snapshot(event);
+        final LogEvent logEvent = copy == null ? event : copy;
+        final RingBuffer<Log4jEventWrapper> ringBuffer = disruptor.getRingBuffer();
+        if (!ringBuffer.tryPublishEvent(translator, logEvent, asyncLoggerConfig)) {
+            switch (queueFullPolicy.getRoute(event.getLevel())) {
+            case SYNCHRONOUS:
+                return false;
+            case DISCARD:
+                discardCount.incrementAndGet();
+                break;
+            default:
+                ringBuffer.publishEvent(translator, logEvent, asyncLoggerConfig); // waits for a free slot
+                break;
+            }
+        }
         return true;
     }
 
@@ -331,7 +540,8 @@ class AsyncLoggerConfigHelper {
      * @param loggerConfigName name of the logger config
      */
     public RingBufferAdmin createRingBufferAdmin(String contextName, String loggerConfigName) {
-        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName);
+        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), discardCount, queueWait, processing,
+                contextName, loggerConfigName);
     }
 
 }
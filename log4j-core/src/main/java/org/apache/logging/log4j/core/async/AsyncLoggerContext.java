@@ -16,44 +16,86 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.net.URI;
 
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.message.MessageFactory;
 
 /**
  * {@code LoggerContext} that creates {@code AsyncLogger} objects.
+ * <p>
+ * Each context owns the ring buffer and background thread of its loggers. The
+ * ring buffer is started when the context is configured, and restarted when a
+ * new configuration changes its {@code <AsyncLoggerContext>} settings.
  */
 public class AsyncLoggerContext extends LoggerContext {
 
+    private final AsyncLoggerDisruptor loggerDisruptor = new AsyncLoggerDisruptor(getName());
+
     public AsyncLoggerContext(final String name) {
         super(name);
+        addConfigurationListener();
     }
 
     public AsyncLoggerContext(final String name, final Object externalContext) {
         super(name, externalContext);
+        addConfigurationListener();
     }
 
     public AsyncLoggerContext(final String name, final Object externalContext,
             final URI configLocn) {
         super(name, externalContext, configLocn);
+        addConfigurationListener();
     }
 
     public AsyncLoggerContext(final String name, final Object externalContext,
             final String configLocn) {
         super(name, externalContext, configLocn);
+        addConfigurationListener();
+    }
+
+    private void addConfigurationListener() {
+        addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(final PropertyChangeEvent evt) {
+                if (PROPERTY_CONFIG.equals(evt.getPropertyName())) {
+                    final Configuration config = (Configuration) evt.getNewValue();
+                    final AsyncLoggerContextConfig settings = config.getComponent(
+                            AsyncLoggerContextConfig.COMPONENT_NAME);
+                    loggerDisruptor.start(settings);
+                }
+            }
+        });
+    }
+
+    AsyncLoggerDisruptor getAsyncLoggerDisruptor() {
+        return loggerDisruptor;
+    }
+
+    /**
+     * Creates and returns a new {@code RingBufferAdmin} that instruments the
+     * ringbuffer of the {@code AsyncLogger}s of this context.
+     *
+     * @return a new {@code RingBufferAdmin}, or {@code null} if the context is not started
+     */
+    public RingBufferAdmin createRingBufferAdmin() {
+        return loggerDisruptor.createRingBufferAdmin();
     }
 
     @Override
     protected Logger newInstance(final LoggerContext ctx, final String name,
             final MessageFactory messageFactory) {
-        return new AsyncLogger(ctx, name, messageFactory);
+        return new AsyncLogger(ctx, name, messageFactory, loggerDisruptor);
     }
 
     @Override
     public void stop() {
-        AsyncLogger.stop();
+        loggerDisruptor.stop();
         super.stop();
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Settings of the ring buffer that an {@code AsyncLoggerContext} uses for its
+ * {@code AsyncLogger}s, configured with an {@code <AsyncLoggerContext>} element
+ * in the configuration file. Settings that are not specified fall back to the
+ * corresponding {@code AsyncLogger.*} system properties.
+ * <p>
+ * This class does not reference the LMAX Disruptor library, so that it can be
+ * loaded as a plugin when the Disruptor jar is not on the classpath.
+ */
+@Plugin(name = "AsyncLoggerContext", category = "Core", printObject = true)
+public final class AsyncLoggerContextConfig {
+
+    /**
+     * Name under which the settings are registered as a configuration component.
+     */
+    public static final String COMPONENT_NAME = "AsyncLoggerContextConfig";
+
+    private final String ringBufferSize;
+    private final String waitStrategy;
+    private final String exceptionHandler;
+    private final String queueFullPolicy;
+    private final String discardThreshold;
+    private final String spinTries;
+    private final String yieldTries;
+    private final String parkNanos;
+    private final String waitTimeoutMillis;
+    private final String shutdownTimeoutMillis;
+
+    private AsyncLoggerContextConfig(final String ringBufferSize, final String waitStrategy,
+            final String exceptionHandler, final String queueFullPolicy, final String discardThreshold,
+            final String spinTries, final String yieldTries, final String parkNanos,
+            final String waitTimeoutMillis, final String shutdownTimeoutMillis) {
+        this.ringBufferSize = ringBufferSize;
+        this.waitStrategy = waitStrategy;
+        this.exceptionHandler = exceptionHandler;
+        this.queueFullPolicy = queueFullPolicy;
+        this.discardThreshold = discardThreshold;
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.parkNanos = parkNanos;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Returns the number of slots in the ring buffer.
+     *
+     * @return the ring buffer size, or {@code null} to use the system property
+     */
+    public String getRingBufferSize() {
+        return ringBufferSize;
+    }
+
+    /**
+     * Returns the name of the wait strategy of the consumer thread: Adaptive, Block, Sleep, Timeout or Yield.
+     *
+     * @return the wait strategy name, or {@code null} to use the system property
+     */
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Returns the class name of the {@code com.lmax.disruptor.ExceptionHandler}.
+     *
+     * @return the exception handler class name, or {@code null} to use the system property
+     */
+    public String getExceptionHandler() {
+        return exceptionHandler;
+    }
+
+    /**
+     * Returns the name of the policy applied when the ring buffer is full.
+     *
+     * @return the queue-full policy name, or {@code null} to use the system property
+     * @see AsyncQueueFullPolicyFactory
+     */
+    public String getQueueFullPolicy() {
+        return queueFullPolicy;
+    }
+
+    /**
+     * Returns the most severe level that the {@code Discard} queue-full policy discards.
+     *
+     * @return the discard threshold level name, or {@code null} to use the system property
+     */
+    public String getDiscardThreshold() {
+        return discardThreshold;
+    }
+
+    /**
+     * Returns the number of times the Adaptive wait strategy spins before it starts yielding.
+     *
+     * @return the number of spins, or {@code null} to use the system property
+     */
+    public String getSpinTries() {
+        return spinTries;
+    }
+
+    /**
+     * Returns the number of times the Adaptive wait strategy yields before it starts parking.
+     *
+     * @return the number of yields, or {@code null} to use the system property
+     */
+    public String getYieldTries() {
+        return yieldTries;
+    }
+
+    /**
+     * Returns the longest time the Adaptive wait strategy parks before checking for events again.
+     *
+     * @return the park time in nanoseconds, or {@code null} to use the system property
+     */
+    public String getParkNanos() {
+        return parkNanos;
+    }
+
+    /**
+     * Returns the time after which the Timeout wait strategy wakes up to flush appenders.
+     *
+     * @return the timeout in milliseconds, or {@code null} to use the system property
+     */
+    public String getWaitTimeoutMillis() {
+        return waitTimeoutMillis;
+    }
+
+    /**
+     * Returns the longest time that stopping the context waits for the ring buffer to drain.
+     *
+     * @return the shutdown timeout in milliseconds, or {@code null} to use the system property
+     */
+    public String getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncLoggerContext[ringBufferSize=" + ringBufferSize + ", waitStrategy=" + waitStrategy
+                + ", exceptionHandler=" + exceptionHandler + ", queueFullPolicy=" + queueFullPolicy
+                + ", discardThreshold=" + discardThreshold + ", spinTries=" + spinTries + ", yieldTries="
+                + yieldTries + ", parkNanos=" + parkNanos + ", waitTimeoutMillis=" + waitTimeoutMillis
+                + ", shutdownTimeoutMillis=" + shutdownTimeoutMillis + "]";
+    }
+
+    /**
+     * Creates the ring buffer settings of the AsyncLoggerContext.
+     *
+     * @param ringBufferSize number of slots in the ring buffer, rounded up to the next power of two
+     * @param waitStrategy strategy of the consumer thread waiting for events: Adaptive, Block, Sleep, Timeout or
+     *            Yield
+     * @param exceptionHandler class name of a {@code com.lmax.disruptor.ExceptionHandler}
+     * @param queueFullPolicy policy when the ring buffer is full: Block, Synchronous, Discard or a class name
+     * @param discardThreshold most severe level discarded by the Discard policy
+     * @param spinTries number of times the Adaptive wait strategy spins before yielding
+     * @param yieldTries number of times the Adaptive wait strategy yields before parking
+     * @param parkNanos longest time in nanoseconds that the Adaptive wait strategy parks
+     * @param waitTimeoutMillis time in milliseconds after which the Timeout wait strategy flushes appenders
+     * @param shutdownTimeoutMillis longest time in milliseconds to wait for the ring buffer to drain on shutdown
+     * @return the settings
+     */
+    @PluginFactory
+    public static AsyncLoggerContextConfig createAsyncLoggerContextConfig(
+            @PluginAttribute("ringBufferSize") final String ringBufferSize,
+            @PluginAttribute("waitStrategy") final String waitStrategy,
+            @PluginAttribute("exceptionHandler") final String exceptionHandler,
+            @PluginAttribute("queueFullPolicy") final String queueFullPolicy,
+            @PluginAttribute("discardThreshold") final String discardThreshold,
+            @PluginAttribute("spinTries") final String spinTries,
+            @PluginAttribute("yieldTries") final String yieldTries,
+            @PluginAttribute("parkNanos") final String parkNanos,
+            @PluginAttribute("waitTimeoutMillis") final String waitTimeoutMillis,
+            @PluginAttribute("shutdownTimeoutMillis") final String shutdownTimeoutMillis) {
+        return new AsyncLoggerContextConfig(ringBufferSize, waitStrategy, exceptionHandler, queueFullPolicy,
+                discardThreshold, spinTries, yieldTries, parkNanos, waitTimeoutMillis, shutdownTimeoutMillis);
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslator;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.Util;
+
+/**
+ * Owns the Disruptor, ring buffer and consumer thread of the {@code AsyncLogger}s of
+ * one {@code AsyncLoggerContext}.
+ * <p>
+ * The ring buffer is created when the context is configured and replaced when a
+ * new configuration changes its settings. Settings come from the
+ * {@code <AsyncLoggerContext>} element of the configuration, with the
+ * {@code AsyncLogger.*} system properties as defaults.
+ * <p>
+ * Producers publish through a {@link Generation}, which counts the threads
+ * publishing to its ring buffer. A ring buffer that is replaced or stopped is
+ * only drained once the threads that were publishing to it have finished, so
+ * their events are processed or counted as dropped rather than lost.
+ */
+class AsyncLoggerDisruptor {
+    private static final int RINGBUFFER_MIN_SIZE = 128;
+    private static final int RINGBUFFER_DEFAULT_SIZE = 256 * 1024;
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private final String contextName;
+    private final AtomicLong discardCount = new AtomicLong();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram processing = new LatencyHistogram();
+    private volatile AsyncQueueFullPolicy queueFullPolicy = AsyncQueueFullPolicyFactory.create(null, null);
+    private volatile Generation current;
+    private volatile long shutdownTimeoutMillis = DisruptorShutdown.DEFAULT_TIMEOUT_MILLIS;
+    private ExecutorService executor;
+    private String settings;
+
+    AsyncLoggerDisruptor(final String contextName) {
+        this.contextName = contextName;
+    }
+
+    /**
+     * Returns the running Disruptor.
+     *
+     * @return the Disruptor, or {@code null} if not started or already stopped
+     */
+    Disruptor<RingBufferLogEvent> getDisruptor() {
+        final Generation temp = current;
+        return temp == null ? null : temp.disruptor;
+    }
+
+    /**
+     * Registers the calling thread as publishing to the running ring buffer. The
+     * caller must call {@link Generation#exitPublisher()} once it has published,
+     * or decided not to publish, its event.
+     *
+     * @return the running ring buffer, or {@code null} if not started or already
+     *         stopped, in which case the caller must log synchronously
+     */
+    Generation enterPublisher() {
+        Generation generation;
+        while ((generation = current) != null) {
+            generation.enter();
+            if (!generation.retired) {
+                return generation;
+            }
+            generation.exitPublisher(); // replaced in the meantime: use the new one
+        }
+        return null;
+    }
+
+    /**
+     * Returns the policy for events that are logged while the ring buffer is full.
+     *
+     * @return the queue-full policy
+     */
+    AsyncQueueFullPolicy getQueueFullPolicy() {
+        return queueFullPolicy;
+    }
+
+    /**
+     * Records that an event was discarded because the ring buffer was full.
+     */
+    void discarded() {
+        discardCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of events discarded because the ring buffer was full.
+     *
+     * @return the number of discarded events
+     */
+    long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    /**
+     * Starts the Disruptor with the specified settings. If the Disruptor is already
+     * running with different settings, a new one is started and the old one is
+     * drained and shut down after producers have switched to the new one.
+     *
+     * @param config the settings from the configuration, may be {@code null}
+     */
+    synchronized void start(final AsyncLoggerContextConfig config) {
+        final String policyName = config == null || config.getQueueFullPolicy() == null ? System
+                .getProperty("AsyncLogger.QueueFullPolicy") : config.getQueueFullPolicy();
+        final String discardThreshold = config == null || config.getDiscardThreshold() == null ? System
+                .getProperty("AsyncLogger.DiscardThreshold") : config.getDiscardThreshold();
+        queueFullPolicy = AsyncQueueFullPolicyFactory.create(policyName, discardThreshold);
+        LOGGER.debug("AsyncLogger QueueFullPolicy={}", queueFullPolicy);
+        final String shutdownTimeout = config == null || config.getShutdownTimeoutMillis() == null ? System
+                .getProperty("AsyncLogger.ShutdownTimeoutMillis") : config.getShutdownTimeoutMillis();
+        shutdownTimeoutMillis = DisruptorShutdown.parseTimeoutMillis(shutdownTimeout);
+
+        final int ringBufferSize = calculateRingBufferSize(config == null ? null : config.getRingBufferSize());
+        final String waitStrategyName = config == null || config.getWaitStrategy() == null ? System
+                .getProperty("AsyncLogger.WaitStrategy") : config.getWaitStrategy();
+        final String spinTries = config == null || config.getSpinTries() == null ? System
+                .getProperty("AsyncLogger.SpinTries") : config.getSpinTries();
+        final String yieldTries = config == null || config.getYieldTries() == null ? System
+                .getProperty("AsyncLogger.YieldTries") : config.getYieldTries();
+        final String parkNanos = config == null || config.getParkNanos() == null ? System
+                .getProperty("AsyncLogger.ParkNanos") : config.getParkNanos();
+        final String waitTimeoutMillis = config == null || config.getWaitTimeoutMillis() == null ? System
+                .getProperty("AsyncLogger.WaitTimeoutMillis") : config.getWaitTimeoutMillis();
+        final String exceptionHandlerClass = config == null || config.getExceptionHandler() == null ? System
+                .getProperty("AsyncLogger.ExceptionHandler") : config.getExceptionHandler();
+        final String newSettings = ringBufferSize + "/" + waitStrategyName + "/" + spinTries + "/" + yieldTries
+                + "/" + parkNanos + "/" + waitTimeoutMillis + "/" + exceptionHandlerClass;
+        if (current != null && newSettings.equals(settings)) {
+            LOGGER.trace("AsyncLogger disruptor for context {} already running", contextName);
+            return;
+        }
+
+        final ExecutorService newExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(
+                "AsyncLogger[" + contextName + "]-"));
+        newExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                AsyncLogger.initInfoForExecutorThread();
+            }
+        });
+        final Disruptor<RingBufferLogEvent> newDisruptor = new Disruptor<RingBufferLogEvent>(
+                RingBufferLogEvent.FACTORY, ringBufferSize, newExecutor, ProducerType.MULTI,
+                createWaitStrategy(waitStrategyName, spinTries, yieldTries, parkNanos, waitTimeoutMillis));
+        final EventHandler<RingBufferLogEvent>[] handlers = new RingBufferLogEventHandler[] {//
+        new RingBufferLogEventHandler(queueWait, processing) };
+        newDisruptor.handleExceptionsWith(createExceptionHandler(exceptionHandlerClass));
+        newDisruptor.handleEventsWith(handlers);
+
+        LOGGER.debug("Starting AsyncLogger disruptor for context {} with ringbuffer size {}...", contextName,
+                newDisruptor.getRingBuffer().getBufferSize());
+        newDisruptor.start();
+
+        final Generation old = current;
+        final ExecutorService oldExecutor = executor;
+        current = new Generation(newDisruptor);
+        executor = newExecutor;
+        settings = newSettings;
+        if (old != null) {
+            LOGGER.debug("Stopping previous AsyncLogger disruptor for context {}", contextName);
+            retire(old, oldExecutor, "Previous AsyncLogger ring buffer of context " + contextName);
+        }
+    }
+
+    /**
+     * Waits until the consumer thread has processed the events in the ring
+     * buffer, or until the shutdown timeout has elapsed, and stops it. Events
+     * logged after this method is called are logged synchronously.
+     *
+     * @return the number of events that were dropped because they were not
+     *         processed within the shutdown timeout
+     */
+    synchronized long stop() {
+        final Generation temp = current;
+        current = null;
+        if (temp == null) {
+            return 0; // stop() has already been called
+        }
+        final long dropped = retire(temp, executor, "AsyncLogger ring buffer of context " + contextName);
+        executor = null;
+        settings = null;
+        AsyncLogger.removeInfoForCurrentThread(); // LOG4J2-323
+        return dropped;
+    }
+
+    /**
+     * Creates and returns a new {@code RingBufferAdmin} that instruments the
+     * ringbuffer of this context's {@code AsyncLogger}s.
+     *
+     * @return a new {@code RingBufferAdmin}, or {@code null} if the ring buffer is not running
+     */
+    RingBufferAdmin createRingBufferAdmin() {
+        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
+        return temp == null ? null : RingBufferAdmin.forAsyncLogger(temp.getRingBuffer(), discardCount,
+                queueWait, processing, contextName);
+    }
+
+    /**
+     * Stops a ring buffer that producers can no longer obtain from {@link #enterPublisher()}: waits for the threads
+     * still publishing to it, then for its consumer to process what they published, all within the shutdown
+     * timeout. Threads still waiting for a free slot when the timeout has elapsed log their event synchronously.
+     *
+     * @return the number of events that were dropped because they were not processed within the timeout
+     */
+    private long retire(final Generation generation, final ExecutorService generationExecutor,
+            final String description) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        generation.retired = true;
+        if (!generation.awaitNoPublishers(deadline)) {
+            generation.halting = true;
+        }
+        return DisruptorShutdown.drainAndHalt(generation.disruptor, generationExecutor, deadline,
+                shutdownTimeoutMillis, description);
+    }
+
+    private static int calculateRingBufferSize(final String configuredSize) {
+        int ringBufferSize = RINGBUFFER_DEFAULT_SIZE;
+        final String userPreferredRBSize = configuredSize != null ? configuredSize : System.getProperty(
+                "AsyncLogger.RingBufferSize", String.valueOf(ringBufferSize));
+        try {
+            int size = Integer.parseInt(userPreferredRBSize.trim());
+            if (size < RINGBUFFER_MIN_SIZE) {
+                size = RINGBUFFER_MIN_SIZE;
+                LOGGER.warn("Invalid RingBufferSize {}, using minimum size {}.", userPreferredRBSize,
+                        RINGBUFFER_MIN_SIZE);
+            }
+            ringBufferSize = size;
+        } catch (final Exception ex) {
+            LOGGER.warn("Invalid RingBufferSize {}, using default size {}.", userPreferredRBSize, ringBufferSize);
+        }
+        return Util.ceilingNextPowerOfTwo(ringBufferSize);
+    }
+
+    private static WaitStrategy createWaitStrategy(final String strategy, final String spinTries,
+            final String yieldTries, final String parkNanos, final String waitTimeoutMillis) {
+        LOGGER.debug("AsyncLogger WaitStrategy={}", strategy);
+        return WaitStrategyFactory.create(strategy, spinTries, yieldTries, parkNanos, waitTimeoutMillis);
+    }
+
+    private static ExceptionHandler createExceptionHandler(final String cls) {
+        if (cls == null) {
+            LOGGER.debug("No AsyncLogger.ExceptionHandler specified");
+            return null;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            final Class<? extends ExceptionHandler> klass = (Class<? extends ExceptionHandler>) Class.forName(cls);
+            final ExceptionHandler result = klass.newInstance();
+            LOGGER.debug("AsyncLogger.ExceptionHandler=" + result);
+            return result;
+        } catch (final Exception ignored) {
+            LOGGER.debug("AsyncLogger.ExceptionHandler not set: error creating " + cls + ": ", ignored);
+            return null;
+        }
+    }
+
+    /**
+     * One ring buffer of the context, from when it is started until it is replaced or stopped, together with the
+     * count of threads publishing to it. The count is striped over cache lines, so that publishing threads rarely
+     * contend on it.
+     */
+    static final class Generation {
+        private static final int STRIPES = 16;
+        private static final int STRIPE_WIDTH = 8; // longs per cache line
+        private static final long MAX_PARK_NANOS = 1000 * 1000;
+
+        private final Disruptor<RingBufferLogEvent> disruptor;
+        private final AtomicLongArray publishers = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+        private volatile boolean retired;
+        private volatile boolean halting;
+
+        Generation(final Disruptor<RingBufferLogEvent> disruptor) {
+            this.disruptor = disruptor;
+        }
+
+        Disruptor<RingBufferLogEvent> getDisruptor() {
+            return disruptor;
+        }
+
+        private static int stripe() {
+            return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_WIDTH;
+        }
+
+        private void enter() {
+            publishers.incrementAndGet(stripe());
+        }
+
+        /**
+         * Unregisters the calling thread, which registered with {@link AsyncLoggerDisruptor#enterPublisher()}.
+         */
+        void exitPublisher() {
+            publishers.decrementAndGet(stripe());
+        }
+
+        /**
+         * Publishes the event, waiting for a free slot if the ring buffer is full.
+         *
+         * @param translator the translator that fills the slot
+         * @return {@code false} if the ring buffer is being halted and the event was not published
+         */
+        boolean publishWhenFree(final EventTranslator<RingBufferLogEvent> translator) {
+            final RingBuffer<RingBufferLogEvent> ringBuffer = disruptor.getRingBuffer();
+            while (!ringBuffer.tryPublishEvent(translator)) {
+                if (halting) {
+                    return false;
+                }
+                LockSupport.parkNanos(1); // as the ring buffer itself does while waiting for a slot
+            }
+            return true;
+        }
+
+        /**
+         * Waits until no thread is publishing to this retired ring buffer.
+         *
+         * @return {@code false} if threads were still publishing at the deadline
+         */
+        boolean awaitNoPublishers(final long deadline) {
+            long parkNanos = 1000;
+            while (publishing()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(Math.min(parkNanos, remaining));
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+            }
+            return true;
+        }
+
+        private boolean publishing() {
+            for (int i = 0; i < STRIPES * STRIPE_WIDTH; i += STRIPE_WIDTH) {
+                if (publishers.get(i) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
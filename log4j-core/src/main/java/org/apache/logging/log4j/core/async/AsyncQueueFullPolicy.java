@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Policy that decides what happens to a log event when the ring buffer of an
+ * {@code AsyncLogger} or {@code AsyncLoggerConfig} is full.
+ * <p>
+ * Implementations must be thread-safe and must have a public no-argument
+ * constructor to be configured by class name.
+ *
+ * @see AsyncQueueFullPolicyFactory
+ */
+public interface AsyncQueueFullPolicy {
+
+    /**
+     * Returns the route for an event that could not be enqueued because the queue is full.
+     *
+     * @param level the level of the event
+     * @return the route of the event, never {@code null}
+     */
+    EventRoute getRoute(Level level);
+}
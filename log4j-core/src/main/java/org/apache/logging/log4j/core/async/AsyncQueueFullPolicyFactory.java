@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.helpers.Loader;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Creates the {@link AsyncQueueFullPolicy} of an asynchronous logger from its
+ * configured name. Valid names are:
+ * <ul>
+ * <li>{@code Block} (the default): wait until the queue has space,</li>
+ * <li>{@code Synchronous}: log the event in the calling thread,</li>
+ * <li>{@code Discard}: drop events at or below the discard threshold level
+ * ({@code INFO} by default) and wait for space for more severe events,</li>
+ * <li>the fully qualified name of a class that implements {@code AsyncQueueFullPolicy}.</li>
+ * </ul>
+ */
+public final class AsyncQueueFullPolicyFactory {
+
+    /**
+     * Name of the policy that waits until the queue has space.
+     */
+    public static final String BLOCK = "Block";
+
+    /**
+     * Name of the policy that logs events in the calling thread when the queue is full.
+     */
+    public static final String SYNCHRONOUS = "Synchronous";
+
+    /**
+     * Name of the policy that discards events at or below a threshold level when the queue is full.
+     */
+    public static final String DISCARD = "Discard";
+
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private static final AsyncQueueFullPolicy BLOCKING_POLICY = new AsyncQueueFullPolicy() {
+        @Override
+        public EventRoute getRoute(final Level level) {
+            return EventRoute.ENQUEUE;
+        }
+
+        @Override
+        public String toString() {
+            return BLOCK;
+        }
+    };
+
+    private static final AsyncQueueFullPolicy SYNCHRONOUS_POLICY = new AsyncQueueFullPolicy() {
+        @Override
+        public EventRoute getRoute(final Level level) {
+            return EventRoute.SYNCHRONOUS;
+        }
+
+        @Override
+        public String toString() {
+            return SYNCHRONOUS;
+        }
+    };
+
+    private AsyncQueueFullPolicyFactory() {
+    }
+
+    /**
+     * Creates the policy with the specified name.
+     *
+     * @param policy the policy name or class name, may be {@code null}
+     * @param discardThreshold the threshold level of the {@code Discard} policy, may be {@code null}
+     * @return the policy, the {@code Block} policy if the name is {@code null} or invalid
+     */
+    public static AsyncQueueFullPolicy create(final String policy, final String discardThreshold) {
+        if (policy == null || BLOCK.equalsIgnoreCase(policy)) {
+            return BLOCKING_POLICY;
+        }
+        if (SYNCHRONOUS.equalsIgnoreCase(policy)) {
+            return SYNCHRONOUS_POLICY;
+        }
+        if (DISCARD.equalsIgnoreCase(policy)) {
+            final Level level = Level.toLevel(discardThreshold, Level.INFO);
+            return new DiscardingAsyncQueueFullPolicy(level);
+        }
+        try {
+            final Class<?> clazz = Loader.loadClass(policy);
+            if (AsyncQueueFullPolicy.class.isAssignableFrom(clazz)) {
+                return (AsyncQueueFullPolicy) clazz.newInstance();
+            }
+            LOGGER.error("{} is not an AsyncQueueFullPolicy, using {}", policy, BLOCK);
+        } catch (final Exception ex) {
+            LOGGER.error("Unable to create AsyncQueueFullPolicy " + policy + ", using " + BLOCK, ex);
+        }
+        return BLOCKING_POLICY;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Queue-full policy that discards events at or below a threshold level and
+ * waits for space in the queue for more severe events.
+ */
+public class DiscardingAsyncQueueFullPolicy implements AsyncQueueFullPolicy {
+
+    private final Level thresholdLevel;
+
+    /**
+     * Constructs a policy that discards events at or below the specified level.
+     *
+     * @param thresholdLevel the most severe level that is discarded
+     */
+    public DiscardingAsyncQueueFullPolicy(final Level thresholdLevel) {
+        this.thresholdLevel = thresholdLevel;
+    }
+
+    public Level getThresholdLevel() {
+        return thresholdLevel;
+    }
+
+    @Override
+    public EventRoute getRoute(final Level level) {
+        return thresholdLevel.isAtLeastAsSpecificAs(level) ? EventRoute.DISCARD : EventRoute.ENQUEUE;
+    }
+
+    @Override
+    public String toString() {
+        return "Discard[thresholdLevel=" + thresholdLevel + "]";
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.status.StatusLogger;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+
+/**
+ * Stops the consumer thread of a ring buffer within a deadline. Rather than
+ * polling the remaining capacity at fixed intervals, the calling thread parks
+ * for short, increasing intervals until the consumer's sequence has reached
+ * the last published event or the deadline has passed.
+ */
+final class DisruptorShutdown {
+
+    /** Default time in milliseconds to wait for the ring buffer to drain. */
+    static final long DEFAULT_TIMEOUT_MILLIS = 10 * 1000;
+
+    private static final long MIN_PARK_NANOS = 10 * 1000;
+    private static final long MAX_PARK_NANOS = 1000 * 1000;
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private DisruptorShutdown() {
+    }
+
+    /**
+     * Parses a shutdown timeout.
+     *
+     * @param value the timeout in milliseconds, may be {@code null}
+     * @return the timeout, or the default if the value is {@code null} or invalid
+     */
+    static long parseTimeoutMillis(final String value) {
+        if (value == null) {
+            return DEFAULT_TIMEOUT_MILLIS;
+        }
+        try {
+            final long result = Long.parseLong(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (final NumberFormatException ex) {
+            // fall through
+        }
+        LOGGER.warn("Invalid shutdown timeout {}, using default {} ms", value, DEFAULT_TIMEOUT_MILLIS);
+        return DEFAULT_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Waits until the consumers of the ring buffer have processed the event with the specified sequence.
+     *
+     * @param ringBuffer the ring buffer
+     * @param sequence the sequence of the event to wait for
+     * @param deadlineNanos the value of {@code System.nanoTime()} after which to stop waiting
+     * @return the number of events up to {@code sequence} that were not processed in time
+     */
+    static long awaitConsumed(final RingBuffer<?> ringBuffer, final long sequence, final long deadlineNanos) {
+        long parkNanos = MIN_PARK_NANOS;
+        long consumed;
+        while ((consumed = ringBuffer.getMinimumGatingSequence()) < sequence) {
+            final long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                return sequence - consumed;
+            }
+            LockSupport.parkNanos(Math.min(parkNanos, remaining));
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+        return 0;
+    }
+
+    /**
+     * Waits until the ring buffer is drained or the timeout has elapsed, then halts the consumer and shuts down its
+     * executor. Events still in the ring buffer at the deadline are dropped, and a warning reports their number.
+     *
+     * @param disruptor the disruptor to stop
+     * @param executor the executor running the consumer thread
+     * @param timeoutMillis the maximum time to wait in milliseconds
+     * @param description the ring buffer, for the warning
+     * @return the number of dropped events
+     */
+    static long drainAndHalt(final Disruptor<?> disruptor, final ExecutorService executor,
+            final long timeoutMillis, final String description) {
+        return drainAndHalt(disruptor, executor, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis),
+                timeoutMillis, description);
+    }
+
+    /**
+     * Waits until the ring buffer is drained or the deadline has passed, then halts the consumer and shuts down its
+     * executor. Events still in the ring buffer at the deadline are dropped, and a warning reports their number.
+     *
+     * @param disruptor the disruptor to stop
+     * @param executor the executor running the consumer thread
+     * @param deadline the value of {@code System.nanoTime()} after which to stop waiting
+     * @param timeoutMillis the timeout the deadline was computed from, for the warnings
+     * @param description the ring buffer, for the warning
+     * @return the number of dropped events
+     */
+    static long drainAndHalt(final Disruptor<?> disruptor, final ExecutorService executor, final long deadline,
+            final long timeoutMillis, final String description) {
+        final RingBuffer<?> ringBuffer = disruptor.getRingBuffer();
+        final long dropped = awaitConsumed(ringBuffer, ringBuffer.getCursor(), deadline);
+        disruptor.halt();
+        executor.shutdown();
+        try {
+            final long remaining = Math.max(0, deadline - System.nanoTime());
+            if (!executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                LOGGER.warn("{} consumer thread still busy after shutdown timeout of {} ms", description,
+                        timeoutMillis);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped > 0) {
+            LOGGER.warn("{} dropped {} events that were not logged within the shutdown timeout of {} ms",
+                    description, dropped, timeoutMillis);
+        }
+        return dropped;
+    }
+}
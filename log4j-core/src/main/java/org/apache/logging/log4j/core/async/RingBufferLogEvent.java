@@ -26,7 +26,10 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MultiformatMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StringBuilderFormattable;
 import org.apache.logging.log4j.message.TimestampMessage;
 
 import com.lmax.disruptor.EventFactory;
@@ -34,10 +37,25 @@ import com.lmax.disruptor.EventFactory;
 /**
  * When the Disruptor is started, the RingBuffer is populated with event
  * objects. These objects are then re-used during the life of the RingBuffer.
+ * <p>
+ * If system property {@code AsyncLogger.PreformatMessages} is {@code true},
+ * messages that can format themselves into a {@code StringBuilder} are
+ * formatted by the logging thread and their text is copied into a buffer owned
+ * by the event, which then serves as its own message. The event keeps no
+ * reference to the message or its parameters. Reusable messages, which would
+ * otherwise have to be copied for the background thread, are always formatted
+ * this way.
  */
-public class RingBufferLogEvent implements LogEvent {
+public class RingBufferLogEvent implements LogEvent, ReusableMessage, StringBuilderFormattable {
     private static final long serialVersionUID = 8462119088943934758L;
 
+    private static final boolean PREFORMAT_MESSAGES = Boolean.parseBoolean(System
+            .getProperty("AsyncLogger.PreformatMessages"));
+    private static final int INITIAL_MESSAGE_CAPACITY = 128;
+
+    /** Buffers that grew larger than this many characters are not kept for reuse. */
+    static final int MAX_REUSED_MESSAGE_CAPACITY = 518;
+
     /**
      * Creates the events that will be put in the RingBuffer.
      */
@@ -66,6 +84,8 @@ public class RingBufferLogEvent implements LogEvent {
     private long currentTimeMillis;
     private boolean endOfBatch;
     private boolean includeLocation;
+    private long publishNanoTime;
+    private StringBuilder messageText;
 
     public void setValues(final AsyncLogger asyncLogger,
             final String loggerName, final Marker marker, final String fqcn,
@@ -87,6 +107,65 @@ public class RingBufferLogEvent implements LogEvent {
         this.currentTimeMillis = currentTimeMillis;
     }
 
+    /**
+     * Returns whether the text of the specified message is formatted by the
+     * thread that publishes it and copied into the event. This is the case for
+     * reusable messages, so that they need not be copied, and for all messages
+     * that can format themselves if {@code AsyncLogger.PreformatMessages} is
+     * set. Messages with alternative formats or their own timestamp are passed
+     * by reference.
+     *
+     * @param msg the message to log
+     * @return {@code true} if the message text is copied into the event
+     */
+    static boolean isPreformatted(final Message msg) {
+        return (PREFORMAT_MESSAGES || msg instanceof ReusableMessage) && msg instanceof StringBuilderFormattable
+                && !(msg instanceof MultiformatMessage) && !(msg instanceof TimestampMessage);
+    }
+
+    /**
+     * Copies the text of a message that was formatted by the logging thread
+     * into this event, which then serves as its own message.
+     *
+     * @param text the formatted message
+     */
+    void setMessageText(final CharSequence text) {
+        if (messageText == null) {
+            messageText = new StringBuilder(Math.max(INITIAL_MESSAGE_CAPACITY, text.length()));
+        } else {
+            messageText.setLength(0);
+        }
+        messageText.append(text);
+        this.message = this;
+    }
+
+    /**
+     * Records when this event was published, to measure how long it waits in the ring buffer.
+     *
+     * @param nanoTime the value of {@code System.nanoTime()} when the event was published
+     */
+    void setPublishNanoTime(final long nanoTime) {
+        this.publishNanoTime = nanoTime;
+    }
+
+    /**
+     * Returns when this event was published.
+     *
+     * @return the value of {@code System.nanoTime()} when the event was published
+     */
+    long getPublishNanoTime() {
+        return publishNanoTime;
+    }
+
+    /**
+     * Returns the logger that published this event.
+     *
+     * @return the logger, or {@code null} if this slot has been cleared
+     */
+    AsyncLogger getAsyncLogger() {
+        return asyncLogger;
+    }
+
     /**
      * Event processor that reads the event from the ringbuffer can call this
      * method.
@@ -157,6 +236,54 @@ public class RingBufferLogEvent implements LogEvent {
         return message;
     }
 
+    /**
+     * Returns the message text that was formatted into this event.
+     *
+     * @return the formatted message
+     */
+    @Override
+    public String getFormattedMessage() {
+        return messageText == null ? "" : messageText.toString();
+    }
+
+    /**
+     * Returns the message text that was formatted into this event; the
+     * original pattern is not kept.
+     *
+     * @return the formatted message
+     */
+    @Override
+    public String getFormat() {
+        return getFormattedMessage();
+    }
+
+    /**
+     * Returns {@code null}: the parameters were formatted into this event.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return thrown;
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        if (messageText != null) {
+            buffer.append(messageText);
+        }
+    }
+
+    @Override
+    public Message memento() {
+        return new SimpleMessage(getFormattedMessage());
+    }
+
     @Override
     public Throwable getThrown() {
         return thrown;
@@ -239,5 +366,12 @@ public class RingBufferLogEvent implements LogEvent {
                 null, // location
                 0 // currentTimeMillis
         );
+        if (messageText != null) {
+            if (messageText.capacity() > MAX_REUSED_MESSAGE_CAPACITY) {
+                messageText = null; // do not keep a large buffer in every slot
+            } else {
+                messageText.setLength(0);
+            }
+        }
     }
 }
@@ -16,21 +16,49 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
+
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceReportingEventHandler;
+import com.lmax.disruptor.TimeoutHandler;
 
 /**
  * This event handler gets passed messages from the RingBuffer as they become
  * available. Processing of these messages is done in a separate thread,
  * controlled by the {@code Executor} passed to the {@code Disruptor}
  * constructor.
+ * <p>
+ * With the {@code Timeout} wait strategy, the handler flushes the appenders of
+ * the logger context when the consumer thread times out after events were
+ * processed.
+ * <p>
+ * The handler records how long each event waited in the ring buffer and how
+ * long it took to process it.
  */
 public class RingBufferLogEventHandler implements
-        SequenceReportingEventHandler<RingBufferLogEvent> {
+        SequenceReportingEventHandler<RingBufferLogEvent>, TimeoutHandler {
 
     private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
     private Sequence sequenceCallback;
     private int counter;
+    private AsyncLogger loggerToFlush;
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram processing;
+
+    public RingBufferLogEventHandler() {
+        this(new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    /**
+     * Constructs a handler that records latencies in the specified histograms.
+     *
+     * @param queueWait histogram of the time between publishing and processing an event
+     * @param processing histogram of the time taken to process an event
+     */
+    public RingBufferLogEventHandler(final LatencyHistogram queueWait, final LatencyHistogram processing) {
+        this.queueWait = queueWait;
+        this.processing = processing;
+    }
 
     @Override
     public void setSequenceCallback(final Sequence sequenceCallback) {
@@ -40,7 +68,13 @@ public class RingBufferLogEventHandler implements
     @Override
     public void onEvent(final RingBufferLogEvent event, final long sequence,
             final boolean endOfBatch) throws Exception {
+        if (loggerToFlush == null) {
+            loggerToFlush = event.getAsyncLogger();
+        }
+        final long start = System.nanoTime();
+        queueWait.record(start - event.getPublishNanoTime());
         event.execute(endOfBatch);
+        processing.record(System.nanoTime() - start);
         event.clear();
 
         // notify the BatchEventProcessor that the sequence has progressed.
@@ -52,4 +86,13 @@ public class RingBufferLogEventHandler implements
         }
     }
 
+    @Override
+    public void onTimeout(final long sequence) throws Exception {
+        final AsyncLogger logger = loggerToFlush;
+        if (logger != null) {
+            loggerToFlush = null;
+            AppenderFlusher.flush(logger.getContext().getConfiguration().getAppenders().values());
+        }
+    }
+
 }
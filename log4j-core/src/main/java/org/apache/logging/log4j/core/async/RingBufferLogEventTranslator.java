@@ -22,6 +22,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.ThreadContext.ContextStack;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.StringBuilderFormattable;
 
 import com.lmax.disruptor.EventTranslator;
 
@@ -46,6 +47,9 @@ public class RingBufferLogEventTranslator implements
     private String threadName;
     private StackTraceElement location;
     private long currentTimeMillis;
+    private StringBuilder messageText = new StringBuilder();
+    private boolean preformatted;
+    private boolean formatting;
 
     // @Override
     @Override
@@ -53,6 +57,10 @@ public class RingBufferLogEventTranslator implements
         event.setValues(asyncLogger, loggerName, marker, fqcn, level, message,
                 thrown, contextMap, contextStack, threadName, location,
                 currentTimeMillis);
+        if (preformatted) {
+            event.setMessageText(messageText);
+        }
+        event.setPublishNanoTime(System.nanoTime());
         clear();
     }
 
@@ -74,6 +82,21 @@ public class RingBufferLogEventTranslator implements
                 null, // location
                 0 // currentTimeMillis
         );
+        if (messageText.capacity() > RingBufferLogEvent.MAX_REUSED_MESSAGE_CAPACITY) {
+            messageText = new StringBuilder();
+        } else {
+            messageText.setLength(0);
+        }
+    }
+
+    /**
+     * Returns whether this translator is formatting a message, so that a message parameter that logs from its
+     * {@code toString()} method must not reuse this translator.
+     *
+     * @return true while {@link #setValues} formats a message into this translator
+     */
+    boolean isFormatting() {
+        return formatting;
     }
 
     public void setValues(final AsyncLogger asyncLogger, final String loggerName,
@@ -81,12 +104,25 @@ public class RingBufferLogEventTranslator implements
             final Throwable thrown, final Map<String, String> contextMap,
             final ContextStack contextStack, final String threadName,
             final StackTraceElement location, final long currentTimeMillis) {
+        // format before a ring buffer slot is claimed and before any other field is set: the message parameters
+        // may log themselves, which the caller must then do with another translator (see isFormatting())
+        final boolean format = RingBufferLogEvent.isPreformatted(message);
+        if (format) {
+            formatting = true;
+            try {
+                messageText.setLength(0);
+                ((StringBuilderFormattable) message).formatTo(messageText);
+            } finally {
+                formatting = false;
+            }
+        }
+        this.preformatted = format;
+        this.message = format ? null : message;
         this.asyncLogger = asyncLogger;
         this.loggerName = loggerName;
         this.marker = marker;
         this.fqcn = fqcn;
         this.level = level;
-        this.message = message;
         this.thrown = thrown;
         this.contextMap = contextMap;
         this.contextStack = contextStack;
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.status.StatusLogger;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+
+/**
+ * Creates the {@code WaitStrategy} of the consumer thread of a ring buffer from
+ * its configured name. Valid names are:
+ * <ul>
+ * <li>{@code Sleep} (the default): spin, yield, then sleep for the smallest possible time,</li>
+ * <li>{@code Yield}: spin, then yield,</li>
+ * <li>{@code Block}: wait on a lock until events are published,</li>
+ * <li>{@code Timeout}: like {@code Block}, but wake up after {@code waitTimeoutMillis} so that
+ * the event handler can flush appenders,</li>
+ * <li>{@code Adaptive}: spin {@code spinTries} times, yield {@code yieldTries} times, then park for
+ * up to {@code parkNanos} until a publisher wakes the thread; see {@link AdaptiveWaitStrategy}.</li>
+ * </ul>
+ */
+final class WaitStrategyFactory {
+
+    /** Default timeout of the {@code Timeout} strategy in milliseconds. */
+    static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 10;
+
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private WaitStrategyFactory() {
+    }
+
+    /**
+     * Creates a wait strategy.
+     *
+     * @param strategy the strategy name, may be {@code null}
+     * @param spinTries number of spins of the Adaptive strategy, may be {@code null}
+     * @param yieldTries number of yields of the Adaptive strategy, may be {@code null}
+     * @param parkNanos longest park time of the Adaptive strategy, may be {@code null}
+     * @param waitTimeoutMillis timeout of the Timeout strategy, may be {@code null}
+     * @return the wait strategy
+     */
+    static WaitStrategy create(final String strategy, final String spinTries, final String yieldTries,
+            final String parkNanos, final String waitTimeoutMillis) {
+        if ("Yield".equals(strategy)) {
+            LOGGER.debug("disruptor event handler uses YieldingWaitStrategy");
+            return new YieldingWaitStrategy();
+        } else if ("Block".equals(strategy)) {
+            LOGGER.debug("disruptor event handler uses BlockingWaitStrategy");
+            return new BlockingWaitStrategy();
+        } else if ("Timeout".equals(strategy)) {
+            final long timeout = parseLong(waitTimeoutMillis, DEFAULT_WAIT_TIMEOUT_MILLIS, 1);
+            LOGGER.debug("disruptor event handler uses TimeoutBlockingWaitStrategy with timeout {} ms", timeout);
+            return new TimeoutBlockingWaitStrategy(timeout, TimeUnit.MILLISECONDS);
+        } else if ("Adaptive".equals(strategy)) {
+            final AdaptiveWaitStrategy result = new AdaptiveWaitStrategy(
+                    (int) parseLong(spinTries, AdaptiveWaitStrategy.DEFAULT_SPIN_TRIES, 0),
+                    (int) parseLong(yieldTries, AdaptiveWaitStrategy.DEFAULT_YIELD_TRIES, 0),
+                    parseLong(parkNanos, AdaptiveWaitStrategy.DEFAULT_PARK_NANOS, 1));
+            LOGGER.debug("disruptor event handler uses {}", result);
+            return result;
+        } else if (strategy != null && !"Sleep".equals(strategy)) {
+            LOGGER.warn("Unknown WaitStrategy {}, using Sleep", strategy);
+        }
+        LOGGER.debug("disruptor event handler uses SleepingWaitStrategy");
+        return new SleepingWaitStrategy();
+    }
+
+    private static long parseLong(final String value, final long defaultValue, final long minimum) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final long result = Long.parseLong(value.trim());
+            if (result >= minimum && result <= Integer.MAX_VALUE) {
+                return result;
+            }
+        } catch (final NumberFormatException ex) {
+            // fall through
+        }
+        LOGGER.warn("Invalid wait strategy setting {}, using default {}", value, defaultValue);
+        return defaultValue;
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.config;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -32,7 +33,6 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
@@ -40,8 +40,10 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.core.appender.rolling.RolloverExecutor;
+import org.apache.logging.log4j.core.appender.rolling.RolloverExecutorConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
-import org.apache.logging.log4j.core.async.AsyncLoggerContextSelector;
+import org.apache.logging.log4j.core.async.AsyncLoggerContextConfig;
 import org.apache.logging.log4j.core.config.plugins.PluginAliases;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
@@ -53,16 +55,15 @@ import org.apache.logging.log4j.core.config.plugins.PluginType;
 import org.apache.logging.log4j.core.config.plugins.PluginValue;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.core.helpers.Loader;
 import org.apache.logging.log4j.core.helpers.NameUtil;
-import org.apache.logging.log4j.core.impl.Log4jContextFactory;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.MapLookup;
 import org.apache.logging.log4j.core.lookup.StrLookup;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.net.Advertiser;
-import org.apache.logging.log4j.core.selector.ContextSelector;
-import org.apache.logging.log4j.spi.LoggerContextFactory;
+import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.PropertiesUtil;
 
@@ -107,6 +108,8 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
      */
     protected boolean isShutdownHookEnabled = true;
 
+    private MessageFactory messageFactory;
+
     private String name;
 
     private ConcurrentMap<String, Appender> appenders = new ConcurrentHashMap<String, Appender>();
@@ -179,31 +182,28 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
      */
     @Override
     public void stop() {
-        
-        // LOG4J2-392 first stop AsyncLogger Disruptor thread
-        final LoggerContextFactory factory = LogManager.getFactory();
-        if (factory instanceof Log4jContextFactory) {
-            ContextSelector selector = ((Log4jContextFactory) factory).getSelector();
-            if (selector instanceof AsyncLoggerContextSelector) { // all loggers are async
-                // TODO until LOG4J2-493 is fixed we can only stop AsyncLogger once!
-                // but LoggerContext.setConfiguration will call config.stop()
-                // every time the configuration changes...
-                //
-                // Uncomment the line below after LOG4J2-493 is fixed
-                //AsyncLogger.stop();
-            }
-        }
-        // similarly, first stop AsyncLoggerConfig Disruptor thread(s)
+
+        // LOG4J2-392 the AsyncLogger Disruptor thread is stopped by AsyncLoggerContext;
+        // first stop AsyncLoggerConfig Disruptor thread(s)
+        // they share one shutdown timeout rather than each waiting for all of it
         Set<LoggerConfig> alreadyStopped = new HashSet<LoggerConfig>();
+        long shutdownDeadline = 0;
         for (final LoggerConfig logger : loggers.values()) {
             if (logger instanceof AsyncLoggerConfig) {
+                if (alreadyStopped.isEmpty()) {
+                    shutdownDeadline = AsyncLoggerConfig.getShutdownDeadline();
+                }
+                // drain the ring buffer before the appenders are detached
+                ((AsyncLoggerConfig) logger).stopFilter(shutdownDeadline);
                 logger.clearAppenders();
-                logger.stopFilter();
                 alreadyStopped.add(logger);
             }
         }
         if (root instanceof AsyncLoggerConfig) {
-            root.stopFilter();
+            if (alreadyStopped.isEmpty()) {
+                shutdownDeadline = AsyncLoggerConfig.getShutdownDeadline();
+            }
+            ((AsyncLoggerConfig) root).stopFilter(shutdownDeadline);
             alreadyStopped.add(root);
         }
         
@@ -242,6 +242,38 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
         return isShutdownHookEnabled;
     }
 
+    @Override
+    public MessageFactory getMessageFactory() {
+        return messageFactory;
+    }
+
+    /**
+     * Sets the MessageFactory used by Loggers that are created without one.
+     * @param factoryClassName The fully qualified name of the MessageFactory class.
+     */
+    protected void createMessageFactory(final String factoryClassName) {
+        try {
+            final Class<?> clazz = Loader.loadClass(factoryClassName);
+            if (!MessageFactory.class.isAssignableFrom(clazz)) {
+                LOGGER.error("{} is not a MessageFactory", factoryClassName);
+                return;
+            }
+            MessageFactory factory = null;
+            try {
+                // the factories provided by Log4j are singletons
+                final Field field = clazz.getField("INSTANCE");
+                if (Modifier.isStatic(field.getModifiers()) && clazz.isInstance(field.get(null))) {
+                    factory = (MessageFactory) field.get(null);
+                }
+            } catch (final NoSuchFieldException ignored) {
+                // create a new instance below
+            }
+            messageFactory = factory != null ? factory : (MessageFactory) clazz.newInstance();
+        } catch (final Exception ex) {
+            LOGGER.error("Unable to create MessageFactory " + factoryClassName, ex);
+        }
+    }
+
     protected void setup() {
     }
 
@@ -333,6 +365,10 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
                 appenders = (ConcurrentMap<String, Appender>) child.getObject();
             } else if (child.getObject() instanceof Filter) {
                 addFilter((Filter) child.getObject());
+            } else if (child.getObject() instanceof AsyncLoggerContextConfig) {
+                addComponent(AsyncLoggerContextConfig.COMPONENT_NAME, child.getObject());
+            } else if (child.getObject() instanceof RolloverExecutorConfig) {
+                RolloverExecutor.getInstance().configure((RolloverExecutorConfig) child.getObject());
             } else if (child.getName().equalsIgnoreCase("Loggers")) {
                 final Loggers l = (Loggers) child.getObject();
                 loggers = l.getMap();
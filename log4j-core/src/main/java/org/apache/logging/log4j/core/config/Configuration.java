@@ -25,6 +25,7 @@ import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.net.Advertiser;
+import org.apache.logging.log4j.message.MessageFactory;
 
 /**
  * Interface that must be implemented to create a configuration.
@@ -89,4 +90,11 @@ public interface Configuration extends Filterable {
     Advertiser getAdvertiser();
 
     boolean isShutdownHookEnabled();
+
+    /**
+     * Returns the MessageFactory used by Loggers that are created without one while this configuration is active.
+     * Loggers that already exist keep the factory they were created with.
+     * @return the MessageFactory, or null to use the default of the Logger.
+     */
+    MessageFactory getMessageFactory();
 }
@@ -120,6 +120,8 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
                     if (interval > 0 && configFile != null) {
                         monitor = new FileConfigurationMonitor(this, configFile, listeners, interval);
                     }
+                } else if ("messageFactory".equalsIgnoreCase(entry.getKey())) {
+                    createMessageFactory(getStrSubstitutor().replace(entry.getValue()));
                 } else if ("advertiser".equalsIgnoreCase(entry.getKey())) {
                     createAdvertiser(getStrSubstitutor().replace(entry.getValue()), configSource, buffer,
                         "application/json");
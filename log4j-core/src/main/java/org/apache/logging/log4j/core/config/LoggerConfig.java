@@ -37,6 +37,7 @@ import org.apache.logging.log4j.core.helpers.Loader;
 import org.apache.logging.log4j.core.helpers.Strings;
 import org.apache.logging.log4j.core.impl.DefaultLogEventFactory;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
+import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.status.StatusLogger;
@@ -66,6 +67,7 @@ public class LoggerConfig extends AbstractFilterable {
 
     private List<AppenderRef> appenderRefs = new ArrayList<AppenderRef>();
     private final Map<String, AppenderControl> appenders = new ConcurrentHashMap<String, AppenderControl>();
+    private volatile AppenderControl[] appenderArray = new AppenderControl[0];
     private final String name;
     private LogEventFactory logEventFactory;
     private Level level;
@@ -189,6 +191,7 @@ public class LoggerConfig extends AbstractFilterable {
             final Filter filter) {
         appenders.put(appender.getName(), new AppenderControl(appender, level,
                 filter));
+        updateAppenderArray();
     }
 
     /**
@@ -198,6 +201,7 @@ public class LoggerConfig extends AbstractFilterable {
      */
     public void removeAppender(final String name) {
         final AppenderControl ctl = appenders.remove(name);
+        updateAppenderArray();
         if (ctl != null) {
             cleanupFilter(ctl);
         }
@@ -218,6 +222,16 @@ public class LoggerConfig extends AbstractFilterable {
         return map;
     }
 
+    /**
+     * Returns the controls of the Appenders this LoggerConfig calls. The returned array is replaced, not modified,
+     * when Appenders are added or removed, and must not be modified by the caller.
+     *
+     * @return the AppenderControls in the order they are called.
+     */
+    protected AppenderControl[] getAppenderControls() {
+        return appenderArray;
+    }
+
     /**
      * Removes all Appenders.
      */
@@ -230,6 +244,14 @@ public class LoggerConfig extends AbstractFilterable {
             iterator.remove();
             cleanupFilter(ctl);
         }
+        updateAppenderArray();
+    }
+
+    /**
+     * Keeps an array copy of the appenders so that logging an event does not create an iterator.
+     */
+    private synchronized void updateAppenderArray() {
+        appenderArray = appenders.values().toArray(new AppenderControl[appenders.size()]);
     }
 
     private void cleanupFilter(final AppenderControl ctl) {
@@ -364,7 +386,11 @@ public class LoggerConfig extends AbstractFilterable {
         }
         final LogEvent event = logEventFactory.createEvent(loggerName, marker,
                 fqcn, level, data, props, t);
-        log(event);
+        try {
+            log(event);
+        } finally {
+            ReusableLogEventFactory.release(event);
+        }
     }
 
     /**
@@ -421,7 +447,7 @@ public class LoggerConfig extends AbstractFilterable {
     }
 
     protected void callAppenders(final LogEvent event) {
-        for (final AppenderControl control : appenders.values()) {
+        for (final AppenderControl control : appenderArray) {
             control.callAppender(event);
         }
     }
@@ -193,6 +193,8 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
                     if (interval > 0 && configFile != null) {
                         monitor = new FileConfigurationMonitor(this, configFile, listeners, interval);
                     }
+                } else if ("messageFactory".equalsIgnoreCase(entry.getKey())) {
+                    createMessageFactory(getStrSubstitutor().replace(entry.getValue()));
                 } else if ("advertiser".equalsIgnoreCase(entry.getKey())) {
                     createAdvertiser(getStrSubstitutor().replace(entry.getValue()), configSource, buffer, "text/xml");
                 }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded array-based queue for many producer threads and a single consumer thread.
+ * Producers claim a slot with a compare-and-set on the tail counter and never take a
+ * lock; the consumer removes elements in batches with {@link #drainTo(Collection, int)}.
+ * <p>
+ * Each slot carries a sequence number that tells producers whether the slot is free
+ * and the consumer whether it has been published (D. Vyukov's bounded queue).
+ * Only one thread at a time may call the consumer methods {@link #poll()},
+ * {@link #drainTo(Collection, int)} and {@link #awaitNotEmpty(long)}.
+ *
+ * @param <E> the type of the elements
+ */
+public final class BoundedMpscQueue<E> {
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 100 * 1000;
+
+    private final int capacity;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Constructs a queue with the specified capacity. A capacity of 1 is raised to 2: with a single slot the
+     * sequence number of a published element would be the one a producer expects of a free slot.
+     *
+     * @param capacity the maximum number of elements, must be positive
+     */
+    public BoundedMpscQueue(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = Math.max(2, capacity);
+        this.elements = new AtomicReferenceArray<E>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the element if the queue is not full.
+     *
+     * @param element the element, may not be null
+     * @return true if the element was added, false if the queue is full
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long pos = tail.get();
+        for (;;) {
+            final int index = (int) (pos % capacity);
+            final long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, pos + 1); // publish; volatile write orders the read below
+                    final Thread consumer = waitingConsumer;
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the slot still holds an element the consumer has not taken
+            } else {
+                pos = tail.get(); // another producer claimed the slot
+            }
+        }
+    }
+
+    /**
+     * Adds the element, waiting for the consumer to free a slot if the queue is full.
+     *
+     * @param element the element, may not be null
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(final E element) throws InterruptedException {
+        int spins = 0;
+        while (!offer(element)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (++spins < SPINS_BEFORE_PARK) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element. Must only be called by the consumer thread.
+     *
+     * @return the oldest element, or null if the queue is empty
+     */
+    public E poll() {
+        final long pos = head;
+        final E element = take(pos);
+        if (element != null) {
+            head = pos + 1;
+        }
+        return element;
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements and adds them to the specified collection
+     * in the order they were added. Must only be called by the consumer thread.
+     *
+     * @param collection the collection to add elements to
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements removed
+     */
+    public int drainTo(final Collection<? super E> collection, final int maxElements) {
+        long pos = head;
+        int count = 0;
+        while (count < maxElements) {
+            final E element = take(pos);
+            if (element == null) {
+                break;
+            }
+            collection.add(element);
+            pos++;
+            count++;
+        }
+        if (count > 0) {
+            head = pos;
+        }
+        return count;
+    }
+
+    private E take(final long pos) {
+        final int index = (int) (pos % capacity);
+        if (sequences.get(index) != pos + 1) {
+            return null; // not published yet
+        }
+        final E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.lazySet(index, pos + capacity); // free the slot for the producer one lap ahead
+        return element;
+    }
+
+    /**
+     * Waits until the queue is not empty, the timeout expires or the consumer thread
+     * is unparked. Must only be called by the consumer thread.
+     *
+     * @param nanos the maximum time to wait in nanoseconds
+     */
+    public void awaitNotEmpty(final long nanos) {
+        waitingConsumer = Thread.currentThread();
+        if (isEmpty()) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        waitingConsumer = null;
+    }
+
+    /**
+     * Returns true if no element is ready to be taken by the consumer.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        final long pos = head;
+        return sequences.get((int) (pos % capacity)) != pos + 1;
+    }
+
+    /**
+     * Returns the approximate number of elements in the queue.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        final long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    /**
+     * Returns the capacity of the queue.
+     *
+     * @return the maximum number of elements
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the approximate number of elements that can be added without waiting.
+     *
+     * @return the remaining capacity
+     */
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+}
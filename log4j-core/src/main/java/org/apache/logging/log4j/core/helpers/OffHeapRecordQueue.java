@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Queue of byte array records for many producer threads and a single consumer thread, bounded by the number of
+ * bytes it holds rather than by the number of records. Records are copied into a direct (off-heap)
+ * {@link ByteBuffer} used as a ring, each preceded by its length.
+ * <p>
+ * If a spill file is configured, records that do not fit in the ring are appended to that file instead of being
+ * rejected. Once a record has been spilled, all following records are spilled too until the consumer has read the
+ * whole file back, so records are always consumed in the order they were added. The file is created on first use,
+ * truncated whenever it has been read back completely, and deleted by {@link #close()}.
+ * </p>
+ * <p>
+ * Only one thread at a time may call the consumer methods {@link #poll()}, {@link #drainTo(Collection, int)} and
+ * {@link #awaitNotEmpty(long)}.
+ * </p>
+ */
+public final class OffHeapRecordQueue {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+    private static final int HEADER_SIZE = 4;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final File spillFile;
+    private final byte[] header = new byte[HEADER_SIZE];
+    private final ByteBuffer spillHeader = ByteBuffer.allocate(HEADER_SIZE);
+
+    private long head;
+    private long tail;
+    private int ringCount;
+    private FileChannel spill;
+    private long spillReadPosition;
+    private long spillWritePosition;
+    private int spillCount;
+    private long spilledTotal;
+    private boolean closed;
+    private volatile int count;
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Constructs a queue.
+     *
+     * @param capacity the size of the off-heap ring in bytes, must be larger than the four byte record header
+     * @param spillFile the file to overflow to when the ring is full, or {@code null} to reject records instead
+     */
+    public OffHeapRecordQueue(final int capacity, final File spillFile) {
+        if (capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity must be larger than " + HEADER_SIZE + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Adds the record to the ring, or to the spill file if the ring is full.
+     *
+     * @param record the record, may not be null
+     * @return true if the record was added, false if the ring is full and there is no spill file, if writing the
+     *         spill file failed or if the queue was closed
+     */
+    public boolean offer(final byte[] record) {
+        if (record == null) {
+            throw new NullPointerException("record");
+        }
+        lock.lock();
+        try {
+            return add(record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the record, waiting for space in the ring if it is full and there is no spill file.
+     *
+     * @param record the record, may not be null
+     * @return true if the record was added, false if the record is larger than the ring and there is no spill file,
+     *         if writing the spill file failed or if the queue was closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean put(final byte[] record) throws InterruptedException {
+        if (record == null) {
+            throw new NullPointerException("record");
+        }
+        lock.lockInterruptibly();
+        try {
+            while (!add(record)) {
+                if (closed || spillFile != null || HEADER_SIZE + record.length > capacity) {
+                    return false;
+                }
+                notFull.await();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean add(final byte[] record) {
+        if (closed) {
+            return false;
+        }
+        if (spillCount == 0 && HEADER_SIZE + record.length <= capacity - (tail - head)) {
+            writeInt(record.length);
+            write(record, record.length);
+            ringCount++;
+        } else if (spillFile == null || !spill(record)) {
+            return false;
+        }
+        count++;
+        final Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    private boolean spill(final byte[] record) {
+        try {
+            if (spill == null) {
+                final File parent = spillFile.getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+                spill = new RandomAccessFile(spillFile, "rw").getChannel();
+                spill.truncate(0);
+            }
+            spillHeader.clear();
+            spillHeader.putInt(record.length).flip();
+            final ByteBuffer[] buffers = new ByteBuffer[] {spillHeader, ByteBuffer.wrap(record)};
+            spill.position(spillWritePosition);
+            final long length = HEADER_SIZE + record.length;
+            long written = 0;
+            while (written < length) {
+                written += spill.write(buffers);
+            }
+            spillWritePosition += length;
+            spillCount++;
+            spilledTotal++;
+            return true;
+        } catch (final IOException ex) {
+            LOGGER.error("Unable to write to spill file {}: {}", spillFile, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Removes the oldest record.
+     *
+     * @return the record or null if the queue is empty
+     */
+    public byte[] poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to {@code maxRecords} records in the order they were added and adds them to the collection.
+     *
+     * @param collection the collection to add the records to
+     * @param maxRecords the maximum number of records to remove
+     * @return the number of records removed
+     */
+    public int drainTo(final Collection<? super byte[]> collection, final int maxRecords) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxRecords && count > 0) {
+                final byte[] record = remove();
+                if (record == null) {
+                    break;
+                }
+                collection.add(record);
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] remove() {
+        if (ringCount > 0) {
+            read(header, HEADER_SIZE);
+            final byte[] record = new byte[toInt(header)];
+            read(record, record.length);
+            ringCount--;
+            count--;
+            notFull.signalAll();
+            return record;
+        }
+        return spillCount > 0 ? unspill() : null;
+    }
+
+    private byte[] unspill() {
+        try {
+            spillHeader.clear();
+            readFully(spillHeader, spillReadPosition);
+            final ByteBuffer record = ByteBuffer.allocate(spillHeader.getInt(0));
+            readFully(record, spillReadPosition + HEADER_SIZE);
+            spillReadPosition += HEADER_SIZE + record.capacity();
+            spillCount--;
+            count--;
+            if (spillCount == 0) {
+                spill.truncate(0);
+                spillReadPosition = 0;
+                spillWritePosition = 0;
+            }
+            return record.array();
+        } catch (final IOException ex) {
+            LOGGER.error("Unable to read spill file {}, discarding {} records: {}", spillFile, spillCount,
+                ex.getMessage());
+            count -= spillCount;
+            spillCount = 0;
+            spillReadPosition = 0;
+            spillWritePosition = 0;
+            return null;
+        }
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (spill.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private void writeInt(final int value) {
+        header[0] = (byte) (value >>> 24);
+        header[1] = (byte) (value >>> 16);
+        header[2] = (byte) (value >>> 8);
+        header[3] = (byte) value;
+        write(header, HEADER_SIZE);
+    }
+
+    private static int toInt(final byte[] bytes) {
+        return (bytes[0] << 24) | ((bytes[1] & 0xff) << 16) | ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff);
+    }
+
+    private void write(final byte[] bytes, final int length) {
+        final int offset = (int) (tail % capacity);
+        final int first = Math.min(length, capacity - offset);
+        ring.clear();
+        ring.position(offset);
+        ring.put(bytes, 0, first);
+        if (first < length) {
+            ring.position(0);
+            ring.put(bytes, first, length - first);
+        }
+        tail += length;
+    }
+
+    private void read(final byte[] bytes, final int length) {
+        final int offset = (int) (head % capacity);
+        final int first = Math.min(length, capacity - offset);
+        ring.clear();
+        ring.position(offset);
+        ring.get(bytes, 0, first);
+        if (first < length) {
+            ring.position(0);
+            ring.get(bytes, first, length - first);
+        }
+        head += length;
+    }
+
+    /**
+     * Waits until a record is added or the specified time has elapsed. May return early.
+     *
+     * @param nanos the maximum time to wait in nanoseconds
+     */
+    public void awaitNotEmpty(final long nanos) {
+        waitingConsumer = Thread.currentThread();
+        if (count == 0) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        waitingConsumer = null;
+    }
+
+    /**
+     * Returns true if the queue holds no records.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the number of records in the ring and the spill file.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the size of the ring in bytes.
+     *
+     * @return the capacity in bytes
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of free bytes in the ring, including the space needed for record headers.
+     *
+     * @return the remaining capacity in bytes
+     */
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return (int) (capacity - (tail - head));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of records that have been written to the spill file since this queue was created.
+     *
+     * @return the number of spilled records
+     */
+    public long getSpilledCount() {
+        lock.lock();
+        try {
+            return spilledTotal;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the spill file or {@code null}.
+     *
+     * @return the spill file or {@code null}
+     */
+    public File getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Rejects further records, releases threads waiting for space, and closes and deletes the spill file. Records
+     * still in the spill file are lost, so the consumer should drain the queue first.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+            if (spill != null) {
+                Closer.closeSilent(spill);
+                spill = null;
+                if (!spillFile.delete()) {
+                    LOGGER.warn("Unable to delete spill file {}", spillFile);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
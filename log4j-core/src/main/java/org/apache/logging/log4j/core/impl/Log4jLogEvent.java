@@ -31,6 +31,8 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.message.LoggerNameAwareMessage;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
 import org.apache.logging.log4j.message.TimestampMessage;
 
 /**
@@ -89,7 +91,7 @@ public class Log4jLogEvent implements LogEvent {
                          final Message message, final List<Property> properties, final Throwable t) {
         this(loggerName, marker, fqcn, level, message, t,
             createMap(properties),
-            ThreadContext.getDepth() == 0 ? null : ThreadContext.cloneStack(), null,
+            ThreadContext.getDepth() == 0 ? null : ThreadContext.getImmutableStack(), null,
             null, System.currentTimeMillis());
     }
 
@@ -171,7 +173,7 @@ public class Log4jLogEvent implements LogEvent {
         }
     }
 
-    private static Map<String, String> createMap(final List<Property> properties) {
+    static Map<String, String> createMap(final List<Property> properties) {
         final Map<String, String> contextMap = ThreadContext.getImmutableContext();
         if (contextMap == null && (properties == null || properties.size() == 0)) {
             return null;
@@ -360,6 +362,67 @@ public class Log4jLogEvent implements LogEvent {
         return new LogEventProxy(this, this.includeLocation);
     }
 
+    /**
+     * Returns an event with the same contents as the specified event that can be kept after the log call returns or
+     * handed to another thread. Reusable events and reusable messages are copied as by
+     * {@link #createMemento(LogEvent, boolean)}, keeping the event's own {@code includeLocation}; other
+     * Log4jLogEvents are returned as they are. The parameters of a ParameterizedMessage, which are formatted
+     * lazily, are formatted now; other messages are left as they are.
+     * @param event The LogEvent, which may be reused by the caller once this method returns.
+     * @return a Log4jLogEvent that is independent of the caller, or null if the event type is not supported.
+     */
+    public static Log4jLogEvent snapshot(final LogEvent event) {
+        if (event instanceof Log4jLogEvent && !(((Log4jLogEvent) event).message instanceof ReusableMessage)) {
+            final Log4jLogEvent result = (Log4jLogEvent) event;
+            freezeParameters(result.message);
+            return result;
+        }
+        if (event instanceof Log4jLogEvent || event instanceof MutableLogEvent) {
+            return createMemento(event, event.isIncludeLocation());
+        }
+        return null;
+    }
+
+    /**
+     * Returns a new event with the contents of the specified event, for handing off to another thread in the same
+     * JVM. Unlike {@link #serialize(Log4jLogEvent, boolean)} followed by {@link #deserialize(Serializable)}, only
+     * one object is created. The thread name, and the location if requested, are determined in the calling thread,
+     * and the parameters of a ParameterizedMessage are formatted now.
+     * @param event The LogEvent, which may be reused by the caller once this method returns.
+     * @param includeLocation whether the copy should include the location of the caller.
+     * @return a new Log4jLogEvent that is independent of the caller, or null if the event type is not supported.
+     */
+    public static Log4jLogEvent createMemento(final LogEvent event, final boolean includeLocation) {
+        final Log4jLogEvent result;
+        if (event instanceof MutableLogEvent) {
+            result = ((MutableLogEvent) event).createMemento(); // already a copy
+            result.location = includeLocation ? result.getSource() : null;
+        } else if (event instanceof Log4jLogEvent) {
+            final Log4jLogEvent source = (Log4jLogEvent) event;
+            final Message msg = source.message instanceof ReusableMessage ?
+                    ((ReusableMessage) source.message).memento() : source.message;
+            result = new Log4jLogEvent(source.name, source.marker, source.fqcnOfLogger, source.level, msg,
+                    source.throwable, source.mdc, source.ndc, source.getThreadName(),
+                    includeLocation ? source.getSource() : null, source.timestamp);
+            result.setEndOfBatch(source.endOfBatch);
+        } else {
+            return null;
+        }
+        result.setIncludeLocation(includeLocation);
+        freezeParameters(result.message);
+        return result;
+    }
+
+    /**
+     * Formats the parameters of a ParameterizedMessage, so that later changes to the parameter objects do not show
+     * in the event. Other messages format as they did before parameters were formatted lazily.
+     */
+    private static void freezeParameters(final Message message) {
+        if (message instanceof ParameterizedMessage) {
+            message.getFormattedMessage();
+        }
+    }
+
     public static Serializable serialize(final Log4jLogEvent event,
             final boolean includeLocation) {
         return new LogEventProxy(event, includeLocation);
@@ -421,7 +484,8 @@ public class Log4jLogEvent implements LogEvent {
             this.marker = event.marker;
             this.level = event.level;
             this.name = event.name;
-            this.message = event.message;
+            this.message = event.message instanceof ReusableMessage ?
+                    ((ReusableMessage) event.message).memento() : event.message;
             this.timestamp = event.timestamp;
             this.throwable = event.throwable;
             this.mdc = event.mdc;
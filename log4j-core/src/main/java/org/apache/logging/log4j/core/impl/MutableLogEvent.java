@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.message.LoggerNameAwareMessage;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.TimestampMessage;
+
+/**
+ * Mutable implementation of a LogEvent that is reused by one thread for many synchronous log calls.
+ * <p>
+ * Instances are handed out by {@link ReusableLogEventFactory} and cleared once all appenders have been called.
+ * Components that keep a reference to an event after {@code Appender.append} returns, or hand it to another thread,
+ * must keep the immutable copy returned by {@link #createMemento()} instead.
+ * </p>
+ */
+public class MutableLogEvent implements LogEvent {
+
+    private static final long serialVersionUID = 6327582434052359587L;
+
+    private String threadName;
+    private String fqcnOfLogger;
+    private Marker marker;
+    private Level level;
+    private String loggerName;
+    private Message message;
+    private long timestamp;
+    private Throwable thrown;
+    private ThrowableProxy thrownProxy;
+    private Map<String, String> contextMap;
+    private ThreadContext.ContextStack contextStack;
+    private StackTraceElement location;
+    private boolean includeLocation;
+    private boolean endOfBatch = false;
+    private boolean reserved = false;
+
+    /**
+     * Populates this event for a new log call and marks it as in use.
+     * @param loggerName The name of the Logger.
+     * @param marker The Marker or null.
+     * @param fqcn The fully qualified class name of the caller.
+     * @param level The logging Level.
+     * @param message The Message.
+     * @param properties properties to add to the event.
+     * @param t A Throwable or null.
+     */
+    public void initialize(final String loggerName, final Marker marker, final String fqcn, final Level level,
+                           final Message message, final List<Property> properties, final Throwable t) {
+        this.reserved = true;
+        this.loggerName = loggerName;
+        this.marker = marker;
+        this.fqcnOfLogger = fqcn;
+        this.level = (level == null) ? Level.OFF : level; // LOG4J2-462, LOG4J2-465
+        this.message = message;
+        this.thrown = t;
+        this.thrownProxy = null;
+        this.contextMap = Log4jLogEvent.createMap(properties);
+        this.contextStack = ThreadContext.getDepth() == 0 ? null : ThreadContext.getImmutableStack();
+        this.timestamp = message instanceof TimestampMessage ? ((TimestampMessage) message).getTimestamp()
+                : System.currentTimeMillis();
+        this.threadName = null;
+        this.location = null;
+        this.includeLocation = false;
+        this.endOfBatch = false;
+        if (message instanceof LoggerNameAwareMessage) {
+            ((LoggerNameAwareMessage) message).setLoggerName(loggerName);
+        }
+    }
+
+    /**
+     * Releases all references held by this event so it can be reused.
+     */
+    public void clear() {
+        loggerName = null;
+        marker = null;
+        fqcnOfLogger = null;
+        level = null;
+        message = null;
+        thrown = null;
+        thrownProxy = null;
+        contextMap = null;
+        contextStack = null;
+        threadName = null;
+        location = null;
+        reserved = false;
+    }
+
+    /**
+     * Returns {@code true} while this event is being logged, that is between {@link #initialize} and
+     * {@link #clear()}.
+     * @return whether this event is in use.
+     */
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    /**
+     * Creates an immutable copy of this event that is safe to keep or to pass to another thread. The caller location
+     * is computed now if location is required.
+     * @return an immutable Log4jLogEvent with the same content as this event.
+     */
+    public Log4jLogEvent createMemento() {
+        final Message msg = message instanceof ReusableMessage ? ((ReusableMessage) message).memento() : message;
+        final Log4jLogEvent result = Log4jLogEvent.createEvent(loggerName, marker, fqcnOfLogger, level, msg,
+                getThrownProxy(), contextMap, contextStack, getThreadName(), includeLocation ? getSource() : null,
+                timestamp);
+        result.setIncludeLocation(includeLocation);
+        result.setEndOfBatch(endOfBatch);
+        return result;
+    }
+
+    @Override
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    @Override
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the name of the thread that logged this event. Like {@link Log4jLogEvent}, the name is read when it is
+     * first needed, so a thread that is renamed between log calls is reported under its current name.
+     * @return The name of the Thread.
+     */
+    @Override
+    public String getThreadName() {
+        if (threadName == null) {
+            threadName = Thread.currentThread().getName();
+        }
+        return threadName;
+    }
+
+    @Override
+    public long getMillis() {
+        return timestamp;
+    }
+
+    @Override
+    public Throwable getThrown() {
+        return thrown;
+    }
+
+    /**
+     * Returns the ThrowableProxy associated with the event, or null. The proxy is created on first access.
+     * @return The ThrowableProxy associated with the event.
+     */
+    public ThrowableProxy getThrownProxy() {
+        if (thrownProxy == null && thrown != null) {
+            thrownProxy = new ThrowableProxy(thrown);
+        }
+        return thrownProxy;
+    }
+
+    @Override
+    public Marker getMarker() {
+        return marker;
+    }
+
+    @Override
+    public String getFQCN() {
+        return fqcnOfLogger;
+    }
+
+    @Override
+    public Map<String, String> getContextMap() {
+        return contextMap == null ? ThreadContext.EMPTY_MAP : contextMap;
+    }
+
+    @Override
+    public ThreadContext.ContextStack getContextStack() {
+        return contextStack == null ? ThreadContext.EMPTY_STACK : contextStack;
+    }
+
+    @Override
+    public StackTraceElement getSource() {
+        if (location != null) {
+            return location;
+        }
+        if (fqcnOfLogger == null || !includeLocation) {
+            return null;
+        }
+        location = Log4jLogEvent.calcLocation(fqcnOfLogger);
+        return location;
+    }
+
+    @Override
+    public boolean isIncludeLocation() {
+        return includeLocation;
+    }
+
+    @Override
+    public void setIncludeLocation(final boolean includeLocation) {
+        this.includeLocation = includeLocation;
+    }
+
+    @Override
+    public boolean isEndOfBatch() {
+        return endOfBatch;
+    }
+
+    @Override
+    public void setEndOfBatch(final boolean endOfBatch) {
+        this.endOfBatch = endOfBatch;
+    }
+
+    /**
+     * Serializes an immutable copy, because this instance will be reused.
+     * @return a serializable copy of this event.
+     */
+    protected Object writeReplace() {
+        return Log4jLogEvent.serialize(createMemento(), includeLocation);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        final String n = loggerName == null || loggerName.isEmpty() ? "root" : loggerName;
+        sb.append("Logger=").append(n);
+        sb.append(" Level=").append(level == null ? null : level.name());
+        sb.append(" Message=").append(message == null ? null : message.getFormattedMessage());
+        return sb.toString();
+    }
+}
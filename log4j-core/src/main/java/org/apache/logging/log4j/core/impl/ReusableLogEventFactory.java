@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * Garbage-free LogEventFactory that reuses a single {@link MutableLogEvent} per thread.
+ * <p>
+ * Enable it by setting the system property {@value org.apache.logging.log4j.core.helpers.Constants#LOG4J_LOG_EVENT_FACTORY}
+ * to the name of this class. If a thread logs again while its event is still being processed (for example from an
+ * appender or from a message's {@code toString()} method), a new {@link Log4jLogEvent} is created for the nested call.
+ * </p>
+ */
+public class ReusableLogEventFactory implements LogEventFactory {
+
+    private static final ThreadLocal<MutableLogEvent> MUTABLE_LOG_EVENT = new ThreadLocal<MutableLogEvent>() {
+        @Override
+        protected MutableLogEvent initialValue() {
+            return new MutableLogEvent();
+        }
+    };
+
+    /**
+     * Returns the calling thread's MutableLogEvent populated with the specified values.
+     *
+     * @param loggerName The name of the Logger.
+     * @param marker An optional Marker.
+     * @param fqcn The fully qualified class name of the caller.
+     * @param level The event Level.
+     * @param data The Message.
+     * @param properties Properties to be added to the log event.
+     * @param t An optional Throwable.
+     * @return The LogEvent.
+     */
+    @Override
+    public LogEvent createEvent(final String loggerName, final Marker marker, final String fqcn, final Level level,
+                                final Message data, final List<Property> properties, final Throwable t) {
+        final MutableLogEvent result = MUTABLE_LOG_EVENT.get();
+        if (result.isReserved()) {
+            return new Log4jLogEvent(loggerName, marker, fqcn, level, data, properties, t);
+        }
+        result.initialize(loggerName, marker, fqcn, level, data, properties, t);
+        return result;
+    }
+
+    /**
+     * Makes the specified event available for reuse if it was created by this factory.
+     *
+     * @param event the event that has been logged.
+     */
+    public static void release(final LogEvent event) {
+        if (event instanceof MutableLogEvent) {
+            ((MutableLogEvent) event).clear();
+        }
+    }
+}
@@ -16,9 +16,12 @@
  */
 package org.apache.logging.log4j.core.jmx;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.management.ObjectName;
 
 import org.apache.logging.log4j.core.helpers.Assert;
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
 
 import com.lmax.disruptor.RingBuffer;
 
@@ -28,24 +31,32 @@ import com.lmax.disruptor.RingBuffer;
 public class RingBufferAdmin implements RingBufferAdminMBean {
 
     private final RingBuffer<?> ringBuffer;
+    private final AtomicLong discardCount;
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram processing;
     private final ObjectName objectName;
 
-    public static RingBufferAdmin forAsyncLogger(RingBuffer<?> ringBuffer, String contextName) {
+    public static RingBufferAdmin forAsyncLogger(RingBuffer<?> ringBuffer, AtomicLong discardCount,
+            LatencyHistogram queueWait, LatencyHistogram processing, String contextName) {
         final String ctxName = Server.escape(contextName);
         final String name = String.format(PATTERN_ASYNC_LOGGER, ctxName);
-        return new RingBufferAdmin(ringBuffer, name);
+        return new RingBufferAdmin(ringBuffer, discardCount, queueWait, processing, name);
     }
 
-    public static RingBufferAdmin forAsyncLoggerConfig(RingBuffer<?> ringBuffer, 
-            String contextName, String configName) {
+    public static RingBufferAdmin forAsyncLoggerConfig(RingBuffer<?> ringBuffer, AtomicLong discardCount,
+            LatencyHistogram queueWait, LatencyHistogram processing, String contextName, String configName) {
         final String ctxName = Server.escape(contextName);
         final String cfgName = Server.escape(configName);
         final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
-        return new RingBufferAdmin(ringBuffer, name);
+        return new RingBufferAdmin(ringBuffer, discardCount, queueWait, processing, name);
     }
     
-    protected RingBufferAdmin(RingBuffer<?> ringBuffer, String mbeanName) {
+    protected RingBufferAdmin(RingBuffer<?> ringBuffer, AtomicLong discardCount, LatencyHistogram queueWait,
+            LatencyHistogram processing, String mbeanName) {
         this.ringBuffer = Assert.isNotNull(ringBuffer, "ringbuffer");        
+        this.discardCount = Assert.isNotNull(discardCount, "discardCount");
+        this.queueWait = Assert.isNotNull(queueWait, "queueWait");
+        this.processing = Assert.isNotNull(processing, "processing");
         try {
             objectName = new ObjectName(mbeanName);
         } catch (final Exception e) {
@@ -63,6 +74,62 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return ringBuffer.remainingCapacity();
     }
 
+    @Override
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    @Override
+    public long getLatencyEventCount() {
+        return processing.getCount();
+    }
+
+    @Override
+    public long getQueueWaitMedianNanos() {
+        return queueWait.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getQueueWait99PercentileNanos() {
+        return queueWait.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getQueueWait999PercentileNanos() {
+        return queueWait.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getQueueWaitMaxNanos() {
+        return queueWait.getMax();
+    }
+
+    @Override
+    public long getProcessingMedianNanos() {
+        return processing.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getProcessing99PercentileNanos() {
+        return processing.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getProcessing999PercentileNanos() {
+        return processing.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getProcessingMaxNanos() {
+        return processing.getMax();
+    }
+
+    @Override
+    public void resetLatencyHistograms() {
+        queueWait.reset();
+        processing.reset();
+    }
+
     /**
      * Returns the {@code ObjectName} of this mbean.
      *
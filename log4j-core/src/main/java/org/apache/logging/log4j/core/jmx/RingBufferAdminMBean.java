@@ -23,10 +23,10 @@ package org.apache.logging.log4j.core.jmx;
 public interface RingBufferAdminMBean {
     /**
      * ObjectName pattern ({@value}) for the RingBufferAdmin MBean that instruments
-     * the global {@code AsyncLogger} ring buffer.
+     * the {@code AsyncLogger} ring buffer of an {@code AsyncLoggerContext}.
      * This pattern contains one variable: the name of the context.
      * <p>
-     * You can find the registered RingBufferAdmin MBean for the global AsyncLogger like this:
+     * You can find the registered RingBufferAdmin MBeans for the AsyncLoggers like this:
      * </p>
      * <pre>
      * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
@@ -68,4 +68,88 @@ public interface RingBufferAdminMBean {
      * @return the number of available slots in the ring buffer
      */
     long getRemainingCapacity();
+
+    /**
+     * Returns the number of events that were discarded by the queue-full policy
+     * because the ring buffer was full.
+     * 
+     * @return the number of discarded events
+     */
+    long getDiscardCount();
+
+    /**
+     * Returns the number of events processed since the latency histograms were
+     * last reset.
+     *
+     * @return the number of events in the latency histograms
+     */
+    long getLatencyEventCount();
+
+    /**
+     * Returns the median time that events waited in the ring buffer between
+     * being published and being taken by the background thread.
+     *
+     * @return the median queue wait time in nanoseconds
+     */
+    long getQueueWaitMedianNanos();
+
+    /**
+     * Returns the 99th percentile of the time that events waited in the ring
+     * buffer.
+     *
+     * @return the 99th percentile queue wait time in nanoseconds
+     */
+    long getQueueWait99PercentileNanos();
+
+    /**
+     * Returns the 99.9th percentile of the time that events waited in the ring
+     * buffer.
+     *
+     * @return the 99.9th percentile queue wait time in nanoseconds
+     */
+    long getQueueWait999PercentileNanos();
+
+    /**
+     * Returns the longest time that an event waited in the ring buffer.
+     *
+     * @return the maximum queue wait time in nanoseconds
+     */
+    long getQueueWaitMaxNanos();
+
+    /**
+     * Returns the median time that the background thread took to pass an
+     * event to the appenders.
+     *
+     * @return the median processing time in nanoseconds
+     */
+    long getProcessingMedianNanos();
+
+    /**
+     * Returns the 99th percentile of the time that the background thread took
+     * to pass an event to the appenders.
+     *
+     * @return the 99th percentile processing time in nanoseconds
+     */
+    long getProcessing99PercentileNanos();
+
+    /**
+     * Returns the 99.9th percentile of the time that the background thread
+     * took to pass an event to the appenders.
+     *
+     * @return the 99.9th percentile processing time in nanoseconds
+     */
+    long getProcessing999PercentileNanos();
+
+    /**
+     * Returns the longest time that the background thread took to pass an
+     * event to the appenders.
+     *
+     * @return the maximum processing time in nanoseconds
+     */
+    long getProcessingMaxNanos();
+
+    /**
+     * Discards the values recorded in the latency histograms.
+     */
+    void resetLatencyHistograms();
 }
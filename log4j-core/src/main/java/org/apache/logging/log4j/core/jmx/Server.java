@@ -33,7 +33,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
-import org.apache.logging.log4j.core.async.AsyncLogger;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerContext;
 import org.apache.logging.log4j.core.config.LoggerConfig;
@@ -143,8 +142,10 @@ public final class Server {
                 register(mbs, mbean, mbean.getObjectName());
 
                 if (ctx instanceof AsyncLoggerContext) {
-                    RingBufferAdmin rbmbean = AsyncLogger.createRingBufferAdmin(ctx.getName());
-                    register(mbs, rbmbean, rbmbean.getObjectName());
+                    final RingBufferAdmin rbmbean = ((AsyncLoggerContext) ctx).createRingBufferAdmin();
+                    if (rbmbean != null) {
+                        register(mbs, rbmbean, rbmbean.getObjectName());
+                    }
                 }
 
                 // register the status logger and the context selector
@@ -17,9 +17,11 @@
 package org.apache.logging.log4j.core.layout;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -73,4 +75,56 @@ public abstract class AbstractLayout<T extends Serializable> implements Layout<T
     public void setFooter(final byte[] footer) {
         this.footer = footer;
     }
+
+    /**
+     * Encodes the event into the destination. The default implementation copies the result of
+     * {@link #toByteArray(LogEvent)}; subclasses that can encode without an intermediate array should override this.
+     *
+     * @param event The Log Event.
+     * @param destination The destination to write the encoded bytes to.
+     */
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final byte[] data = toByteArray(event);
+        writeTo(data, 0, data.length, destination);
+    }
+
+    /**
+     * Encodes the event with the specified layout into the destination. Layouts that do not extend AbstractLayout
+     * only implement {@link Layout#toByteArray(LogEvent)}, so the result of that is copied instead.
+     *
+     * @param layout The Layout that formats the event.
+     * @param event The Log Event.
+     * @param destination The destination to write the encoded bytes to.
+     */
+    public static void encode(final Layout<?> layout, final LogEvent event, final ByteBufferDestination destination) {
+        if (layout instanceof AbstractLayout) {
+            ((AbstractLayout<?>) layout).encode(event, destination);
+        } else {
+            final byte[] data = layout.toByteArray(event);
+            writeTo(data, 0, data.length, destination);
+        }
+    }
+
+    /**
+     * Copies the specified bytes into the destination, draining the destination buffer as often as necessary.
+     *
+     * @param data The bytes to write.
+     * @param offset The offset into the byte array.
+     * @param length The number of bytes to write.
+     * @param destination The destination to write the bytes to.
+     */
+    protected static void writeTo(final byte[] data, int offset, int length, final ByteBufferDestination destination) {
+        synchronized (destination) {
+            ByteBuffer buffer = destination.getByteBuffer();
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    buffer = destination.drain(buffer);
+                }
+                final int chunk = Math.min(length, buffer.remaining());
+                buffer.put(data, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+    }
 }
@@ -25,15 +25,76 @@ import org.apache.logging.log4j.core.LogEvent;
  */
 public abstract class AbstractStringLayout extends AbstractLayout<String> {
 
+    /**
+     * StringBuilders larger than this are discarded instead of being kept for reuse by the current thread.
+     */
+    protected static final int MAX_STRING_BUILDER_SIZE = 2 * 1024;
+
+    private static final ThreadLocal<ReusableStringBuilder> STRING_BUILDER = new ThreadLocal<ReusableStringBuilder>() {
+        @Override
+        protected ReusableStringBuilder initialValue() {
+            return new ReusableStringBuilder();
+        }
+    };
+
     /**
      * The charset of the formatted message.
      */
     private final Charset charset;
 
+    private final ThreadLocal<StringBuilderEncoder> encoder = new ThreadLocal<StringBuilderEncoder>() {
+        @Override
+        protected StringBuilderEncoder initialValue() {
+            return new StringBuilderEncoder(charset);
+        }
+    };
+
     protected AbstractStringLayout(final Charset charset) {
         this.charset = charset;
     }
 
+    /**
+     * Returns an empty StringBuilder that is reused by the current thread. Callers must pass the result to
+     * {@link #releaseStringBuilder(StringBuilder)} once the event is formatted and must not keep a reference to it.
+     * If the thread's StringBuilder is still in use, because formatting an event logged another event, a new
+     * StringBuilder is returned so the event being formatted is not overwritten.
+     *
+     * @return an empty StringBuilder.
+     */
+    protected static StringBuilder getStringBuilder() {
+        final ReusableStringBuilder reusable = STRING_BUILDER.get();
+        if (reusable.inUse) {
+            return new StringBuilder(256);
+        }
+        reusable.inUse = true;
+        reusable.builder.setLength(0);
+        return reusable.builder;
+    }
+
+    /**
+     * Hands a StringBuilder obtained from {@link #getStringBuilder()} back for reuse by the current thread.
+     *
+     * @param builder the StringBuilder that is no longer used.
+     */
+    protected static void releaseStringBuilder(final StringBuilder builder) {
+        final ReusableStringBuilder reusable = STRING_BUILDER.get();
+        if (reusable.builder == builder) {
+            if (builder.capacity() > MAX_STRING_BUILDER_SIZE) {
+                reusable.builder = new StringBuilder(MAX_STRING_BUILDER_SIZE);
+            }
+            reusable.inUse = false;
+        }
+    }
+
+    /**
+     * Returns the encoder that converts text to bytes in this layout's charset for the current thread.
+     *
+     * @return the current thread's StringBuilderEncoder.
+     */
+    protected StringBuilderEncoder getStringBuilderEncoder() {
+        return encoder.get();
+    }
+
     /**
      * Formats the Log Event as a byte array.
      *
@@ -56,4 +117,9 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> {
     protected Charset getCharset() {
         return charset;
     }
+
+    private static class ReusableStringBuilder {
+        private StringBuilder builder = new StringBuilder(256);
+        private boolean inUse;
+    }
 }
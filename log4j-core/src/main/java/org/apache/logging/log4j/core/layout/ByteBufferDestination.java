@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A destination that a {@link org.apache.logging.log4j.core.Layout} can encode log events into without creating an
+ * intermediate byte array.
+ * <p>
+ * Callers must hold the lock on the destination object while they write into the buffer and call {@link #drain}, so
+ * that bytes from different events are not intertwined.
+ * </p>
+ */
+public interface ByteBufferDestination {
+
+    /**
+     * Returns the buffer to write to.
+     *
+     * @return the buffer to write to
+     */
+    ByteBuffer getByteBuffer();
+
+    /**
+     * Consumes the buffer content and returns a buffer with more {@linkplain ByteBuffer#remaining() available} space,
+     * which may or may not be the same instance.
+     *
+     * @param buf the buffer whose content to consume; must be the buffer previously returned by this destination
+     * @return a buffer with more available space
+     */
+    ByteBuffer drain(ByteBuffer buf);
+}
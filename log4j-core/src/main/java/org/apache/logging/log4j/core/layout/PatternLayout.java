@@ -78,7 +78,7 @@ public final class PatternLayout extends AbstractStringLayout {
     /**
      * Initial converter for pattern.
      */
-    private List<PatternFormatter> formatters;
+    private volatile PatternFormatter[] formatters;
 
     /**
      * Conversion pattern.
@@ -118,7 +118,8 @@ public final class PatternLayout extends AbstractStringLayout {
         this.alwaysWriteExceptions = alwaysWriteExceptions;
         this.noConsoleNoAnsi = noConsoleNoAnsi;
         final PatternParser parser = createPatternParser(config);
-        this.formatters = parser.parse(pattern == null ? DEFAULT_CONVERSION_PATTERN : pattern, this.alwaysWriteExceptions, this.noConsoleNoAnsi);
+        this.formatters = toArray(parser.parse(pattern == null ? DEFAULT_CONVERSION_PATTERN : pattern,
+                this.alwaysWriteExceptions, this.noConsoleNoAnsi));
     }
 
     /**
@@ -134,7 +135,11 @@ public final class PatternLayout extends AbstractStringLayout {
             return;
         }
         final PatternParser parser = createPatternParser(this.config);
-        formatters = parser.parse(pattern, this.alwaysWriteExceptions, this.noConsoleNoAnsi);
+        formatters = toArray(parser.parse(pattern, this.alwaysWriteExceptions, this.noConsoleNoAnsi));
+    }
+
+    private static PatternFormatter[] toArray(final List<PatternFormatter> list) {
+        return list.toArray(new PatternFormatter[list.size()]);
     }
 
     public String getConversionPattern() {
@@ -167,17 +172,48 @@ public final class PatternLayout extends AbstractStringLayout {
      */
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buf = new StringBuilder();
-        for (final PatternFormatter formatter : formatters) {
-            formatter.format(event, buf);
+        final StringBuilder buf = getStringBuilder();
+        String str;
+        try {
+            str = toText(event, buf).toString();
+        } finally {
+            releaseStringBuilder(buf);
         }
-        String str = buf.toString();
         if (replace != null) {
             str = replace.format(str);
         }
         return str;
     }
 
+    /**
+     * Formats the event into the destination without creating a String or byte array for the event. When a
+     * regular expression replacement is configured the String-based path is used instead.
+     *
+     * @param event logging event to be formatted.
+     * @param destination the destination to write the encoded bytes to.
+     */
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (replace != null) {
+            super.encode(event, destination);
+            return;
+        }
+        final StringBuilder buf = getStringBuilder();
+        try {
+            getStringBuilderEncoder().encode(toText(event, buf), destination);
+        } finally {
+            releaseStringBuilder(buf);
+        }
+    }
+
+    private StringBuilder toText(final LogEvent event, final StringBuilder buf) {
+        final PatternFormatter[] array = formatters;
+        for (int i = 0; i < array.length; i++) {
+            array[i].format(event, buf);
+        }
+        return buf;
+    }
+
     /**
      * Create a PatternParser.
      * @param config The Configuration.
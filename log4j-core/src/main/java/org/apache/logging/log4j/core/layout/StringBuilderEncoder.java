@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+
+/**
+ * Encodes the contents of a {@code StringBuilder} into a {@link ByteBufferDestination} with a reusable
+ * {@code CharsetEncoder}, without creating a String or byte array for each event.
+ * <p>
+ * Instances are not thread-safe; layouts keep one instance per thread.
+ * </p>
+ */
+public class StringBuilderEncoder {
+
+    /** Number of chars copied out of the StringBuilder per encoding step. */
+    static final int DEFAULT_CHAR_BUFFER_SIZE = 2048;
+
+    private final Charset charset;
+    private final CharsetEncoder charsetEncoder;
+    private final CharBuffer charBuffer;
+
+    public StringBuilderEncoder(final Charset charset) {
+        this(charset, DEFAULT_CHAR_BUFFER_SIZE);
+    }
+
+    public StringBuilderEncoder(final Charset charset, final int charBufferSize) {
+        this.charset = charset;
+        // same replacement behaviour as String.getBytes(Charset)
+        this.charsetEncoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charBuffer = CharBuffer.wrap(new char[charBufferSize]);
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Encodes the specified text into the destination.
+     *
+     * @param source The text to encode.
+     * @param destination The destination to write the encoded bytes to.
+     * @throws AppenderLoggingException if the text cannot be encoded.
+     */
+    public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        synchronized (destination) {
+            try {
+                encodeSynchronized(source, destination);
+            } catch (final CharacterCodingException ex) {
+                throw new AppenderLoggingException("Unable to encode text with charset " + charset, ex);
+            } finally {
+                charsetEncoder.reset();
+                charBuffer.clear();
+            }
+        }
+    }
+
+    private void encodeSynchronized(final StringBuilder source, final ByteBufferDestination destination)
+            throws CharacterCodingException {
+        ByteBuffer byteBuffer = destination.getByteBuffer();
+        charsetEncoder.reset();
+        charBuffer.clear();
+        int start = 0;
+        int todo = source.length();
+        do {
+            // chars left over by the previous step (half of a surrogate pair) stay at the front of the buffer
+            final int copy = Math.min(todo, charBuffer.remaining());
+            final int position = charBuffer.position();
+            source.getChars(start, start + copy, charBuffer.array(), charBuffer.arrayOffset() + position);
+            charBuffer.position(position + copy);
+            start += copy;
+            todo -= copy;
+            charBuffer.flip();
+            byteBuffer = encode(charBuffer, todo == 0, destination, byteBuffer);
+            charBuffer.compact();
+        } while (todo > 0);
+        flush(destination, byteBuffer);
+    }
+
+    private ByteBuffer encode(final CharBuffer chars, final boolean endOfInput, final ByteBufferDestination destination,
+            ByteBuffer byteBuffer) throws CharacterCodingException {
+        for (;;) {
+            final CoderResult result = charsetEncoder.encode(chars, byteBuffer, endOfInput);
+            if (result.isUnderflow()) {
+                return byteBuffer;
+            }
+            if (result.isOverflow()) {
+                byteBuffer = destination.drain(byteBuffer);
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void flush(final ByteBufferDestination destination, ByteBuffer byteBuffer)
+            throws CharacterCodingException {
+        for (;;) {
+            final CoderResult result = charsetEncoder.flush(byteBuffer);
+            if (result.isUnderflow()) {
+                return;
+            }
+            if (result.isOverflow()) {
+                byteBuffer = destination.drain(byteBuffer);
+            } else {
+                result.throwException();
+            }
+        }
+    }
+}
@@ -45,6 +45,7 @@ import org.apache.logging.log4j.core.helpers.CyclicBuffer;
 import org.apache.logging.log4j.core.helpers.NameUtil;
 import org.apache.logging.log4j.core.helpers.NetUtils;
 import org.apache.logging.log4j.core.helpers.Strings;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
@@ -71,7 +72,9 @@ public class SMTPManager extends AbstractManager {
     }
 
     public void add(final LogEvent event) {
-        buffer.add(event);
+        // the buffer outlives the append call, so reusable events must be copied
+        final LogEvent copy = Log4jLogEvent.snapshot(event);
+        buffer.add(copy == null ? event : copy);
     }
 
     public static SMTPManager getSMTPManager(final String to, final String cc, final String bcc,
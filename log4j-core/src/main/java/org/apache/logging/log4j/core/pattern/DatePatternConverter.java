@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.pattern;
 
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
 
@@ -25,29 +26,127 @@ import org.apache.logging.log4j.core.config.plugins.Plugin;
 
 /**
  * Convert and format the event's date in a StringBuilder.
+ * <p>
+ * Formatting does not lock: the text up to the second is cached in an immutable object that threads replace when the
+ * second changes, and the milliseconds are appended arithmetically. The predefined formats build that text without
+ * SimpleDateFormat; other patterns are formatted with a SimpleDateFormat per thread, and the cached text is patched
+ * with the milliseconds like log4j 1.x CachedDateFormat.
+ * </p>
  */
 @Plugin(name = "DatePatternConverter", category = "Converter")
 @ConverterKeys({ "d", "date" })
 public final class DatePatternConverter extends LogEventPatternConverter implements ArrayPatternConverter {
 
     private abstract static class Formatter {
-        abstract String format(long time);
+        abstract void formatTo(long time, StringBuilder buffer);
 
         public String toPattern() {
             return null;
         }
     }
 
-    private static class PatternFormatter extends Formatter {
+    /**
+     * Formatted text that is valid for all times within one second, or for one exact time if the millisecond field
+     * cannot be patched. The milliseconds are inserted between prefix and suffix; a null suffix means that the
+     * prefix is the complete text.
+     */
+    private static final class CachedTime {
+        private final long key;
+        private final boolean exact;
+        private final String prefix;
+        private final String suffix;
+
+        CachedTime(final long key, final boolean exact, final String prefix, final String suffix) {
+            this.key = key;
+            this.exact = exact;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
+
+    private static final class PatternFormatter extends Formatter {
+        // sample millisecond values used to locate the millisecond field, as in log4j 1.x CachedDateFormat
+        private static final int MAGIC1 = 654;
+        private static final String MAGIC_STRING1 = "654";
+        private static final int MAGIC2 = 987;
+        private static final String MAGIC_STRING2 = "987";
+        private static final String ZERO_STRING = "000";
+
         private final SimpleDateFormat simpleDateFormat;
+        private final ThreadLocal<SimpleDateFormat> threadLocalFormat;
+        private final boolean hasMillis;
+        private volatile CachedTime cachedTime;
 
-        PatternFormatter(SimpleDateFormat simpleDateFormat) {
+        PatternFormatter(final SimpleDateFormat simpleDateFormat) {
             this.simpleDateFormat = simpleDateFormat;
+            this.threadLocalFormat = new ThreadLocal<SimpleDateFormat>() {
+                @Override
+                protected SimpleDateFormat initialValue() {
+                    return (SimpleDateFormat) simpleDateFormat.clone();
+                }
+            };
+            this.hasMillis = hasMillisecondField(simpleDateFormat.toPattern());
+        }
+
+        private static boolean hasMillisecondField(final String pattern) {
+            boolean quoted = false;
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                if (c == '\'') {
+                    quoted = !quoted;
+                } else if (c == 'S' && !quoted) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         @Override
-        String format(long time) {
-            return simpleDateFormat.format(Long.valueOf(time));
+        void formatTo(final long time, final StringBuilder buffer) {
+            final long second = floorSeconds(time);
+            CachedTime cached = cachedTime;
+            if (cached != null && cached.key == (cached.exact ? time : second)) {
+                buffer.append(cached.prefix);
+                if (cached.suffix != null) {
+                    appendMillis(time - second * 1000, buffer).append(cached.suffix);
+                }
+                return;
+            }
+            final SimpleDateFormat format = threadLocalFormat.get();
+            final String text = format.format(new Date(time));
+            if (!hasMillis) {
+                cached = new CachedTime(second, false, text, null);
+            } else {
+                cached = createPatchableTime(format, second, text, time);
+            }
+            cachedTime = cached;
+            buffer.append(text);
+        }
+
+        /**
+         * Locates the millisecond field by formatting the same second with different milliseconds, and returns a
+         * per-millisecond cache entry if the field cannot be found.
+         */
+        private static CachedTime createPatchableTime(final SimpleDateFormat format, final long second,
+                                                      final String text, final long time) {
+            final long start = second * 1000;
+            final String zero = format.format(new Date(start));
+            final String magic1 = format.format(new Date(start + MAGIC1));
+            final String magic2 = format.format(new Date(start + MAGIC2));
+            if (zero.length() == magic1.length() && zero.length() == magic2.length()) {
+                for (int i = 0; i + 3 <= zero.length(); i++) {
+                    if (zero.charAt(i) != magic1.charAt(i)) {
+                        if (zero.startsWith(ZERO_STRING, i) && magic1.startsWith(MAGIC_STRING1, i)
+                                && magic2.startsWith(MAGIC_STRING2, i)
+                                && zero.regionMatches(i + 3, magic1, i + 3, zero.length() - i - 3)
+                                && zero.regionMatches(i + 3, magic2, i + 3, zero.length() - i - 3)) {
+                            return new CachedTime(second, false, zero.substring(0, i), zero.substring(i + 3));
+                        }
+                        break;
+                    }
+                }
+            }
+            return new CachedTime(time, true, text, null);
         }
 
         @Override
@@ -56,11 +155,84 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
         }
     }
 
+    /**
+     * Formats the predefined patterns, which all end with the milliseconds: the date part is cached for the day and
+     * the time of day is written from the Calendar fields once per second.
+     */
+    private static final class FixedFormatter extends Formatter {
+        private final String pattern;
+        private final String datePattern;
+        private final boolean timeSeparators;
+        private final String millisSeparator;
+        private final TimeZone timeZone;
+        private volatile CachedTime cachedTime;
+        // key is year * 1000 + day of year
+        private volatile CachedTime cachedDay;
+
+        FixedFormatter(final String pattern, final String datePattern, final boolean timeSeparators,
+                       final String millisSeparator, final TimeZone timeZone) {
+            this.pattern = pattern;
+            this.datePattern = datePattern;
+            this.timeSeparators = timeSeparators;
+            this.millisSeparator = millisSeparator;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        void formatTo(final long time, final StringBuilder buffer) {
+            final long second = floorSeconds(time);
+            CachedTime cached = cachedTime;
+            if (cached == null || cached.key != second) {
+                cached = new CachedTime(second, false, formatSecond(second * 1000), null);
+                cachedTime = cached;
+            }
+            buffer.append(cached.prefix);
+            appendMillis(time - second * 1000, buffer);
+        }
+
+        private String formatSecond(final long start) {
+            final Calendar calendar = Calendar.getInstance(timeZone);
+            calendar.setTimeInMillis(start);
+            final StringBuilder result = new StringBuilder(32);
+            if (datePattern != null) {
+                final long day = calendar.get(Calendar.YEAR) * 1000L + calendar.get(Calendar.DAY_OF_YEAR);
+                CachedTime cached = cachedDay;
+                if (cached == null || cached.key != day) {
+                    final SimpleDateFormat format = new SimpleDateFormat(datePattern);
+                    format.setTimeZone(timeZone);
+                    cached = new CachedTime(day, false, format.format(calendar.getTime()), null);
+                    cachedDay = cached;
+                }
+                result.append(cached.prefix);
+            }
+            appendTwoDigits(calendar.get(Calendar.HOUR_OF_DAY), result);
+            if (timeSeparators) {
+                result.append(':');
+            }
+            appendTwoDigits(calendar.get(Calendar.MINUTE), result);
+            if (timeSeparators) {
+                result.append(':');
+            }
+            appendTwoDigits(calendar.get(Calendar.SECOND), result);
+            result.append(millisSeparator);
+            return result.toString();
+        }
+
+        private static void appendTwoDigits(final int value, final StringBuilder buffer) {
+            buffer.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+        }
+
+        @Override
+        public String toPattern() {
+            return pattern;
+        }
+    }
+
     private static class UnixFormatter extends Formatter {
 
         @Override
-        String format(long time) {
-            return Long.toString(time / 1000);
+        void formatTo(final long time, final StringBuilder buffer) {
+            buffer.append(time / 1000);
         }
 
     }
@@ -68,12 +240,22 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
     private static class UnixMillisFormatter extends Formatter {
 
         @Override
-        String format(long time) {
-            return Long.toString(time);
+        void formatTo(final long time, final StringBuilder buffer) {
+            buffer.append(time);
         }
 
     }
 
+    private static long floorSeconds(final long time) {
+        return time >= 0 ? time / 1000 : (time - 999) / 1000;
+    }
+
+    private static StringBuilder appendMillis(final long millis, final StringBuilder buffer) {
+        final int value = (int) millis;
+        return buffer.append((char) ('0' + value / 100)).append((char) ('0' + value / 10 % 10))
+                .append((char) ('0' + value % 10));
+    }
+
     /**
      * ABSOLUTE string literal.
      */
@@ -145,15 +327,8 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
         return new DatePatternConverter(options);
     }
 
-    /**
-     * Date format.
-     */
-    private String cachedDateString;
-
     private final Formatter formatter;
 
-    private long lastTimestamp;
-
     /**
      * Private constructor.
      * 
@@ -165,20 +340,23 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
 
         // null patternOption is OK.
         final String patternOption = options != null && options.length > 0 ? options[0] : null;
+        // if the option list contains a TZ option, then use it.
+        final TimeZone timeZone = options != null && options.length > 1 ? TimeZone.getTimeZone(options[1])
+                : TimeZone.getDefault();
 
         String pattern = null;
         Formatter tempFormatter = null;
 
         if (patternOption == null || patternOption.equalsIgnoreCase(ISO8601_FORMAT)) {
-            pattern = ISO8601_PATTERN;
+            tempFormatter = new FixedFormatter(ISO8601_PATTERN, "yyyy-MM-dd ", true, ",", timeZone);
         } else if (patternOption.equalsIgnoreCase(ISO8601_BASIC_FORMAT)) {
-            pattern = ISO8601_BASIC_PATTERN;
+            tempFormatter = new FixedFormatter(ISO8601_BASIC_PATTERN, "yyyyMMdd ", false, ",", timeZone);
         } else if (patternOption.equalsIgnoreCase(ABSOLUTE_FORMAT)) {
-            pattern = ABSOLUTE_TIME_PATTERN;
+            tempFormatter = new FixedFormatter(ABSOLUTE_TIME_PATTERN, null, true, ",", timeZone);
         } else if (patternOption.equalsIgnoreCase(DATE_AND_TIME_FORMAT)) {
-            pattern = DATE_AND_TIME_PATTERN;
+            tempFormatter = new FixedFormatter(DATE_AND_TIME_PATTERN, "dd MMM yyyy ", true, ",", timeZone);
         } else if (patternOption.equalsIgnoreCase(COMPACT_FORMAT)) {
-            pattern = COMPACT_PATTERN;
+            tempFormatter = new FixedFormatter(COMPACT_PATTERN, "yyyyMMdd", false, "", timeZone);
         } else if (patternOption.equalsIgnoreCase(UNIX_FORMAT)) {
             tempFormatter = new UnixFormatter();
         } else if (patternOption.equalsIgnoreCase(UNIX_MILLIS_FORMAT)) {
@@ -198,12 +376,7 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
                 // default to the ISO8601 format
                 tempFormat = new SimpleDateFormat(ISO8601_PATTERN);
             }
-
-            // if the option list contains a TZ option, then set it.
-            if (options != null && options.length > 1) {
-                final TimeZone tz = TimeZone.getTimeZone(options[1]);
-                tempFormat.setTimeZone(tz);
-            }
+            tempFormat.setTimeZone(timeZone);
             tempFormatter = new PatternFormatter(tempFormat);
         }
         formatter = tempFormatter;
@@ -218,9 +391,7 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
      *            buffer to which formatted date is appended.
      */
     public void format(final Date date, final StringBuilder toAppendTo) {
-        synchronized (this) {
-            toAppendTo.append(formatter.format(date.getTime()));
-        }
+        formatter.formatTo(date.getTime(), toAppendTo);
     }
 
     /**
@@ -228,15 +399,7 @@ public final class DatePatternConverter extends LogEventPatternConverter impleme
      */
     @Override
     public void format(final LogEvent event, final StringBuilder output) {
-        final long timestamp = event.getMillis();
-
-        synchronized (this) {
-            if (timestamp != lastTimestamp) {
-                lastTimestamp = timestamp;
-                cachedDateString = formatter.format(timestamp);
-            }
-        }
-        output.append(cachedDateString);
+        formatter.formatTo(event.getMillis(), output);
     }
 
     /**
@@ -21,6 +21,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MultiformatMessage;
+import org.apache.logging.log4j.message.StringBuilderFormattable;
 
 /**
  * Returns the event's rendered message in a StringBuilder.
@@ -60,7 +61,15 @@ public final class MessagePatternConverter extends LogEventPatternConverter {
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
         final Message msg = event.getMessage();
-        if (msg != null) {
+        if (msg instanceof StringBuilderFormattable && !(msg instanceof MultiformatMessage)) {
+            final int offset = toAppendTo.length();
+            ((StringBuilderFormattable) msg).formatTo(toAppendTo);
+            if (config != null && containsLookup(toAppendTo, offset)) {
+                final String result = toAppendTo.substring(offset);
+                toAppendTo.setLength(offset);
+                toAppendTo.append(config.getStrSubstitutor().replace(event, result));
+            }
+        } else if (msg != null) {
             String result;
             if (msg instanceof MultiformatMessage) {
                 result = ((MultiformatMessage) msg).getFormattedMessage(formats);
@@ -75,4 +84,13 @@ public final class MessagePatternConverter extends LogEventPatternConverter {
             }
         }
     }
+
+    private static boolean containsLookup(final StringBuilder buffer, final int offset) {
+        for (int i = offset + 1; i < buffer.length(); i++) {
+            if (buffer.charAt(i) == '{' && buffer.charAt(i - 1) == '$') {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -16,16 +16,53 @@
  */
 package org.apache.logging.log4j.core.pattern;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Abstract base class for other pattern converters which can return only parts of their name.
  */
 public abstract class NamePatternConverter extends LogEventPatternConverter {
+
+    /**
+     * Maximum number of abbreviated names kept by each converter. Names seen after the cache is full are
+     * abbreviated on every call.
+     */
+    static final int MAX_CACHE_SIZE = 1000;
+
+    /**
+     * Number of counter pairs; threads are spread over them by id so that they rarely increment the same counter.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Distance between counter pairs, in longs, so that each pair sits on its own cache line.
+     */
+    private static final int STRIPE_WIDTH = 8;
+
+    private static final int HITS = 0;
+
+    private static final int MISSES = 1;
+
     /**
      * Abbreviator.
      */
     private final NameAbbreviator abbreviator;
 
+    /**
+     * Abbreviated names keyed by full name, or null if the abbreviator returns names unchanged.
+     */
+    private final ConcurrentMap<String, String> cache;
+
+    /**
+     * Cache hits and misses, one pair per stripe.
+     */
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+
+    private final AtomicBoolean cacheFullReported = new AtomicBoolean();
+
     /**
      * Constructor.
      *
@@ -41,6 +78,8 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
         } else {
             abbreviator = NameAbbreviator.getDefaultAbbreviator();
         }
+        cache = abbreviator == NameAbbreviator.getDefaultAbbreviator() ? null
+                : new ConcurrentHashMap<String, String>();
     }
 
     /**
@@ -50,6 +89,65 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
      * @return The abbreviated name.
      */
     protected final String abbreviate(final String buf) {
-        return abbreviator.abbreviate(buf);
+        if (cache == null) {
+            return abbreviator.abbreviate(buf);
+        }
+        String result = cache.get(buf);
+        final int stripe = stripe();
+        if (result != null) {
+            counters.incrementAndGet(stripe + HITS);
+            return result;
+        }
+        counters.incrementAndGet(stripe + MISSES);
+        result = abbreviator.abbreviate(buf);
+        if (cache.size() < MAX_CACHE_SIZE) {
+            cache.putIfAbsent(buf, result);
+        } else if (cacheFullReported.compareAndSet(false, true)) {
+            LOGGER.warn("{} abbreviation cache is full with {} names, cache hit rate so far is {}; further names are "
+                    + "abbreviated on every event", getName(), MAX_CACHE_SIZE, getCacheHitRate());
+        }
+        return result;
+    }
+
+    private static int stripe() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_WIDTH;
+    }
+
+    private long sum(final int counter) {
+        long sum = 0;
+        for (int i = counter; i < counters.length(); i += STRIPE_WIDTH) {
+            sum += counters.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of names that were found in the abbreviation cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getCacheHits() {
+        return sum(HITS);
+    }
+
+    /**
+     * Returns the number of names that had to be abbreviated because they were not in the abbreviation cache.
+     *
+     * @return the number of cache misses.
+     */
+    public long getCacheMisses() {
+        return sum(MISSES);
+    }
+
+    /**
+     * Returns the fraction of names that were found in the abbreviation cache. A low rate on a long running
+     * application means more distinct names are logged than the cache can hold.
+     *
+     * @return the cache hit rate between 0 and 1, or 0 if no names were abbreviated through the cache.
+     */
+    public double getCacheHitRate() {
+        final long hits = sum(HITS);
+        final long total = hits + sum(MISSES);
+        return total == 0 ? 0 : (double) hits / total;
     }
 }
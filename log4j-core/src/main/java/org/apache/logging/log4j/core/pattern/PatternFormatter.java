@@ -25,16 +25,23 @@ import org.apache.logging.log4j.core.LogEvent;
 public class PatternFormatter {
     private final LogEventPatternConverter converter;
     private final FormattingInfo field;
+    private final boolean skipFormattingInfo;
 
     public PatternFormatter(final LogEventPatternConverter converter, final FormattingInfo field) {
         this.converter = converter;
         this.field = field;
+        // without minimum or maximum length the FormattingInfo never changes the output
+        this.skipFormattingInfo = field.getMinLength() == 0 && field.getMaxLength() == Integer.MAX_VALUE;
     }
 
     public void format(final LogEvent event, final StringBuilder buf) {
-        final int startField = buf.length();
-        converter.format(event, buf);
-        field.format(startField, buf);
+        if (skipFormattingInfo) {
+            converter.format(event, buf);
+        } else {
+            final int startField = buf.length();
+            converter.format(event, buf);
+            field.format(startField, buf);
+        }
     }
 
     public LogEventPatternConverter getConverter() {
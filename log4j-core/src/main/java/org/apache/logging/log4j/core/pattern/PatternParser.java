@@ -186,7 +186,50 @@ public final class PatternParser {
             final LogEventPatternConverter pc = ExtendedThrowablePatternConverter.newInstance(null);
             list.add(new PatternFormatter(pc, FormattingInfo.getDefault()));
         }
-        return list;
+        return compile(list);
+    }
+
+    /**
+     * Merges adjacent literals into a single converter and drops empty literals, so that formatting an event makes
+     * as few calls as possible. Literals that are padded or contain a lookup are kept as they are.
+     *
+     * @param formatters the formatters in pattern order.
+     * @return the formatters that produce the same output.
+     */
+    private List<PatternFormatter> compile(final List<PatternFormatter> formatters) {
+        final List<PatternFormatter> result = new ArrayList<PatternFormatter>(formatters.size());
+        String pending = null;
+        for (final PatternFormatter formatter : formatters) {
+            final String literal = getPlainLiteral(formatter);
+            if (literal != null && (pending == null || !(pending + literal).contains("${"))) {
+                pending = pending == null ? literal : pending + literal;
+                continue;
+            }
+            addLiteral(result, pending);
+            pending = literal;
+            if (literal == null) {
+                result.add(formatter);
+            }
+        }
+        addLiteral(result, pending);
+        return result;
+    }
+
+    private void addLiteral(final List<PatternFormatter> formatters, final String literal) {
+        if (literal != null && literal.length() > 0) {
+            formatters.add(new PatternFormatter(new LiteralPatternConverter(config, literal),
+                    FormattingInfo.getDefault()));
+        }
+    }
+
+    private static String getPlainLiteral(final PatternFormatter formatter) {
+        final FormattingInfo field = formatter.getFormattingInfo();
+        if (formatter.getConverter() instanceof LiteralPatternConverter && field.getMinLength() == 0
+                && field.getMaxLength() == Integer.MAX_VALUE) {
+            final String literal = ((LiteralPatternConverter) formatter.getConverter()).getLiteral();
+            return literal.contains("${") ? null : literal;
+        }
+        return null;
     }
 
     /**
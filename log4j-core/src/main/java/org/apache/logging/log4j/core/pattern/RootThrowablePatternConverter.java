@@ -20,6 +20,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.helpers.Constants;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.core.impl.ThrowableProxy;
 
 /**
@@ -62,6 +63,8 @@ public final class RootThrowablePatternConverter extends ThrowablePatternConvert
         ThrowableProxy proxy = null;
         if (event instanceof Log4jLogEvent) {
             proxy = ((Log4jLogEvent) event).getThrownProxy();
+        } else if (event instanceof MutableLogEvent) {
+            proxy = ((MutableLogEvent) event).getThrownProxy();
         }
         final Throwable throwable = event.getThrown();
         if (throwable != null && options.anyLines()) {
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests selecting the {@link ReusableMessageFactory} in the configuration.
+ */
+public class ReusableMessageFactoryConfigTest {
+    private static final String CONFIG = "log4j-reusable-message.xml";
+    private static LoggerContext ctx;
+    private static ListAppender app;
+    private static ListAppender events;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        app = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+        events = (ListAppender) ctx.getConfiguration().getAppenders().get("Events");
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    @After
+    public void after() {
+        app.clear();
+        events.clear();
+    }
+
+    @Test
+    public void testLoggerUsesConfiguredFactory() {
+        final Logger logger = ctx.getLogger("ReusableMessageFactoryConfigTest");
+        assertTrue(logger.getMessageFactory() instanceof ReusableMessageFactory);
+    }
+
+    @Test
+    public void testMessagesAreCopiedForOtherThreads() throws Exception {
+        final Logger logger = ctx.getLogger("ReusableMessageFactoryConfigTest");
+        logger.info("first {}", "one");
+        logger.info("second {}", "two");
+        logger.info("third");
+        assertEquals("first one", app.getMessages().get(0));
+        assertEquals("second two", app.getMessages().get(1));
+        assertEquals("third", app.getMessages().get(2));
+
+        Thread.sleep(100);
+        final List<LogEvent> list = events.getEvents();
+        assertEquals(3, list.size());
+        for (final LogEvent event : list) {
+            assertFalse(event.getMessage() instanceof ReusableMessage);
+        }
+        assertEquals("first one", list.get(0).getMessage().getFormattedMessage());
+        assertEquals("second two", list.get(1).getMessage().getFormattedMessage());
+        assertEquals("third", list.get(2).getMessage().getFormattedMessage());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.test.appender.BlockingAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class AsyncAppenderBatchTest {
+
+    @Test
+    public void testLastEventOfBatchIsEndOfBatch() throws Exception {
+        final LoggerContext ctx = new LoggerContext("AsyncAppenderBatchTest", null,
+            getClass().getClassLoader().getResource("AsyncAppenderBatchTest.xml").toURI());
+        ctx.start();
+        final BlockingAppender blocking = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        final ListAppender events = (ListAppender) ctx.getConfiguration().getAppenders().get("Events");
+        final AsyncAppender async = (AsyncAppender) ctx.getConfiguration().getAppenders().get("Async");
+        try {
+            final Logger logger = ctx.getLogger(AsyncAppenderBatchTest.class.getName());
+            logger.info(BlockingAppender.BLOCK);
+            assertTrue("background thread not blocked", blocking.awaitBlocked(10000));
+            for (int i = 0; i < 10; i++) {
+                logger.info("event " + i);
+            }
+            assertEquals(54, async.getQueueRemainingCapacity());
+        } finally {
+            blocking.unblock();
+            ctx.stop();
+        }
+        final List<LogEvent> list = events.getEvents();
+        assertEquals(11, list.size());
+        assertTrue(list.get(0).isEndOfBatch());
+        for (int i = 1; i < 10; i++) {
+            assertFalse("event " + i, list.get(i).isEndOfBatch());
+        }
+        assertTrue(list.get(10).isEndOfBatch());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.test.appender.BlockingAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class AsyncAppenderSpillTest {
+
+    private static final int EVENTS = 200;
+
+    @Test
+    public void testEventsSpilledWhileBlockedAreDeliveredInOrder() throws Exception {
+        final LoggerContext ctx = new LoggerContext("AsyncAppenderSpillTest", null,
+            getClass().getClassLoader().getResource("AsyncAppenderSpillTest.xml").toURI());
+        ctx.start();
+        final BlockingAppender blocking = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        final ListAppender events = (ListAppender) ctx.getConfiguration().getAppenders().get("Events");
+        final AsyncAppender async = (AsyncAppender) ctx.getConfiguration().getAppenders().get("Async");
+        final File spillFile = new File(async.getSpillFile());
+        try {
+            assertEquals(4096, async.getMaxBufferBytes());
+            final Logger logger = ctx.getLogger(AsyncAppenderSpillTest.class.getName());
+            logger.info(BlockingAppender.BLOCK);
+            assertTrue("background thread not blocked", blocking.awaitBlocked(10000));
+            for (int i = 0; i < EVENTS; i++) {
+                logger.info("event {}", i);
+            }
+            assertTrue("events not spilled", spillFile.length() > 0);
+        } finally {
+            blocking.unblock();
+            ctx.stop();
+        }
+        final List<LogEvent> list = events.getEvents();
+        assertEquals(EVENTS + 1, list.size());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals("event " + i, list.get(i + 1).getMessage().getFormattedMessage());
+        }
+        assertFalse("spill file not deleted", spillFile.exists());
+    }
+}
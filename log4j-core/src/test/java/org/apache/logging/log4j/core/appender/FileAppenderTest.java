@@ -103,6 +103,31 @@ public class FileAppenderTest {
         assertFalse("Appender did not stop", appender.isStarted());
     }
 
+    @Test
+    public void testGroupFlush() throws Exception {
+        final Layout<String> layout = PatternLayout.createLayout(PatternLayout.SIMPLE_CONVERSION_PATTERN, null, null,
+                null, null, null);
+        final FileAppender appender = FileAppender.createAppender(FILENAME, "true", "false", "test", null, "false",
+                "true", null, "200", layout, null, "false", null, null);
+        appender.start();
+        assertTrue("Group flush not enabled", appender.getManager().isGroupFlush());
+        final File file = new File(FILENAME);
+        appender.append(new Log4jLogEvent("TestLogger", null, FileAppenderTest.class.getName(), Level.INFO,
+                new SimpleMessage("Test"), null));
+        assertTrue("INFO event flushed immediately", file.length() == 0);
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (file.length() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        final long flushedLen = file.length();
+        assertTrue("Background flusher did not flush", flushedLen > 0);
+        appender.append(new Log4jLogEvent("TestLogger", null, FileAppenderTest.class.getName(), Level.ERROR,
+                new SimpleMessage("Test"), null));
+        assertTrue("ERROR event not flushed immediately", file.length() > flushedLen);
+        appender.stop();
+        assertFalse("Appender did not stop", appender.isStarted());
+    }
+
     @Test
     public void testLockingAppender() throws Exception {
         writer(true, 1, "test");
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.junit.Test;
+
+public class MemoryMappedFileAppenderTest {
+
+    @Test
+    public void testWritesAcrossRegionsAndTruncatesOnStop() throws Exception {
+        final File f = new File("target", "MemoryMappedFileAppenderTest.log");
+        final LoggerContext ctx = new LoggerContext("MemoryMappedFileAppenderTest", null,
+                getClass().getClassLoader().getResource("MemoryMappedFileAppenderTest.xml").toURI());
+        ctx.start();
+        final MemoryMappedFileAppender appender = (MemoryMappedFileAppender) ctx.getConfiguration().getAppenders()
+                .get("MemoryMappedFile");
+        assertEquals(256, appender.getManager().getRegionLength());
+        final Logger log = ctx.getLogger("com.foo.Bar");
+        final int count = 100; // more than one region
+        for (int i = 0; i < count; i++) {
+            log.info("Message {} written to a memory mapped file", i);
+        }
+        ctx.stop();
+
+        final BufferedReader reader = new BufferedReader(new FileReader(f));
+        try {
+            for (int i = 0; i < count; i++) {
+                final String line = reader.readLine();
+                assertTrue(line, line.endsWith("Message " + i + " written to a memory mapped file"));
+            }
+            assertNull("file was not truncated", reader.readLine());
+        } finally {
+            reader.close();
+        }
+        f.delete();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Test;
+
+/**
+ * Tests the MemoryMappedFileManager class.
+ */
+public class MemoryMappedFileManagerTest {
+
+    private static byte[] readAll(final File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final byte[] result = new byte[(int) raf.length()];
+            raf.readFully(result);
+            return result;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static byte[] data(final int length, final int seed) {
+        final byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) (seed + i);
+        }
+        return result;
+    }
+
+    @Test
+    public void testRemapsWhenRegionIsFullAndTruncatesOnClose() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+        final int regionLength = 64;
+        final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(),
+                false, false, regionLength, 0, null, null);
+
+        final byte[] data = data(regionLength * 3 + 5, 0);
+        manager.write(data);
+        assertEquals(regionLength * 4, file.length()); // the current region is mapped
+
+        manager.release();
+        assertArrayEquals(data, readAll(file));
+    }
+
+    @Test
+    public void testAppendContinuesAfterExistingData() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+        final byte[] first = data(100, 0);
+        final byte[] second = data(30, 100);
+
+        MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(), false,
+                true, 1024, 0, null, null);
+        manager.write(first);
+        manager.release();
+
+        manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(), true, false, 1024, 10, null, null);
+        manager.write(second);
+        manager.flush();
+        manager.release();
+
+        final byte[] all = readAll(file);
+        assertEquals(first.length + second.length, all.length);
+        assertArrayEquals(data(first.length + second.length, 0), all);
+    }
+
+    @Test
+    public void testWriteAfterCloseFailsWithoutTouchingTheUnmappedRegion() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+        final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(),
+                false, false, 1024, 0, null, null);
+        manager.write(data(10, 0));
+        manager.release();
+        manager.close(); // closing again is harmless
+
+        try {
+            manager.write(data(10, 10));
+            fail("write after close");
+        } catch (final AppenderLoggingException expected) {
+            // expected
+        }
+        try {
+            manager.flush();
+            fail("flush after close");
+        } catch (final AppenderLoggingException expected) {
+            // expected
+        }
+        try {
+            manager.getByteBuffer();
+            fail("getByteBuffer after close");
+        } catch (final AppenderLoggingException expected) {
+            // expected
+        }
+        assertArrayEquals(data(10, 0), readAll(file));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the combining write path of OutputStreamManager.
+ */
+public class OutputStreamManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int EVENTS = 2000;
+
+    @Test
+    public void testConcurrentWritesKeepRecordsWholeAndOrdered() throws Exception {
+        final Layout<String> layout = PatternLayout.createLayout("%m%n", null, null, null, null, null);
+        final RecordingOutputStream os = new RecordingOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(os, "OutputStreamManagerTest", null);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[THREADS];
+        final Throwable[] failures = new Throwable[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final int index = i;
+            threads[i] = new Thread("writer-" + i) {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int seq = 0; seq < EVENTS; seq++) {
+                            final LogEvent event = new Log4jLogEvent("TestLogger", null,
+                                    OutputStreamManagerTest.class.getName(), Level.INFO,
+                                    new SimpleMessage(getName() + ' ' + seq), null);
+                            manager.write(layout, event);
+                        }
+                    } catch (final Throwable t) {
+                        failures[index] = t;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        for (final Throwable failure : failures) {
+            assertNull("Writer failed: " + failure, failure);
+        }
+
+        assertEquals("records", THREADS * EVENTS, os.records.size());
+        final Map<String, Integer> lastSeq = new HashMap<String, Integer>();
+        int combined = 0;
+        for (int i = 0; i < os.records.size(); i++) {
+            final String record = os.records.get(i);
+            assertTrue("Record not written whole: " + record, record.matches("writer-\\d+ \\d+\\r?\\n"));
+            final String[] parts = record.trim().split(" ");
+            final int seq = Integer.parseInt(parts[1]);
+            final Integer previous = lastSeq.put(parts[0], seq);
+            assertEquals("Out of order for " + parts[0], previous == null ? 0 : previous + 1, seq);
+            if (!parts[0].equals(os.writers.get(i))) {
+                combined++;
+            }
+        }
+        assertTrue("No record was written by another thread", combined > 0);
+    }
+
+    @Test
+    public void testWriteFailureIsThrownToCaller() {
+        final Layout<String> layout = PatternLayout.createLayout("%m%n", null, null, null, null, null);
+        final OutputStreamManager manager = new OutputStreamManager(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                throw new IllegalStateException("closed");
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                throw new IllegalStateException("closed");
+            }
+        }, "OutputStreamManagerTest", null);
+        try {
+            manager.write(layout, new Log4jLogEvent("TestLogger", null, OutputStreamManagerTest.class.getName(),
+                    Level.INFO, new SimpleMessage("Test"), null));
+            fail("Expected the stream's exception");
+        } catch (final IllegalStateException ex) {
+            assertEquals("closed", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testEventLoggedWhileFormattingDoesNotOverwriteOuterEvent() {
+        final Layout<String> layout = PatternLayout.createLayout("%m%n", null, null, null, null, null);
+        final RecordingOutputStream os = new RecordingOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(os, "OutputStreamManagerTest", null);
+        final Object parameter = new Object() {
+            @Override
+            public String toString() {
+                manager.write(layout, new Log4jLogEvent("TestLogger", null, OutputStreamManagerTest.class.getName(),
+                        Level.INFO, new SimpleMessage("inner"), null));
+                return "arg";
+            }
+        };
+        manager.write(layout, new Log4jLogEvent("TestLogger", null, OutputStreamManagerTest.class.getName(),
+                Level.INFO, new ParameterizedMessage("outer {} end", parameter), null));
+        manager.write(layout, new Log4jLogEvent("TestLogger", null, OutputStreamManagerTest.class.getName(),
+                Level.INFO, new SimpleMessage("after"), null));
+
+        assertEquals("records", 3, os.records.size());
+        assertEquals("inner", os.records.get(0).trim());
+        assertEquals("outer arg end", os.records.get(1).trim());
+        assertEquals("after", os.records.get(2).trim());
+    }
+
+    /**
+     * Keeps each write call as one record together with the thread that made it. Writes are slow so that threads
+     * pile up behind the combiner.
+     */
+    private static class RecordingOutputStream extends OutputStream {
+        private final List<String> records = new ArrayList<String>();
+        private final List<String> writers = new ArrayList<String>();
+
+        @Override
+        public void write(final int b) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            records.add(new String(b, off, len));
+            writers.add(Thread.currentThread().getName());
+            LockSupport.parkNanos(10 * 1000);
+        }
+    }
+}
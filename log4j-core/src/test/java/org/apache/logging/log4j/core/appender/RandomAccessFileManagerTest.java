@@ -121,4 +121,31 @@ public class RandomAccessFileManagerTest {
         final int expected = bytes.length * 2;
         assertEquals("appended, not overwritten", expected, file.length());
     }
+
+    @Test
+    public void testWritesBufferContentThroughChannel() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+        final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(
+                file.getAbsolutePath(), false, false, 16, null, null);
+        assertTrue(manager.getBuffer().isDirect());
+
+        final byte[] data = new byte[50];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        manager.write(data, 0, data.length);
+        manager.flush();
+        manager.release();
+
+        final byte[] written = new byte[data.length];
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            assertEquals(data.length, raf.length());
+            raf.readFully(written);
+        } finally {
+            raf.close();
+        }
+        assertArrayEquals(data, written);
+    }
 }
@@ -16,7 +16,11 @@
  */
 package org.apache.logging.log4j.core.appender.db;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.easymock.Capture;
 import org.junit.After;
 import org.junit.Test;
 
@@ -273,4 +277,39 @@ public class AbstractDatabaseManagerTest {
 
         this.manager.shutdown();
     }
+
+    @Test
+    public void testBufferingCopiesReusableEvents() throws Exception {
+        this.setUp("name", 2);
+
+        this.manager.startupInternal();
+        expectLastCall();
+        replay(this.manager);
+
+        this.manager.startup();
+
+        final LogEvent event = new ReusableLogEventFactory().createEvent("a", null, "fqcn", Level.INFO,
+                new SimpleMessage("first"), null, null);
+        try {
+            this.manager.write(event);
+        } finally {
+            ReusableLogEventFactory.release(event);
+        }
+
+        verify(this.manager);
+        reset(this.manager);
+        final Capture<LogEvent> buffered = new Capture<LogEvent>();
+        this.manager.connectAndStart();
+        expectLastCall();
+        this.manager.writeInternal(capture(buffered));
+        expectLastCall();
+        this.manager.commitAndClose();
+        expectLastCall();
+        replay(this.manager);
+
+        this.manager.flush();
+
+        assertNotSame(event, buffered.getValue());
+        assertEquals("first", buffered.getValue().getMessage().getFormattedMessage());
+    }
 }
@@ -170,4 +170,20 @@ public class RollingRandomAccessFileManagerTest {
         assertEquals(file.lastModified(), manager.getFileTime());
     }
 
+    @Test
+    public void testConfiguredBufferSize() throws IOException {
+        final File file = File.createTempFile("log4j2", "test");
+        file.deleteOnExit();
+        final int bufferSize = 1024;
+        final RollingRandomAccessFileManager manager = RollingRandomAccessFileManager
+                .getRollingRandomAccessFileManager(file.getAbsolutePath(), "", false, false, bufferSize,
+                        new SizeBasedTriggeringPolicy(Long.MAX_VALUE), null, null, null);
+        final byte[] bytes = new byte[bufferSize + 1];
+        manager.write(bytes, 0, bytes.length);
+        assertEquals("one full buffer written", bufferSize, file.length());
+        manager.flush();
+        assertEquals(bytes.length, file.length());
+        manager.release();
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class RolloverExecutorTest {
+
+    @Test
+    public void testRunsOnCallerWhenThreadsBusyAndQueueFull() throws Exception {
+        final RolloverExecutor executor = new RolloverExecutor(1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+        });
+        assertTrue("First action not started", running.await(5, TimeUnit.SECONDS));
+        executor.execute(new CountingAction(done, null)); // waits in the queue
+
+        final Thread[] ranOn = new Thread[1];
+        executor.execute(new CountingAction(null, ranOn));
+        assertSame("Action did not run on the caller", Thread.currentThread(), ranOn[0]);
+        assertEquals(1, executor.getCallerRunsCount());
+        assertEquals(1, executor.getQueueSize());
+        assertEquals(1, executor.getLargestQueueSize());
+
+        release.countDown();
+        assertTrue("Queued action not run", done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, executor.getSubmittedCount());
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getCompletedCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, executor.getCompletedCount());
+    }
+
+    @Test
+    public void testRunsOnLowPriorityThread() throws Exception {
+        final RolloverExecutor executor = new RolloverExecutor(2, 0);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread[] ranOn = new Thread[1];
+        executor.execute(new CountingAction(done, ranOn));
+        assertTrue("Action not run", done.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), ranOn[0]);
+        assertEquals(Thread.MIN_PRIORITY, ranOn[0].getPriority());
+        assertEquals(0, executor.getCallerRunsCount());
+    }
+
+    @Test
+    public void testConfigure() {
+        final RolloverExecutor executor = new RolloverExecutor(2, 64);
+        executor.configure(RolloverExecutorConfig.createRolloverExecutorConfig("4", "10"));
+        assertEquals(4, executor.getThreads());
+        assertEquals(10, executor.getMaxQueueSize());
+        executor.configure(1, 5);
+        assertEquals(1, executor.getThreads());
+        assertEquals(5, executor.getMaxQueueSize());
+    }
+
+    @Test
+    public void testConfiguredByConfigurationElement() {
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, "RolloverExecutorTest.xml");
+        try {
+            ((LoggerContext) LogManager.getContext(false)).reconfigure();
+            assertEquals(3, RolloverExecutor.getInstance().getThreads());
+            assertEquals(16, RolloverExecutor.getInstance().getMaxQueueSize());
+        } finally {
+            System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+            ((LoggerContext) LogManager.getContext(false)).reconfigure();
+        }
+    }
+
+    private static class CountingAction implements Runnable {
+        private final CountDownLatch done;
+        private final Thread[] ranOn;
+
+        CountingAction(final CountDownLatch done, final Thread[] ranOn) {
+            this.done = done;
+            this.ranOn = ranOn;
+        }
+
+        @Override
+        public void run() {
+            if (ranOn != null) {
+                ranOn[0] = Thread.currentThread();
+            }
+            if (done != null) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class GZCompressActionTest {
+
+    private static final String DIR = "target/gzCompress";
+
+    @BeforeClass
+    public static void beforeClass() {
+        new File(DIR).mkdirs();
+    }
+
+    @After
+    public void after() {
+        final File[] files = new File(DIR).listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testCompressedFilesCanBeReadByGZIPInputStream() throws Exception {
+        // twice, so the second file is compressed with a reused Deflater
+        for (int i = 0; i < 2; i++) {
+            final byte[] content = createContent(200 * 1024 + i);
+            final File source = new File(DIR, "source" + i + ".log");
+            final FileOutputStream fos = new FileOutputStream(source);
+            fos.write(content);
+            fos.close();
+
+            final File destination = new File(DIR, "source" + i + ".log.gz");
+            assertTrue("Not compressed", new GZCompressAction(source, destination, true).execute());
+            assertFalse("Source not deleted", source.exists());
+            assertArrayEquals("Content after decompression", content, gunzip(destination));
+        }
+    }
+
+    @Test
+    public void testMissingSource() throws Exception {
+        final File destination = new File(DIR, "missing.log.gz");
+        assertFalse(new GZCompressAction(new File(DIR, "missing.log"), destination, true).execute());
+        assertFalse(destination.exists());
+    }
+
+    private static byte[] createContent(final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        final Random random = new Random(length);
+        while (sb.length() < length) {
+            sb.append("This is line ").append(random.nextInt(1000)).append('\n');
+        }
+        sb.setLength(length);
+        return sb.toString().getBytes();
+    }
+
+    private static byte[] gunzip(final File file) throws Exception {
+        final InputStream is = new GZIPInputStream(new FileInputStream(file));
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[4096];
+            int n;
+            while ((n = is.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.test.appender.BlockingAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+
+public class AsyncLoggerConfigParallelAppendersTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLoggerConfig.ParallelAppenders", "Blocking");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLoggerConfig.ParallelAppenders");
+    }
+
+    @Test
+    public void testParseParallelAppenders() {
+        assertEquals(0, AsyncLoggerConfigHelper.parseParallelAppenders(null).length);
+        assertEquals(0, AsyncLoggerConfigHelper.parseParallelAppenders(" , ").length);
+        assertArrayEquals(new String[] {"JDBC", "Mail"},
+                AsyncLoggerConfigHelper.parseParallelAppenders("JDBC, Mail,JDBC"));
+    }
+
+    @Test
+    public void testBlockedAppenderDoesNotHoldBackOtherAppenders() throws Exception {
+        final URI uri = getClass().getClassLoader().getResource("AsyncLoggerConfigParallelAppendersTest.xml").toURI();
+        final LoggerContext ctx = new LoggerContext("testParallelAppenders", null, uri);
+        ctx.start();
+        final BlockingAppender blocking = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+        try {
+            final Logger logger = ctx.getLogger("testParallelAppenders");
+            logger.info(BlockingAppender.BLOCK);
+            assertTrue("background thread not blocked", blocking.awaitBlocked(10000));
+            for (int i = 0; i < 10; i++) {
+                logger.info("event {}", i);
+            }
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (list.getMessages().size() < 11 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(11, list.getMessages().size());
+            assertEquals("event 9", list.getMessages().get(10));
+            assertEquals(0, blocking.getMessages().size());
+        } finally {
+            blocking.unblock();
+            ctx.stop();
+        }
+        final List<String> messages = blocking.getMessages();
+        assertEquals(11, messages.size());
+        assertEquals(BlockingAppender.BLOCK, messages.get(0));
+        assertEquals("event 9", messages.get(10));
+    }
+
+    @Test
+    public void testSlotIsClearedOnceAllHandlersAreDone() throws Exception {
+        final URI uri = getClass().getClassLoader().getResource("AsyncLoggerConfigParallelAppendersTest.xml").toURI();
+        final LoggerContext ctx = new LoggerContext("testParallelAppendersClear", null, uri);
+        ctx.start();
+        final BlockingAppender blocking = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+        try {
+            ctx.getLogger("testParallelAppenders").info("cleared");
+            final Field field = AsyncLoggerConfigHelper.class.getDeclaredField("disruptor");
+            field.setAccessible(true);
+            final RingBuffer<?> ringBuffer = ((Disruptor<?>) field.get(null)).getRingBuffer();
+            final Object slot = ringBuffer.get(ringBuffer.getCursor());
+            final Field event = slot.getClass().getDeclaredField("event");
+            event.setAccessible(true);
+            final long deadline = System.currentTimeMillis() + 10000;
+            while ((blocking.getMessages().size() < 1 || list.getMessages().size() < 1 || event.get(slot) != null)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("cleared", blocking.getMessages().get(0));
+            assertEquals("cleared", list.getMessages().get(0));
+            assertNull("slot still references the event", event.get(slot));
+        } finally {
+            ctx.stop();
+        }
+    }
+}
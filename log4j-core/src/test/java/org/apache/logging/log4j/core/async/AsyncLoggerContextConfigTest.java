@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.test.appender.BlockingAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+import com.lmax.disruptor.dsl.Disruptor;
+
+public class AsyncLoggerContextConfigTest {
+
+    private static URI uri(final String resource) throws Exception {
+        return AsyncLoggerContextConfigTest.class.getClassLoader().getResource(resource).toURI();
+    }
+
+    @Test
+    public void testRingBufferIsConfiguredFromConfigurationFile() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testConfigured", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        assertNull(ctx.getAsyncLoggerDisruptor().getDisruptor());
+        ctx.start();
+        try {
+            final Disruptor<RingBufferLogEvent> disruptor = ctx.getAsyncLoggerDisruptor().getDisruptor();
+            assertNotNull(disruptor);
+            assertEquals(256, disruptor.getRingBuffer().getBufferSize());
+            assertEquals(256, ctx.createRingBufferAdmin().getBufferSize());
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testRingBufferAdminReportsLatencies() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testLatencies", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        ctx.start();
+        try {
+            final Logger logger = ctx.getLogger("testLatencies");
+            for (int i = 0; i < 100; i++) {
+                logger.info("event {}", i);
+            }
+            final RingBufferAdmin admin = ctx.createRingBufferAdmin();
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (admin.getLatencyEventCount() < 100 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(100, admin.getLatencyEventCount());
+            assertTrue(admin.getProcessingMaxNanos() > 0);
+            assertTrue(admin.getProcessingMedianNanos() <= admin.getProcessing999PercentileNanos());
+            assertTrue(admin.getProcessing999PercentileNanos() <= admin.getProcessingMaxNanos());
+            assertTrue(admin.getQueueWaitMaxNanos() > 0);
+            assertTrue(admin.getQueueWait99PercentileNanos() <= admin.getQueueWaitMaxNanos());
+            admin.resetLatencyHistograms();
+            assertEquals(0, admin.getLatencyEventCount());
+            assertEquals(0, admin.getQueueWaitMaxNanos());
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testContextsHaveTheirOwnRingBuffer() throws Exception {
+        final AsyncLoggerContext ctx1 = new AsyncLoggerContext("testOwn1", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        final AsyncLoggerContext ctx2 = new AsyncLoggerContext("testOwn2", null,
+                uri("AsyncLoggerContextConfigTest2.xml"));
+        ctx1.start();
+        ctx2.start();
+        try {
+            assertEquals(256, ctx1.getAsyncLoggerDisruptor().getDisruptor().getRingBuffer().getBufferSize());
+            assertEquals(1024, ctx2.getAsyncLoggerDisruptor().getDisruptor().getRingBuffer().getBufferSize());
+        } finally {
+            ctx1.stop();
+        }
+        assertNull(ctx1.getAsyncLoggerDisruptor().getDisruptor());
+        assertNotNull(ctx2.getAsyncLoggerDisruptor().getDisruptor());
+        ctx2.stop();
+    }
+
+    @Test
+    public void testReconfigureReplacesRingBufferWhenSettingsChange() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testReconfigure", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        ctx.start();
+        try {
+            final Disruptor<RingBufferLogEvent> first = ctx.getAsyncLoggerDisruptor().getDisruptor();
+            ctx.reconfigure();
+            assertSame(first, ctx.getAsyncLoggerDisruptor().getDisruptor());
+
+            final Logger logger = ctx.getLogger("testReconfigure");
+            logger.info("before");
+            ctx.setConfigLocation(uri("AsyncLoggerContextConfigTest2.xml"));
+            final Disruptor<RingBufferLogEvent> second = ctx.getAsyncLoggerDisruptor().getDisruptor();
+            assertNotSame(first, second);
+            assertEquals(1024, second.getRingBuffer().getBufferSize());
+            logger.info("after");
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testRestartAfterStop() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testRestart", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        ctx.start();
+        ctx.stop();
+        ctx.start();
+        try {
+            final Logger logger = ctx.getLogger("testRestart");
+            logger.info("restarted");
+            final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+            ctx.getAsyncLoggerDisruptor().stop(); // drains the ring buffer
+            assertEquals("restarted", list.getMessages().get(0));
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testStopDrainsRingBuffer() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testDrain", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        ctx.start();
+        try {
+            final Logger logger = ctx.getLogger("testDrain");
+            for (int i = 0; i < 200; i++) {
+                logger.info("event {}", i);
+            }
+            final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+            assertEquals(0, ctx.getAsyncLoggerDisruptor().stop());
+            assertEquals(200, list.getMessages().size());
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testStopWaitsForPublishingThreads() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testPublishers", null,
+                uri("AsyncLoggerContextConfigTest.xml"));
+        ctx.start();
+        try {
+            final AsyncLoggerDisruptor loggerDisruptor = ctx.getAsyncLoggerDisruptor();
+            final AsyncLoggerDisruptor.Generation generation = loggerDisruptor.enterPublisher();
+            assertNotNull(generation);
+            final Thread stopper = new Thread() {
+                @Override
+                public void run() {
+                    loggerDisruptor.stop();
+                }
+            };
+            stopper.start();
+            stopper.join(200);
+            assertTrue("stop did not wait for the publishing thread", stopper.isAlive());
+            assertNull(loggerDisruptor.enterPublisher());
+            generation.exitPublisher();
+            stopper.join(10000);
+            assertFalse(stopper.isAlive());
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testStopGivesUpAfterShutdownTimeout() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testShutdownTimeout", null,
+                uri("AsyncLoggerShutdownTimeoutTest.xml"));
+        ctx.start();
+        final BlockingAppender blocking = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        try {
+            final Logger logger = ctx.getLogger("testShutdownTimeout");
+            logger.info(BlockingAppender.BLOCK);
+            assertTrue(blocking.awaitBlocked(10000));
+            for (int i = 0; i < 10; i++) {
+                logger.info("event {}", i);
+            }
+            final long start = System.nanoTime();
+            final long dropped = ctx.getAsyncLoggerDisruptor().stop();
+            final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+            assertEquals(11, dropped);
+            assertTrue("stop took " + elapsedMillis + " ms", elapsedMillis >= 200 && elapsedMillis < 2000);
+            assertFalse(blocking.getMessages().contains("event 9"));
+        } finally {
+            blocking.unblock();
+            ctx.stop();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.test.appender.BlockingAppender;
+import org.junit.Test;
+
+public class AsyncQueueFullPolicyTest {
+
+    /** Policy used to test that policies can be configured by class name. */
+    public static class AlwaysSynchronous implements AsyncQueueFullPolicy {
+        @Override
+        public EventRoute getRoute(final Level level) {
+            return EventRoute.SYNCHRONOUS;
+        }
+    }
+
+    private static URI uri(final String resource) throws Exception {
+        return AsyncQueueFullPolicyTest.class.getClassLoader().getResource(resource).toURI();
+    }
+
+    @Test
+    public void testFactory() {
+        assertSame(EventRoute.ENQUEUE, AsyncQueueFullPolicyFactory.create(null, null).getRoute(Level.DEBUG));
+        assertSame(EventRoute.ENQUEUE, AsyncQueueFullPolicyFactory.create("Block", null).getRoute(Level.DEBUG));
+        assertSame(EventRoute.SYNCHRONOUS,
+                AsyncQueueFullPolicyFactory.create("Synchronous", null).getRoute(Level.DEBUG));
+        assertSame(EventRoute.SYNCHRONOUS,
+                AsyncQueueFullPolicyFactory.create(AlwaysSynchronous.class.getName(), null).getRoute(Level.ERROR));
+        assertSame(EventRoute.ENQUEUE, AsyncQueueFullPolicyFactory.create("no.such.Policy", null)
+                .getRoute(Level.DEBUG));
+    }
+
+    @Test
+    public void testDiscardThreshold() {
+        final AsyncQueueFullPolicy policy = AsyncQueueFullPolicyFactory.create("Discard", "WARN");
+        assertSame(EventRoute.DISCARD, policy.getRoute(Level.TRACE));
+        assertSame(EventRoute.DISCARD, policy.getRoute(Level.WARN));
+        assertSame(EventRoute.ENQUEUE, policy.getRoute(Level.ERROR));
+        assertSame(EventRoute.ENQUEUE, policy.getRoute(Level.FATAL));
+        assertEquals(Level.INFO,
+                ((DiscardingAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create("Discard", null))
+                        .getThresholdLevel());
+    }
+
+    /**
+     * Blocks the background thread and fills the ring buffer.
+     */
+    private static void fillRingBuffer(final AsyncLoggerContext ctx, final Logger logger,
+            final BlockingAppender appender) throws Exception {
+        logger.error(BlockingAppender.BLOCK);
+        assertTrue("background thread not blocked", appender.awaitBlocked(10000));
+        final RingBufferAdmin admin = ctx.createRingBufferAdmin();
+        while (admin.getRemainingCapacity() > 0) {
+            logger.error("fill");
+        }
+    }
+
+    @Test
+    public void testDiscardWhenFull() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testDiscardWhenFull", null,
+                uri("AsyncQueueFullPolicyDiscardTest.xml"));
+        ctx.start();
+        final BlockingAppender appender = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        try {
+            final Logger logger = ctx.getLogger("testDiscardWhenFull");
+            fillRingBuffer(ctx, logger, appender);
+            logger.info("discarded");
+            logger.debug("discarded");
+            assertEquals(2, ctx.createRingBufferAdmin().getDiscardCount());
+        } finally {
+            appender.unblock();
+            ctx.stop();
+        }
+        final List<String> messages = appender.getMessages();
+        assertEquals(BlockingAppender.BLOCK, messages.get(0));
+        assertFalse(messages.contains("discarded"));
+    }
+
+    @Test
+    public void testSynchronousWhenFull() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testSynchronousWhenFull", null,
+                uri("AsyncQueueFullPolicySynchronousTest.xml"));
+        ctx.start();
+        final BlockingAppender appender = (BlockingAppender) ctx.getConfiguration().getAppenders().get("Blocking");
+        try {
+            final Logger logger = ctx.getLogger("testSynchronousWhenFull");
+            fillRingBuffer(ctx, logger, appender);
+            logger.info("synchronous");
+            assertEquals("synchronous", appender.getMessages().get(0));
+            assertEquals(0, ctx.createRingBufferAdmin().getDiscardCount());
+        } finally {
+            appender.unblock();
+            ctx.stop();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.MapMessage;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests formatting messages into the RingBufferLogEvent in the logging thread.
+ */
+public class RingBufferLogEventPreformatTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLogger.PreformatMessages", "true");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLogger.PreformatMessages");
+    }
+
+    @Test
+    public void testOnlyPlainTextMessagesArePreformatted() {
+        assertTrue(RingBufferLogEvent.isPreformatted(new ParameterizedMessage("{}", "a")));
+        assertFalse(RingBufferLogEvent.isPreformatted(new SimpleMessage("a")));
+        assertFalse(RingBufferLogEvent.isPreformatted(new MapMessage()));
+        assertFalse(RingBufferLogEvent.isPreformatted(null));
+    }
+
+    @Test
+    public void testEventKeepsTextButNoReferenceToMessage() {
+        final StringBuilder arg = new StringBuilder("before");
+        final RingBufferLogEventTranslator translator = new RingBufferLogEventTranslator();
+        translator.setValues(null, "logger", null, null, Level.INFO, new ParameterizedMessage("value {}", arg),
+                null, null, null, "thread", null, 0);
+        arg.setLength(0);
+        arg.append("after");
+
+        final RingBufferLogEvent evt = new RingBufferLogEvent();
+        translator.translateTo(evt, 0);
+        final Message msg = evt.getMessage();
+        assertSame(evt, msg);
+        assertEquals("value before", msg.getFormattedMessage());
+        assertNull(msg.getParameters());
+        final StringBuilder buffer = new StringBuilder("> ");
+        evt.formatTo(buffer);
+        assertEquals("> value before", buffer.toString());
+        final Message memento = evt.memento();
+        assertEquals("value before", memento.getFormattedMessage());
+
+        evt.clear();
+        assertNotSame(evt, evt.getMessage());
+        assertEquals("value before", memento.getFormattedMessage());
+    }
+
+    @Test
+    public void testParameterThatLogsDoesNotOverwriteOuterEvent() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testPreformatNested", null,
+                getClass().getClassLoader().getResource("AsyncLoggerContextConfigTest.xml").toURI());
+        ctx.start();
+        try {
+            final Logger logger = ctx.getLogger("testPreformatNested");
+            final Object argWhoseToStringLogs = new Object() {
+                @Override
+                public String toString() {
+                    logger.info("inner {}", "x");
+                    return "arg";
+                }
+            };
+            logger.info("outer {} end", argWhoseToStringLogs);
+            logger.info("after {}", "nested");
+            final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+            ctx.getAsyncLoggerDisruptor().stop(); // drains the ring buffer
+            final List<String> messages = list.getMessages();
+            assertEquals(3, messages.size());
+            assertEquals("inner x", messages.get(0));
+            assertEquals("outer arg end", messages.get(1));
+            assertEquals("after nested", messages.get(2));
+        } finally {
+            ctx.stop();
+        }
+    }
+
+    @Test
+    public void testLoggedTextIsFormattedInLoggingThread() throws Exception {
+        final AsyncLoggerContext ctx = new AsyncLoggerContext("testPreformat", null,
+                getClass().getClassLoader().getResource("AsyncLoggerContextConfigTest.xml").toURI());
+        ctx.start();
+        try {
+            final Logger logger = ctx.getLogger("testPreformat");
+            final StringBuilder arg = new StringBuilder();
+            for (int i = 0; i < 3; i++) {
+                arg.setLength(0);
+                arg.append(i);
+                logger.info("value {}", arg);
+            }
+            final ListAppender list = (ListAppender) ctx.getConfiguration().getAppenders().get("List");
+            ctx.getAsyncLoggerDisruptor().stop(); // drains the ring buffer
+            final List<String> messages = list.getMessages();
+            assertEquals("value 0", messages.get(0));
+            assertEquals("value 1", messages.get(1));
+            assertEquals("value 2", messages.get(2));
+        } finally {
+            ctx.stop();
+        }
+    }
+}
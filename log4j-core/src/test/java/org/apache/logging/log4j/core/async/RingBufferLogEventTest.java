@@ -25,6 +25,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.ThreadContext.ContextStack;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.TimestampMessage;
 import org.junit.Test;
 
@@ -33,6 +34,26 @@ import org.junit.Test;
  */
 public class RingBufferLogEventTest {
 
+    @Test
+    public void testReusableMessageTextIsCopiedIntoEvent() {
+        final Message reusable = ReusableMessageFactory.INSTANCE.newMessage("value {}", "before");
+        assertTrue(RingBufferLogEvent.isPreformatted(reusable));
+        final RingBufferLogEventTranslator translator = new RingBufferLogEventTranslator();
+        try {
+            translator.setValues(null, "logger", null, null, Level.INFO, reusable, null, null, null, "thread", null,
+                    0);
+        } finally {
+            ReusableMessageFactory.release(reusable);
+        }
+        final Message next = ReusableMessageFactory.INSTANCE.newMessage("value {}", "after");
+        assertSame("reusable message not reused", reusable, next);
+        ReusableMessageFactory.release(next);
+
+        final RingBufferLogEvent evt = new RingBufferLogEvent();
+        translator.translateTo(evt, 0);
+        assertEquals("value before", evt.getMessage().getFormattedMessage());
+    }
+
     @Test
     public void testGetLevelReturnsOffIfNullLevelSet() {
         RingBufferLogEvent evt = new RingBufferLogEvent();
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+public class WaitStrategyFactoryTest {
+
+    @Test
+    public void testNames() {
+        assertEquals(SleepingWaitStrategy.class, WaitStrategyFactory.create(null, null, null, null, null).getClass());
+        assertEquals(SleepingWaitStrategy.class, WaitStrategyFactory.create("Bogus", null, null, null, null)
+                .getClass());
+        assertEquals(YieldingWaitStrategy.class, WaitStrategyFactory.create("Yield", null, null, null, null)
+                .getClass());
+        assertEquals(BlockingWaitStrategy.class, WaitStrategyFactory.create("Block", null, null, null, null)
+                .getClass());
+        assertEquals(TimeoutBlockingWaitStrategy.class, WaitStrategyFactory.create("Timeout", null, null, null, "5")
+                .getClass());
+    }
+
+    @Test
+    public void testAdaptiveThresholds() {
+        final AdaptiveWaitStrategy strategy = (AdaptiveWaitStrategy) WaitStrategyFactory.create("Adaptive", "10",
+                " 20 ", "30000", null);
+        assertEquals(10, strategy.getSpinTries());
+        assertEquals(20, strategy.getYieldTries());
+        assertEquals(30000, strategy.getParkNanos());
+
+        final AdaptiveWaitStrategy defaults = (AdaptiveWaitStrategy) WaitStrategyFactory.create("Adaptive", "-1",
+                "many", "0", null);
+        assertEquals(AdaptiveWaitStrategy.DEFAULT_SPIN_TRIES, defaults.getSpinTries());
+        assertEquals(AdaptiveWaitStrategy.DEFAULT_YIELD_TRIES, defaults.getYieldTries());
+        assertEquals(AdaptiveWaitStrategy.DEFAULT_PARK_NANOS, defaults.getParkNanos());
+    }
+
+    @Test
+    public void testAdaptiveConsumerWakesUpForEachBurst() throws Exception {
+        final int bursts = 20;
+        final CountDownLatch received = new CountDownLatch(bursts * 10);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        // a park time far longer than the test timeout: only publishers can wake the consumer in time
+        final Disruptor<long[]> disruptor = new Disruptor<long[]>(new EventFactory<long[]>() {
+            @Override
+            public long[] newInstance() {
+                return new long[1];
+            }
+        }, 64, executor, ProducerType.MULTI, new AdaptiveWaitStrategy(10, 10, TimeUnit.SECONDS.toNanos(60)));
+        @SuppressWarnings("unchecked")
+        final EventHandler<long[]>[] handlers = new EventHandler[] {new EventHandler<long[]>() {
+            @Override
+            public void onEvent(final long[] event, final long sequence, final boolean endOfBatch) {
+                received.countDown();
+            }
+        }};
+        disruptor.handleEventsWith(handlers);
+        final RingBuffer<long[]> ringBuffer = disruptor.start();
+        try {
+            for (int burst = 0; burst < bursts; burst++) {
+                for (int i = 0; i < 10; i++) {
+                    final long sequence = ringBuffer.next();
+                    ringBuffer.get(sequence)[0] = i;
+                    ringBuffer.publish(sequence);
+                }
+                Thread.sleep(5); // let the consumer park
+            }
+            assertTrue("consumer missed a wake-up", received.await(10, TimeUnit.SECONDS));
+        } finally {
+            disruptor.halt();
+            executor.shutdown();
+        }
+    }
+}
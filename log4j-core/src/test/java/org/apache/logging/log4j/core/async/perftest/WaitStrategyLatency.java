@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async.perftest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.collections.Histogram;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * Measures the time from publishing an event to the consumer thread receiving
+ * it, and the CPU time used by the consumer thread, for each wait strategy at
+ * several event rates. Low rates show the wake-up latency and idle CPU use of
+ * a strategy; high rates show its behaviour under load.
+ * <p>
+ * Usage: {@code WaitStrategyLatency [seconds-per-run [rate...]]}
+ */
+public class WaitStrategyLatency {
+
+    private static final int RING_BUFFER_SIZE = 256 * 1024;
+    private static final long SPIN_NANOS = 20 * 1000;
+    private static final long[] DEFAULT_RATES = {1000, 10 * 1000, 100 * 1000, 1000 * 1000};
+
+    public static void main(final String[] args) throws Exception {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        final long[] rates = new long[args.length > 1 ? args.length - 1 : DEFAULT_RATES.length];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = args.length > 1 ? Long.parseLong(args[i + 1]) : DEFAULT_RATES[i];
+        }
+        final String[] names = {"Sleep", "Yield", "Block", "Timeout", "Adaptive"};
+        System.out.printf("%-9s %9s %9s %9s %11s %9s%n", "strategy", "events/s", "avg(ns)", "99%(ns)",
+                "99.99%(ns)", "cpu%");
+        for (final long rate : rates) {
+            for (final String name : names) {
+                run(name, createWaitStrategy(name), rate, seconds, false); // warm up
+                run(name, createWaitStrategy(name), rate, seconds, true);
+            }
+        }
+    }
+
+    private static WaitStrategy createWaitStrategy(final String name) {
+        if ("Yield".equals(name)) {
+            return new YieldingWaitStrategy();
+        } else if ("Block".equals(name)) {
+            return new BlockingWaitStrategy();
+        } else if ("Timeout".equals(name)) {
+            return new TimeoutBlockingWaitStrategy(10, TimeUnit.MILLISECONDS);
+        } else if ("Adaptive".equals(name)) {
+            return new AdaptiveWaitStrategy();
+        }
+        return new SleepingWaitStrategy();
+    }
+
+    private static void run(final String name, final WaitStrategy waitStrategy, final long rate,
+            final int seconds, final boolean report) throws InterruptedException {
+        final int events = (int) Math.min(rate * seconds, Integer.MAX_VALUE);
+        final Histogram histogram = PerfTest.createHistogram();
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread[] consumer = new Thread[1];
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                consumer[0] = new Thread(r, "WaitStrategyLatency-" + name);
+                consumer[0].setDaemon(true);
+                return consumer[0];
+            }
+        });
+        final Disruptor<long[]> disruptor = new Disruptor<long[]>(new EventFactory<long[]>() {
+            @Override
+            public long[] newInstance() {
+                return new long[1];
+            }
+        }, RING_BUFFER_SIZE, executor, ProducerType.MULTI, waitStrategy);
+        @SuppressWarnings("unchecked")
+        final EventHandler<long[]>[] handlers = new EventHandler[] {new EventHandler<long[]>() {
+            private int received;
+
+            @Override
+            public void onEvent(final long[] event, final long sequence, final boolean endOfBatch) {
+                histogram.addObservation(System.nanoTime() - event[0]);
+                if (++received == events) {
+                    done.countDown();
+                }
+            }
+        }};
+        disruptor.handleEventsWith(handlers);
+        final RingBuffer<long[]> ringBuffer = disruptor.start();
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Thread.sleep(100); // let the consumer thread start and go idle
+        final long cpuStart = threads.getThreadCpuTime(consumer[0].getId());
+        final long start = System.nanoTime();
+        final long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (int i = 0; i < events; i++) {
+            final long due = start + i * interval;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                if (wait > SPIN_NANOS) {
+                    LockSupport.parkNanos(wait - SPIN_NANOS); // leave the CPU to the consumer
+                }
+            }
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(sequence)[0] = System.nanoTime();
+            ringBuffer.publish(sequence);
+        }
+        done.await();
+        final long elapsed = System.nanoTime() - start;
+        final long cpu = threads.getThreadCpuTime(consumer[0].getId()) - cpuStart;
+        disruptor.halt();
+        executor.shutdown();
+        if (report) {
+            System.out.printf("%-9s %9d %9.0f %9d %11d %8.1f%%%n", name, rate, histogram.getMean(),
+                    histogram.getTwoNinesUpperBound(), histogram.getFourNinesUpperBound(), 100.0 * cpu / elapsed);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class BoundedMpscQueueTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        final BoundedMpscQueue<String> queue = new BoundedMpscQueue<String>(3);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertTrue(queue.offer("a"));
+        assertTrue(queue.offer("b"));
+        assertTrue(queue.offer("c"));
+        assertFalse("full", queue.offer("d"));
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("a", queue.poll());
+        assertTrue(queue.offer("d"));
+        assertEquals(3, queue.size());
+        assertEquals("b", queue.poll());
+        assertEquals("c", queue.poll());
+        assertEquals("d", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.remainingCapacity());
+    }
+
+    @Test
+    public void testDrainTo() {
+        final BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<Integer>(4);
+        final List<Integer> list = new ArrayList<Integer>();
+        for (int lap = 0; lap < 5; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(lap * 4 + i));
+            }
+            assertEquals(3, queue.drainTo(list, 3));
+            assertEquals(1, queue.drainTo(list, 3));
+            assertEquals(0, queue.drainTo(list, 3));
+        }
+        assertEquals(20, list.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+    }
+
+    @Test
+    public void testCapacityOfOne() {
+        final BoundedMpscQueue<String> queue = new BoundedMpscQueue<String>(1);
+        assertEquals(2, queue.capacity());
+        assertTrue(queue.offer("a"));
+        assertTrue(queue.offer("b"));
+        assertFalse(queue.offer("c"));
+        final List<String> list = new ArrayList<String>();
+        assertEquals(2, queue.drainTo(list, 10));
+        assertEquals(Arrays.asList("a", "b"), list);
+        assertTrue(queue.offer("d"));
+        assertEquals("d", queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new BoundedMpscQueue<String>(0);
+    }
+
+    @Test
+    public void testConcurrentProducersKeepPerProducerOrder() throws Exception {
+        final int producers = 4;
+        final int perProducer = 20000;
+        final BoundedMpscQueue<int[]> queue = new BoundedMpscQueue<int[]>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perProducer; i++) {
+                            queue.put(new int[] {producer, i});
+                        }
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            threads[p].start();
+        }
+        start.countDown();
+        final int[] next = new int[producers];
+        final List<int[]> batch = new ArrayList<int[]>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            if (queue.drainTo(batch, 64) == 0) {
+                queue.awaitNotEmpty(1000000);
+                continue;
+            }
+            for (final int[] element : batch) {
+                assertEquals(next[element[0]]++, element[1]);
+            }
+            received += batch.size();
+            batch.clear();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class OffHeapRecordQueueTest {
+
+    private static byte[] record(final int value, final int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (value + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testRecordsWrapAroundRing() {
+        final OffHeapRecordQueue queue = new OffHeapRecordQueue(30, null);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(queue.offer(record(i, 7)));
+            assertTrue(queue.offer(record(i + 100, 9)));
+            assertArrayEquals(record(i, 7), queue.poll());
+            assertArrayEquals(record(i + 100, 9), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(30, queue.remainingCapacity());
+    }
+
+    @Test
+    public void testFullWithoutSpillFile() throws Exception {
+        final OffHeapRecordQueue queue = new OffHeapRecordQueue(20, null);
+        assertTrue(queue.offer(record(1, 6)));
+        assertTrue(queue.offer(record(2, 6)));
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse("full", queue.offer(record(3, 1)));
+        assertFalse("larger than ring", queue.put(record(4, 17)));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getSpilledCount());
+    }
+
+    @Test
+    public void testSpilledRecordsKeepOrder() {
+        final File file = new File("target/OffHeapRecordQueueTest.spill");
+        final OffHeapRecordQueue queue = new OffHeapRecordQueue(64, file);
+        final List<byte[]> drained = new ArrayList<byte[]>();
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(queue.offer(record(i, 12)));
+            }
+            assertTrue("spilled", queue.getSpilledCount() > 0);
+            assertTrue(file.length() > 0);
+            assertEquals(4, queue.drainTo(drained, 4));
+            // the ring has room again, but the record must go after the spilled ones
+            assertTrue(queue.offer(record(10, 2)));
+            assertEquals(7, queue.drainTo(drained, 100));
+            assertEquals(11, drained.size());
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(record(i, 12), drained.get(i));
+            }
+            assertArrayEquals(record(10, 2), drained.get(10));
+            assertEquals("spill file truncated", 0, file.length());
+            drained.clear();
+        }
+        assertTrue(queue.offer(record(1, 100)));
+        queue.close();
+        assertFalse(file.exists());
+        assertFalse("closed", queue.offer(record(1, 1)));
+    }
+}
@@ -25,6 +25,11 @@ import java.io.ObjectOutputStream;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ObjectMessage;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Test;
 
@@ -68,4 +73,102 @@ public class Log4jLogEventTest {
         assertEquals(evt.isIncludeLocation(), evt2.isIncludeLocation());
     }
 
+    @Test
+    public void testReusableMessageIsCopied() throws Exception {
+        final Message msg = ReusableMessageFactory.INSTANCE.newMessage("value={}", "abc");
+        final Log4jLogEvent snapshot;
+        final Log4jLogEvent evt2;
+        try {
+            final Log4jLogEvent evt = new Log4jLogEvent("some.test", null, "", Level.INFO, msg, null);
+            snapshot = Log4jLogEvent.snapshot(evt);
+
+            final ByteArrayOutputStream arr = new ByteArrayOutputStream();
+            final ObjectOutputStream out = new ObjectOutputStream(arr);
+            out.writeObject(evt);
+            final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(arr.toByteArray()));
+            evt2 = (Log4jLogEvent) in.readObject();
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+        // overwrite the thread's reusable message
+        ReusableMessageFactory.release(ReusableMessageFactory.INSTANCE.newMessage("other={}", "xyz"));
+
+        assertFalse(snapshot.getMessage() instanceof ReusableMessage);
+        assertEquals("value=abc", snapshot.getMessage().getFormattedMessage());
+        assertTrue(evt2.getMessage() instanceof ParameterizedMessage);
+        assertEquals("value=abc", evt2.getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testSnapshotOnlyCopiesWhenNeeded() throws Exception {
+        final Log4jLogEvent evt = new Log4jLogEvent("some.test", null, "", Level.INFO, new SimpleMessage("Hello"),
+            null);
+        assertSame(evt, Log4jLogEvent.snapshot(evt));
+
+        final Message msg = ReusableMessageFactory.INSTANCE.newMessage("value={}", "abc");
+        final Log4jLogEvent reusable = new Log4jLogEvent("some.test", null, Log4jLogEventTest.class.getName(),
+            Level.INFO, msg, null);
+        reusable.setIncludeLocation(true);
+        final Log4jLogEvent snapshot;
+        try {
+            snapshot = Log4jLogEvent.snapshot(reusable);
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+        assertNotSame(reusable, snapshot);
+        assertTrue(snapshot.isIncludeLocation());
+        assertNotNull(snapshot.getSource());
+    }
+
+    @Test
+    public void testSnapshotOnlyFormatsParameterizedMessages() throws Exception {
+        final StringBuilder param = new StringBuilder("before");
+        final Log4jLogEvent parameterized = new Log4jLogEvent("some.test", null, "", Level.INFO,
+            new ParameterizedMessage("value={}", param), null);
+        Log4jLogEvent.snapshot(parameterized);
+        param.setLength(0);
+        assertEquals("value=before", parameterized.getMessage().getFormattedMessage());
+
+        final int[] toStringCalls = new int[1];
+        final Object obj = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls[0]++;
+                return "obj";
+            }
+        };
+        final Log4jLogEvent other = new Log4jLogEvent("some.test", null, "", Level.INFO, new ObjectMessage(obj),
+            null);
+        Log4jLogEvent.snapshot(other);
+        Log4jLogEvent.createMemento(other, false);
+        assertEquals(0, toStringCalls[0]);
+    }
+
+    @Test
+    public void testCreateMementoCapturesCallerState() throws Exception {
+        final Message msg = ReusableMessageFactory.INSTANCE.newMessage("value={}", "abc");
+        final Log4jLogEvent evt = new Log4jLogEvent("some.test", null, Log4jLogEventTest.class.getName(),
+            Level.INFO, msg, null);
+        evt.setIncludeLocation(true);
+        final Log4jLogEvent withLocation;
+        final Log4jLogEvent withoutLocation;
+        try {
+            withLocation = Log4jLogEvent.createMemento(evt, true);
+            withoutLocation = Log4jLogEvent.createMemento(evt, false);
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+        ReusableMessageFactory.release(ReusableMessageFactory.INSTANCE.newMessage("other={}", "xyz"));
+
+        assertNotSame(evt, withLocation);
+        assertFalse(withLocation.getMessage() instanceof ReusableMessage);
+        assertEquals("value=abc", withLocation.getMessage().getFormattedMessage());
+        assertEquals(Thread.currentThread().getName(), withLocation.getThreadName());
+        assertTrue(withLocation.isIncludeLocation());
+        assertNotNull(withLocation.getSource());
+        assertFalse(withoutLocation.isIncludeLocation());
+        assertNull(withoutLocation.getSource());
+        assertEquals(evt.getMillis(), withoutLocation.getMillis());
+        assertNull(Log4jLogEvent.createMemento(new MutableLogEvent(), false).getSource());
+    }
 }
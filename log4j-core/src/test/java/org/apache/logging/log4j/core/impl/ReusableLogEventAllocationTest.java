@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.RandomAccessFileAppender;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that synchronous logging with the {@link ReusableLogEventFactory} does not allocate per event once the
+ * code has been warmed up.
+ */
+public class ReusableLogEventAllocationTest {
+
+    private static final String PATTERN = "%-5p [%t] %c - %m%n";
+    private static final String FQCN = ReusableLogEventAllocationTest.class.getName();
+    private static final int WARMUP = 200000;
+    private static final int EVENTS = 100000;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Before
+    public void before() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void testPatternLayoutEncodeDoesNotAllocate() {
+        final PatternLayout layout = PatternLayout.createLayout(PATTERN, null, null, "UTF-8", null, null);
+        final ReusableLogEventFactory factory = new ReusableLogEventFactory();
+        final Message message = new SimpleMessage("garbage-free message");
+        final DiscardingDestination destination = new DiscardingDestination();
+
+        for (int i = 0; i < WARMUP; i++) {
+            encode(layout, factory, message, destination);
+        }
+        final long before = allocatedBytes();
+        for (int i = 0; i < EVENTS; i++) {
+            encode(layout, factory, message, destination);
+        }
+        final long allocated = allocatedBytes() - before;
+        assertEquals("bytes allocated per event (" + allocated + " in total)", 0, allocated / EVENTS);
+    }
+
+    private static void encode(final PatternLayout layout, final ReusableLogEventFactory factory,
+            final Message message, final ByteBufferDestination destination) {
+        final LogEvent event = factory.createEvent("a.b.C", null, FQCN, Level.INFO, message, null, null);
+        try {
+            layout.encode(event, destination);
+        } finally {
+            ReusableLogEventFactory.release(event);
+        }
+    }
+
+    @Test
+    public void testRandomAccessFileAppenderDoesNotAllocate() {
+        final File file = new File("target/ReusableLogEventAllocationTest.log");
+        file.delete();
+        final PatternLayout layout = PatternLayout.createLayout(PATTERN, null, null, "UTF-8", null, null);
+        final RandomAccessFileAppender appender = RandomAccessFileAppender.createAppender(file.getPath(), "false",
+                "RandomAccessFile", "false", null, "false", layout, null, "false", null, null);
+        appender.start();
+        final LoggerConfig loggerConfig = new LoggerConfig("a.b.C", Level.ALL, false);
+        loggerConfig.setLogEventFactory(new ReusableLogEventFactory());
+        loggerConfig.addAppender(appender, null, null);
+        final Message message = new SimpleMessage("garbage-free message");
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                loggerConfig.log("a.b.C", null, FQCN, Level.INFO, message, null);
+            }
+            final long before = allocatedBytes();
+            for (int i = 0; i < EVENTS; i++) {
+                loggerConfig.log("a.b.C", null, FQCN, Level.INFO, message, null);
+            }
+            final long allocated = allocatedBytes() - before;
+            assertEquals("bytes allocated per event (" + allocated + " in total)", 0, allocated / EVENTS);
+        } finally {
+            appender.stop();
+            file.delete();
+        }
+    }
+
+    /**
+     * Destination that throws away everything written to it.
+     */
+    private static class DiscardingDestination implements ByteBufferDestination {
+        private final ByteBuffer buffer = ByteBuffer.allocate(4 * 1024);
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            buffer.clear();
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.clear();
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+public class ReusableLogEventFactoryTest {
+
+    private final ReusableLogEventFactory factory = new ReusableLogEventFactory();
+
+    @Test
+    public void testReusesEventAfterRelease() {
+        final LogEvent event1 = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("one"), null,
+                null);
+        ReusableLogEventFactory.release(event1);
+        final LogEvent event2 = factory.createEvent("b", null, "fqcn", Level.WARN, new SimpleMessage("two"), null,
+                null);
+        ReusableLogEventFactory.release(event2);
+        assertTrue(event1 instanceof MutableLogEvent);
+        assertSame(event1, event2);
+    }
+
+    @Test
+    public void testNestedCallCreatesNewEvent() {
+        final LogEvent outer = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("outer"), null,
+                null);
+        try {
+            final LogEvent inner = factory.createEvent("b", null, "fqcn", Level.INFO, new SimpleMessage("inner"),
+                    null, null);
+            assertNotSame(outer, inner);
+            assertEquals("outer", outer.getMessage().getFormattedMessage());
+            assertEquals("inner", inner.getMessage().getFormattedMessage());
+        } finally {
+            ReusableLogEventFactory.release(outer);
+        }
+    }
+
+    @Test
+    public void testEventsFromDifferentThreadsAreDistinct() throws Exception {
+        final LogEvent[] other = new LogEvent[1];
+        final String[] otherThreadName = new String[1];
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                other[0] = factory.createEvent("b", null, "fqcn", Level.INFO, new SimpleMessage("other"), null, null);
+                otherThreadName[0] = other[0].getThreadName();
+            }
+        };
+        thread.start();
+        thread.join();
+        final LogEvent event = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("mine"), null,
+                null);
+        ReusableLogEventFactory.release(event);
+        assertNotSame(event, other[0]);
+        assertEquals(thread.getName(), otherThreadName[0]);
+    }
+
+    @Test
+    public void testThreadNameIsReadForEachEvent() {
+        final Thread current = Thread.currentThread();
+        final String originalName = current.getName();
+        final LogEvent before = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("one"), null,
+                null);
+        assertEquals(originalName, before.getThreadName());
+        ReusableLogEventFactory.release(before);
+        current.setName(originalName + "-renamed");
+        try {
+            final LogEvent after = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("two"), null,
+                    null);
+            assertEquals(originalName + "-renamed", after.getThreadName());
+            ReusableLogEventFactory.release(after);
+        } finally {
+            current.setName(originalName);
+        }
+    }
+
+    @Test
+    public void testReleaseClearsReferences() {
+        final LogEvent event = factory.createEvent("a", null, "fqcn", Level.INFO, new SimpleMessage("msg"), null,
+                new RuntimeException("test"));
+        ReusableLogEventFactory.release(event);
+        assertNull(event.getMessage());
+        assertNull(event.getThrown());
+        assertNull(event.getLoggerName());
+    }
+
+    @Test
+    public void testMementoIsIndependentOfReusedEvent() {
+        final Message message = new SimpleMessage("msg");
+        final Exception thrown = new RuntimeException("test");
+        final MutableLogEvent event = (MutableLogEvent) factory.createEvent("a.b", null, "fqcn", Level.ERROR, message,
+                null, thrown);
+        final Log4jLogEvent memento;
+        try {
+            event.setEndOfBatch(true);
+            memento = event.createMemento();
+        } finally {
+            ReusableLogEventFactory.release(event);
+        }
+        assertEquals("a.b", memento.getLoggerName());
+        assertEquals(Level.ERROR, memento.getLevel());
+        assertSame(message, memento.getMessage());
+        assertSame(thrown, memento.getThrown());
+        assertEquals(Thread.currentThread().getName(), memento.getThreadName());
+        assertTrue(memento.isEndOfBatch());
+        assertNull(event.getMessage());
+    }
+
+    @Test
+    public void testJavaIoSerializableWritesCopy() throws Exception {
+        final LogEvent event = factory.createEvent("some.test", null, "", Level.INFO, new SimpleMessage("abc"), null,
+                null);
+        final ByteArrayOutputStream arr = new ByteArrayOutputStream();
+        try {
+            final ObjectOutputStream out = new ObjectOutputStream(arr);
+            out.writeObject(event);
+            out.close();
+        } finally {
+            ReusableLogEventFactory.release(event);
+        }
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(arr.toByteArray()));
+        final Log4jLogEvent copy = (Log4jLogEvent) in.readObject();
+        assertEquals("some.test", copy.getLoggerName());
+        assertEquals("abc", copy.getMessage().getFormattedMessage());
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.layout;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 
@@ -141,6 +142,18 @@ public class PatternLayoutTest {
         assertEquals("org/apache/logging/log4j/core/layout/PatternLayoutTest Hello, world!", new String(result));
     }
 
+    @Test
+    public void testEncodeMatchesToByteArray() throws Exception {
+        final LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        final PatternLayout layout = PatternLayout.createLayout("%-5p [%t] %c{1} - %m%n", ctx.getConfiguration(), null,
+                "UTF-8", null, null);
+        final LogEvent event = new Log4jLogEvent(this.getClass().getName(), null,
+                "org.apache.logging.log4j.core.Logger", Level.INFO, new SimpleMessage("Hello, w\u00f6rld!"), null);
+        final StringBuilderEncoderTest.MemoryDestination destination = new StringBuilderEncoderTest.MemoryDestination(7);
+        layout.encode(event, destination);
+        assertArrayEquals(layout.toByteArray(event), destination.toByteArray());
+    }
+
     private void testUnixTime(String pattern) throws Exception {
         final LoggerContext ctx = (LoggerContext) LogManager.getContext();
         final PatternLayout layout = PatternLayout.createLayout(pattern + " %m", ctx.getConfiguration(), null, null,
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+/**
+ * Tests the StringBuilderEncoder class.
+ */
+public class StringBuilderEncoderTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Collects everything drained from a small buffer. */
+    static class MemoryDestination implements ByteBufferDestination {
+        final ByteBuffer buffer;
+        final ByteArrayOutputStream drained = new ByteArrayOutputStream();
+        int drainCount;
+
+        MemoryDestination(final int bufferSize) {
+            this.buffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            drainCount++;
+            buf.flip();
+            drained.write(buf.array(), 0, buf.limit());
+            buf.clear();
+            return buf;
+        }
+
+        byte[] toByteArray() {
+            drain(buffer);
+            return drained.toByteArray();
+        }
+    }
+
+    @Test
+    public void testEncodeAscii() {
+        final MemoryDestination destination = new MemoryDestination(1024);
+        new StringBuilderEncoder(UTF8).encode(new StringBuilder("Hello, world!"), destination);
+        assertEquals(0, destination.drainCount);
+        assertEquals("Hello, world!", new String(destination.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void testEncodeTextLargerThanBuffers() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("caf\u00e9 \u20ac").append(i).append('\n');
+        }
+        final MemoryDestination destination = new MemoryDestination(64);
+        new StringBuilderEncoder(UTF8, 16).encode(text, destination);
+        assertTrue(destination.drainCount > 0);
+        assertArrayEquals(text.toString().getBytes(UTF8), destination.toByteArray());
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossCharBuffers() {
+        // U+1D11E MUSICAL SYMBOL G CLEF is encoded as a surrogate pair
+        final StringBuilder text = new StringBuilder("abc\uD834\uDD1Edef\uD834\uDD1E");
+        final MemoryDestination destination = new MemoryDestination(5);
+        new StringBuilderEncoder(UTF8, 4).encode(text, destination);
+        assertArrayEquals(text.toString().getBytes(UTF8), destination.toByteArray());
+    }
+
+    @Test
+    public void testUnmappableCharactersAreReplaced() {
+        final Charset ascii = Charset.forName("US-ASCII");
+        final StringBuilder text = new StringBuilder("x\u00e9y");
+        final MemoryDestination destination = new MemoryDestination(16);
+        new StringBuilderEncoder(ascii).encode(text, destination);
+        assertArrayEquals(text.toString().getBytes(ascii), destination.toByteArray());
+    }
+
+    @Test
+    public void testEncoderIsReusable() {
+        final StringBuilderEncoder encoder = new StringBuilderEncoder(UTF8, 8);
+        final MemoryDestination destination = new MemoryDestination(8);
+        encoder.encode(new StringBuilder("first \u00e9vent "), destination);
+        encoder.encode(new StringBuilder("second \u00e9vent"), destination);
+        assertEquals("first \u00e9vent second \u00e9vent", new String(destination.toByteArray(), UTF8));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.junit.Assert.*;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class DatePatternConverterTest {
+
+    private static final String TIME_ZONE = "America/New_York";
+
+    // 2014-03-09 06:59:58.123 UTC is two seconds before the daylight saving time change in New York
+    private static final long DST_CHANGE = 1394348398123L;
+
+    private static void assertFormatsLike(final String option, final String pattern, final long... times) {
+        final DatePatternConverter converter = DatePatternConverter.newInstance(new String[] {option, TIME_ZONE});
+        final SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone(TIME_ZONE));
+        for (final long time : times) {
+            final StringBuilder buffer = new StringBuilder();
+            converter.format(new Date(time), buffer);
+            assertEquals(option + " at " + time, format.format(new Date(time)), buffer.toString());
+        }
+    }
+
+    private static long[] sampleTimes() {
+        final Random random = new Random(42);
+        final long[] result = new long[200];
+        for (int i = 0; i < 100; i++) {
+            // consecutive events within and across seconds
+            result[i] = DST_CHANGE + i * 37L;
+        }
+        for (int i = 100; i < result.length; i++) {
+            result[i] = Math.abs(random.nextLong() % 4000000000000L);
+        }
+        return result;
+    }
+
+    @Test
+    public void testPredefinedFormats() {
+        final long[] times = sampleTimes();
+        assertFormatsLike("ISO8601", "yyyy-MM-dd HH:mm:ss,SSS", times);
+        assertFormatsLike("ISO8601_BASIC", "yyyyMMdd HHmmss,SSS", times);
+        assertFormatsLike("ABSOLUTE", "HH:mm:ss,SSS", times);
+        assertFormatsLike("DATE", "dd MMM yyyy HH:mm:ss,SSS", times);
+        assertFormatsLike("COMPACT", "yyyyMMddHHmmssSSS", times);
+    }
+
+    @Test
+    public void testCustomPatterns() {
+        final long[] times = sampleTimes();
+        assertFormatsLike("HH:mm:ss.SSS 'in' MMMM yyyy", "HH:mm:ss.SSS 'in' MMMM yyyy", times);
+        assertFormatsLike("yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss", times);
+        assertFormatsLike("'Second' ss, 'S'", "'Second' ss, 'S'", times);
+        assertFormatsLike("ss.S", "ss.S", times);
+        assertFormatsLike("ss.SSSS", "ss.SSSS", times);
+    }
+
+    @Test
+    public void testPattern() {
+        assertEquals("yyyy-MM-dd HH:mm:ss,SSS", DatePatternConverter.newInstance(null).getPattern());
+        assertEquals("HH:mm:ss,SSS", DatePatternConverter.newInstance(new String[] {"ABSOLUTE"}).getPattern());
+        assertEquals("yyyy-MM", DatePatternConverter.newInstance(new String[] {"yyyy-MM"}).getPattern());
+    }
+
+    @Test
+    public void testUnixFormats() {
+        final StringBuilder buffer = new StringBuilder();
+        DatePatternConverter.newInstance(new String[] {"UNIX"}).format(new Date(DST_CHANGE), buffer);
+        buffer.append(' ');
+        DatePatternConverter.newInstance(new String[] {"UNIX_MILLIS"}).format(new Date(DST_CHANGE), buffer);
+        assertEquals("1394348398 1394348398123", buffer.toString());
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        final DatePatternConverter converter = DatePatternConverter.newInstance(new String[] {"ISO8601", TIME_ZONE});
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 997;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss,SSS");
+                    format.setTimeZone(TimeZone.getTimeZone(TIME_ZONE));
+                    final StringBuilder buffer = new StringBuilder();
+                    for (int i = 0; i < 20000; i++) {
+                        final long time = DST_CHANGE + offset + i * 13L;
+                        buffer.setLength(0);
+                        converter.format(new Date(time), buffer);
+                        final String expected = format.format(new Date(time));
+                        if (!expected.equals(buffer.toString())) {
+                            failure.compareAndSet(null, expected + " != " + buffer);
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class LoggerPatternConverterTest {
+
+    private static String format(final LoggerPatternConverter converter, final String loggerName) {
+        final LogEvent event = new Log4jLogEvent(loggerName, null, null, Level.INFO, new SimpleMessage("Hello"),
+            null);
+        final StringBuilder sb = new StringBuilder();
+        converter.format(event, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void testAbbreviatedNameIsCached() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(new String[] {"1."});
+        assertEquals("o.a.l.Test", format(converter, "org.apache.logging.Test"));
+        assertEquals("o.a.l.Test", format(converter, "org.apache.logging.Test"));
+        assertEquals("o.a.Other", format(converter, "org.apache.Other"));
+        assertEquals("o.a.l.Test", format(converter, "org.apache.logging.Test"));
+        assertEquals(2, converter.getCacheMisses());
+        assertEquals(2, converter.getCacheHits());
+        assertEquals(0.5, converter.getCacheHitRate(), 0.0);
+    }
+
+    @Test
+    public void testFullNameIsNotCached() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(null);
+        assertEquals("org.apache.logging.Test", format(converter, "org.apache.logging.Test"));
+        assertEquals("org.apache.logging.Test", format(converter, "org.apache.logging.Test"));
+        assertEquals(0, converter.getCacheMisses());
+        assertEquals(0, converter.getCacheHits());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(new String[] {"1"});
+        for (int i = 0; i < NamePatternConverter.MAX_CACHE_SIZE + 10; i++) {
+            assertEquals("Test" + i, format(converter, "org.apache.Test" + i));
+        }
+        assertEquals("Test0", format(converter, "org.apache.Test0"));
+        final String last = "org.apache.Test" + (NamePatternConverter.MAX_CACHE_SIZE + 9);
+        assertEquals("Test" + (NamePatternConverter.MAX_CACHE_SIZE + 9), format(converter, last));
+        assertEquals(1, converter.getCacheHits());
+        assertEquals(NamePatternConverter.MAX_CACHE_SIZE + 11, converter.getCacheMisses());
+    }
+
+    @Test
+    public void testCountsFromAllThreadsAreSummed() throws Exception {
+        final LoggerPatternConverter converter = LoggerPatternConverter.newInstance(new String[] {"1."});
+        format(converter, "org.apache.logging.Test");
+        final Thread[] threads = new Thread[20];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        format(converter, "org.apache.logging.Test");
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, converter.getCacheMisses());
+        assertEquals(threads.length * 100, converter.getCacheHits());
+    }
+}
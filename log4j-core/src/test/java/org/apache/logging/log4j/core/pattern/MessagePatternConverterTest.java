@@ -22,9 +22,11 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -71,4 +73,20 @@ public class MessagePatternConverterTest {
         converter.format(event, sb);
         assertTrue("Incorrect length: " + sb.length(), sb.length() == 4);
     }
+
+    @Test
+    public void testParameterizedMessageWithLookup() throws Exception {
+        System.setProperty("MessagePatternConverterTest.key", "replaced");
+        try {
+            final Configuration config = new DefaultConfiguration();
+            final MessagePatternConverter converter = MessagePatternConverter.newInstance(config, null);
+            final Message msg = new ParameterizedMessage("{} is {}", "${sys:MessagePatternConverterTest.key}", 1);
+            final LogEvent event = new Log4jLogEvent("MyLogger", null, null, Level.DEBUG, msg, null);
+            final StringBuilder sb = new StringBuilder("${unchanged} ");
+            converter.format(event, sb);
+            assertEquals("${unchanged} replaced is 1", sb.toString());
+        } finally {
+            System.clearProperty("MessagePatternConverterTest.key");
+        }
+    }
 }
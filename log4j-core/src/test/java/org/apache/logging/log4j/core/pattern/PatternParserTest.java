@@ -135,4 +135,28 @@ public class PatternParserTest {
         assertTrue("Expected to end with: \"" + expectedEnd + "\". Actual: \"" + str, str.endsWith(expectedEnd));
     }
 
+    @Test
+    public void testAdjacentLiteralsAreMerged() {
+        final List<PatternFormatter> formatters = parser.parse("[%%] %m%% - %n");
+        validateConverter(formatters, 0, "Literal");
+        validateConverter(formatters, 1, "Message");
+        validateConverter(formatters, 2, "Literal");
+        validateConverter(formatters, 3, "Line Sep");
+        assertEquals(4, formatters.size());
+        assertEquals("[%] ", ((LiteralPatternConverter) formatters.get(0).getConverter()).getLiteral());
+        assertEquals("% - ", ((LiteralPatternConverter) formatters.get(2).getConverter()).getLiteral());
+    }
+
+    @Test
+    public void testPaddedConvertersAreKept() {
+        final List<PatternFormatter> formatters = parser.parse("%-5p|%5.5m|");
+        final LogEvent event = new Log4jLogEvent("org.apache.logging.log4j.PatternParserTest", null,
+                Logger.class.getName(), Level.INFO, new SimpleMessage("Hello, world"), null, null, null, "Thread1",
+                null, System.currentTimeMillis());
+        final StringBuilder buf = new StringBuilder();
+        for (final PatternFormatter formatter : formatters) {
+            formatter.format(event, buf);
+        }
+        assertEquals("INFO |world|", buf.toString());
+    }
 }
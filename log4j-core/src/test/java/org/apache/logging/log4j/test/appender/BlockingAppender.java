@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.test.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Records the formatted messages of the events it receives, and blocks the appending
+ * thread on events with the message "block" until {@link #unblock()} is called.
+ */
+@Plugin(name="Blocking", category ="Core",elementType="appender",printObject=true)
+public class BlockingAppender extends AbstractAppender {
+
+    public static final String BLOCK = "block";
+
+    private final List<String> messages = new ArrayList<String>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private BlockingAppender(final String name) {
+        super(name, null, null, false);
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        final String message = event.getMessage().getFormattedMessage();
+        if (BLOCK.equals(message)) {
+            blocked.countDown();
+            try {
+                released.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (messages) {
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Waits until a thread is blocked in this appender.
+     * @param millis maximum time to wait
+     * @return true if a thread is blocked
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitBlocked(final long millis) throws InterruptedException {
+        return blocked.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void unblock() {
+        released.countDown();
+    }
+
+    public List<String> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<String>(messages);
+        }
+    }
+
+    @PluginFactory
+    public static BlockingAppender createAppender(@PluginAttribute("name") final String name) {
+        if (name == null) {
+            LOGGER.error("A name for the Appender must be specified");
+            return null;
+        }
+
+        return new BlockingAppender(name);
+    }
+
+}
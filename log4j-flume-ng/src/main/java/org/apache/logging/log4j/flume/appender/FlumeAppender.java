@@ -30,6 +30,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Booleans;
 import org.apache.logging.log4j.core.helpers.Integers;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.RFC5424Layout;
 
 /**
@@ -97,8 +98,10 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
                 }
             }
         }
-        final FlumeEvent flumeEvent = factory.createEvent(event, mdcIncludes, mdcExcludes, mdcRequired, mdcPrefix,
-            eventPrefix, compressBody);
+        // batching managers keep the Flume event, which reads through to the LogEvent, after this call returns
+        final LogEvent copy = Log4jLogEvent.snapshot(event);
+        final FlumeEvent flumeEvent = factory.createEvent(copy == null ? event : copy, mdcIncludes, mdcExcludes,
+            mdcRequired, mdcPrefix, eventPrefix, compressBody);
         flumeEvent.setBody(getLayout().toByteArray(flumeEvent));
         manager.send(flumeEvent);
     }
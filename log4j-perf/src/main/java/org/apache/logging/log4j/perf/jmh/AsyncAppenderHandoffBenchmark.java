@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the work AsyncAppender does per event to hand it to its background thread: the previous
+ * snapshot, serialize and deserialize round-trip through LogEventProxy, and a single copy with
+ * {@code Log4jLogEvent.createMemento}. The handed-off object is stored in an array standing in for the
+ * queue, so that it escapes as it does in the appender.
+ * <p>
+ * Run with
+ * {@code java -jar log4j-perf/target/benchmarks.jar ".*AsyncAppenderHandoffBenchmark.*" -f 1 -wi 5 -i 10 -prof gc}
+ * to see the allocation rate per event.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AsyncAppenderHandoffBenchmark {
+
+    private static final int QUEUE_MASK = 1023;
+
+    private final Serializable[] queue = new Serializable[QUEUE_MASK + 1];
+    private int index;
+    private Log4jLogEvent event;
+
+    @Setup
+    public void setUp() {
+        event = new Log4jLogEvent("org.apache.logging.log4j.perf.Handoff", null, "fqcn", Level.INFO,
+                new ParameterizedMessage("Handoff {} of {}", "event", "benchmark"), null);
+        event.getMessage().getFormattedMessage();
+    }
+
+    @Benchmark
+    public LogEvent serializeRoundTrip() {
+        final int slot = index++ & QUEUE_MASK;
+        queue[slot] = Log4jLogEvent.serialize(Log4jLogEvent.snapshot(event), false);
+        return Log4jLogEvent.deserialize(queue[slot]);
+    }
+
+    @Benchmark
+    public LogEvent createMemento() {
+        final int slot = index++ & QUEUE_MASK;
+        queue[slot] = Log4jLogEvent.createMemento(event, false);
+        return (LogEvent) queue[slot];
+    }
+}
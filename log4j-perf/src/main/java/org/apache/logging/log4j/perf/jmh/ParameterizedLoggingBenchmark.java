@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares logging a {@code long} parameter through the varargs path, which boxes the parameter and allocates an
+ * {@code Object[]}, with logging a {@code ParameterizedMessage} that keeps the parameter unboxed, both for a disabled
+ * and for an enabled level. The Logger interface has no primitive overloads: existing code passing a null
+ * {@code Long} would bind to them and throw while unboxing.
+ * <p>
+ * Run with
+ * {@code java -jar log4j-perf/target/benchmarks.jar ".*ParameterizedLoggingBenchmark.*" -f 1 -wi 5 -i 10 -prof gc}
+ * to include the allocation rate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParameterizedLoggingBenchmark {
+
+    private static final String PATTERN = "latency={}";
+
+    // outside the range of the Long cache
+    private long nanos = 123456789L;
+
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, "log4j2-perf-params.xml");
+        logger = LogManager.getLogger(ParameterizedLoggingBenchmark.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LogManager.getContext(false)).stop();
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+    }
+
+    @Benchmark
+    public void debugDisabledVarargs() {
+        logger.debug(PATTERN, nanos);
+    }
+
+    @Benchmark
+    public void debugDisabledPrimitive() {
+        if (logger.isDebugEnabled()) {
+            logger.debug(new ParameterizedMessage(PATTERN, nanos));
+        }
+    }
+
+    @Benchmark
+    public void infoEnabledVarargs() {
+        logger.info(PATTERN, nanos);
+    }
+
+    @Benchmark
+    public void infoEnabledPrimitive() {
+        logger.info(new ParameterizedMessage(PATTERN, nanos));
+    }
+}
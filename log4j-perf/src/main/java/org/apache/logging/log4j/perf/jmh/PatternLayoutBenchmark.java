@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures formatting one event with a typical PatternLayout, both into a String and encoded into a ByteBuffer.
+ * <p>
+ * Run with
+ * {@code java -jar log4j-perf/target/benchmarks.jar ".*PatternLayoutBenchmark.*" -f 1 -wi 5 -i 10 -prof gc}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PatternLayoutBenchmark {
+
+    private static final String PATTERN = "%d %-5p [%t] %c{1} - %m%n";
+
+    private final PatternLayout layout = PatternLayout.createLayout(PATTERN, new DefaultConfiguration(), null, null,
+            null, null);
+
+    private final LogEvent event = new Log4jLogEvent("org.apache.logging.log4j.perf.jmh.PatternLayoutBenchmark",
+            null, "org.apache.logging.log4j.spi.AbstractLogger", Level.INFO,
+            new SimpleMessage("User logged in from 10.0.0.1"), null, null, null, "main", null, 1400000000000L);
+
+    private final Destination destination = new Destination();
+
+    private static class Destination implements ByteBufferDestination {
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.clear();
+            return buf;
+        }
+    }
+
+    @Benchmark
+    public String toSerializable() {
+        return layout.toSerializable(event);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        destination.buffer.clear();
+        layout.encode(event, destination);
+        return destination.buffer;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.spi.DefaultThreadContextMap;
+import org.apache.logging.log4j.spi.SortedArrayThreadContextMap;
+import org.apache.logging.log4j.spi.ThreadContextMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the ThreadContext Map implementations for a request that puts a number of keys, reads them, takes a
+ * snapshot as a log call would, and clears the Map again.
+ * <p>
+ * Run with
+ * {@code java -jar log4j-perf/target/benchmarks.jar ".*ThreadContextMapBenchmark.*" -f 1 -wi 5 -i 10 -prof gc}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadContextMapBenchmark {
+
+    @Param({"Default", "SortedArray"})
+    public String mapType;
+
+    @Param({"4", "12"})
+    public int count;
+
+    private ThreadContextMap map;
+    private String[] keys;
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        map = "Default".equals(mapType) ? new DefaultThreadContextMap(true) : new SortedArrayThreadContextMap(true);
+        keys = new String[count];
+        values = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "requestKey" + i;
+            values[i] = "value" + i;
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> putAndSnapshot() {
+        map.clear();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map.getImmutableMapOrNull();
+    }
+
+    @Benchmark
+    public int putGetAndSnapshotPerKey() {
+        map.clear();
+        int result = 0;
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+            result += map.get(keys[i]).length();
+            result += map.getImmutableMapOrNull().size();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, String> snapshot() {
+        if (map.isEmpty()) {
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], values[i]);
+            }
+        }
+        return map.getImmutableMapOrNull();
+    }
+}
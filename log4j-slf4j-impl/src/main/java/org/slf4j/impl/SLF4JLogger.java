@@ -56,7 +56,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void trace(final String format, final Object o) {
         if (logger.isTraceEnabled()) {
-            logger.log(null, FQCN, Level.TRACE, new ParameterizedMessage(format, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(format, o);
+            logger.log(null, FQCN, Level.TRACE, msg, msg.getThrowable());
         }
     }
 
@@ -103,8 +104,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void trace(final Marker marker, final String s, final Object o) {
         if (isTraceEnabled(marker)) {
-            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.TRACE,
-                new ParameterizedMessage(s, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(s, o);
+            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.TRACE, msg, msg.getThrowable());
         }
     }
 
@@ -142,7 +143,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void debug(final String format, final Object o) {
         if (logger.isDebugEnabled()) {
-            logger.log(null, FQCN, Level.DEBUG, new ParameterizedMessage(format, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(format, o);
+            logger.log(null, FQCN, Level.DEBUG, msg, msg.getThrowable());
         }
     }
 
@@ -189,8 +191,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void debug(final Marker marker, final String s, final Object o) {
         if (isDebugEnabled(marker)) {
-            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.DEBUG,
-                new ParameterizedMessage(s, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(s, o);
+            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.DEBUG, msg, msg.getThrowable());
         }
     }
 
@@ -228,7 +230,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void info(final String format, final Object o) {
         if (logger.isInfoEnabled()) {
-            logger.log(null, FQCN, Level.INFO, new ParameterizedMessage(format, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(format, o);
+            logger.log(null, FQCN, Level.INFO, msg, msg.getThrowable());
         }
     }
 
@@ -275,8 +278,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void info(final Marker marker, final String s, final Object o) {
         if (isInfoEnabled(marker)) {
-            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.INFO,
-                new ParameterizedMessage(s, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(s, o);
+            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.INFO, msg, msg.getThrowable());
         }
     }
 
@@ -314,7 +317,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void warn(final String format, final Object o) {
         if (logger.isWarnEnabled()) {
-            logger.log(null, FQCN, Level.WARN, new ParameterizedMessage(format, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(format, o);
+            logger.log(null, FQCN, Level.WARN, msg, msg.getThrowable());
         }
     }
 
@@ -361,8 +365,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void warn(final Marker marker, final String s, final Object o) {
         if (isWarnEnabled(marker)) {
-            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.WARN,
-                new ParameterizedMessage(s, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(s, o);
+            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.WARN, msg, msg.getThrowable());
         }
     }
 
@@ -400,7 +404,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void error(final String format, final Object o) {
         if (logger.isErrorEnabled()) {
-            logger.log(null, FQCN, Level.ERROR, new ParameterizedMessage(format, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(format, o);
+            logger.log(null, FQCN, Level.ERROR, msg, msg.getThrowable());
         }
     }
 
@@ -447,8 +452,8 @@ public class SLF4JLogger implements LocationAwareLogger {
     @Override
     public void error(final Marker marker, final String s, final Object o) {
         if (isErrorEnabled(marker)) {
-            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.ERROR,
-                new ParameterizedMessage(s, o), null);
+            final ParameterizedMessage msg = new ParameterizedMessage(s, o);
+            logger.log((org.apache.logging.log4j.Marker) marker, FQCN, Level.ERROR, msg, msg.getThrowable());
         }
     }
 